@@ -0,0 +1,128 @@
+package com.gagym.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Base64;
+
+// 서명된 QR 코드: "G1." + base64url(종류 1 + ID 8 + 헬스장 ID 8 + 만료 8 + HMAC-SHA256 앞 16바이트)
+@Component
+public class QrCodeSigner {
+    
+    public static final byte PURCHASE = 'P';
+    public static final byte TICKET = 'T';
+    
+    private static final String PREFIX = "G1.";
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int PAYLOAD_LENGTH = 1 + Long.BYTES * 3;
+    private static final int TAG_LENGTH = 16;
+    
+    private final SecretKeySpec signingKey;
+    // Mac 은 스레드 안전하지 않으므로 스레드별로 재사용
+    private final ThreadLocal<Mac> macs;
+    
+    public QrCodeSigner(@Value("${app.qr.secret}") String qrSecret) {
+        this.signingKey = new SecretKeySpec(qrSecret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+    
+    // 구매 QR 코드 (입장용)
+    public String signPurchase(Long purchaseId, Long gymId, LocalDateTime expiryDate) {
+        return sign(PURCHASE, purchaseId, gymId, expiryDate);
+    }
+    
+    // 티켓 QR 코드 (만료 없음)
+    public String signTicket(Long ticketId, Long gymId) {
+        return sign(TICKET, ticketId, gymId, null);
+    }
+    
+    public boolean isSigned(String qrCode) {
+        return qrCode != null && qrCode.startsWith(PREFIX);
+    }
+    
+    // 서명 검증 후 내용 반환 (형식 오류, 서명 불일치면 null)
+    public Payload verify(String qrCode) {
+        if (!isSigned(qrCode)) {
+            return null;
+        }
+        String token = qrCode.substring(PREFIX.length());
+        byte[] decoded;
+        try {
+            decoded = Base64.getUrlDecoder().decode(token);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+        if (decoded.length != PAYLOAD_LENGTH + TAG_LENGTH) {
+            return null;
+        }
+        // 디코더는 마지막 글자의 남는 비트, 패딩이 달라도 같은 바이트로 읽으므로 발급한 그대로의 인코딩만 허용
+        byte[] canonical = Base64.getUrlEncoder().withoutPadding().encode(decoded);
+        if (!MessageDigest.isEqual(canonical, token.getBytes(StandardCharsets.US_ASCII))) {
+            return null;
+        }
+        byte[] expected = tag(decoded, PAYLOAD_LENGTH);
+        byte[] actual = Arrays.copyOfRange(decoded, PAYLOAD_LENGTH, decoded.length);
+        if (!MessageDigest.isEqual(expected, actual)) {
+            return null;
+        }
+        
+        ByteBuffer buffer = ByteBuffer.wrap(decoded, 0, PAYLOAD_LENGTH);
+        byte kind = buffer.get();
+        long id = buffer.getLong();
+        long gymId = buffer.getLong();
+        long expiry = buffer.getLong();
+        return new Payload(kind, id, gymId,
+                expiry == 0 ? null : LocalDateTime.ofEpochSecond(expiry, 0, ZoneOffset.UTC));
+    }
+    
+    private String sign(byte kind, Long id, Long gymId, LocalDateTime expiryDate) {
+        byte[] token = new byte[PAYLOAD_LENGTH + TAG_LENGTH];
+        ByteBuffer.wrap(token)
+                .put(kind)
+                .putLong(id)
+                .putLong(gymId == null ? 0L : gymId)
+                .putLong(expiryDate == null ? 0L : expiryDate.toEpochSecond(ZoneOffset.UTC));
+        System.arraycopy(tag(token, PAYLOAD_LENGTH), 0, token, PAYLOAD_LENGTH, TAG_LENGTH);
+        return PREFIX + Base64.getUrlEncoder().withoutPadding().encodeToString(token);
+    }
+    
+    private byte[] tag(byte[] data, int length) {
+        Mac mac = macs.get();
+        mac.update(data, 0, length);
+        return Arrays.copyOf(mac.doFinal(), TAG_LENGTH);
+    }
+    
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(signingKey);
+            return mac;
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("QR 서명 키를 초기화할 수 없습니다.", ex);
+        }
+    }
+    
+    @Getter
+    @AllArgsConstructor
+    public static class Payload {
+        private final byte kind;
+        private final long id;
+        private final long gymId;
+        private final LocalDateTime expiryDate; // 티켓은 null
+        
+        public boolean isPurchase() {
+            return kind == PURCHASE;
+        }
+    }
+} 
\ No newline at end of file
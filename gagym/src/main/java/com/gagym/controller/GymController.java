@@ -1,10 +1,15 @@
 package com.gagym.controller;
 
+import com.gagym.dto.CacheStatsDto;
+import com.gagym.dto.CursorPageDto;
 import com.gagym.dto.GymDto;
+import com.gagym.dto.GymSearchDto;
 import com.gagym.service.GymService;
+import com.gagym.service.GymStreamPublisher;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -16,6 +21,7 @@ import java.util.List;
 public class GymController {
     
     private final GymService gymService;
+    private final GymStreamPublisher gymStreamPublisher;
     
     // 모든 헬스장 조회
     @GetMapping
@@ -24,6 +30,14 @@ public class GymController {
         return ResponseEntity.ok(gyms);
     }
     
+    // 모든 헬스장 스트리밍 조회 (NDJSON, 한 줄에 헬스장 하나)
+    @GetMapping("/stream")
+    public ResponseEntity<ResponseBodyEmitter> streamAllGyms(@RequestParam(required = false) Long userId) {
+        return ResponseEntity.ok()
+                .contentType(GymStreamPublisher.NDJSON)
+                .body(gymStreamPublisher.streamAllGyms(userId));
+    }
+    
     // ID로 헬스장 조회
     @GetMapping("/{gymId}")
     public ResponseEntity<GymDto> getGymById(@PathVariable Long gymId, @RequestParam(required = false) Long userId) {
@@ -31,6 +45,13 @@ public class GymController {
         return ResponseEntity.ok(gym);
     }
     
+    // 복합 조건 검색 (explain=true 면 실행 계획 포함)
+    @GetMapping("/search")
+    public ResponseEntity<GymSearchDto.Response> searchGyms(@ModelAttribute GymSearchDto.Request request) {
+        GymSearchDto.Response response = gymService.searchGyms(request);
+        return ResponseEntity.ok(response);
+    }
+    
     // 위치 기반 헬스장 검색
     @GetMapping("/search/location")
     public ResponseEntity<List<GymDto>> searchGymsByLocation(
@@ -42,6 +63,22 @@ public class GymController {
         return ResponseEntity.ok(gyms);
     }
     
+    // 가까운 순 헬스장 검색 (거리 포함, 페이지 단위)
+    @GetMapping("/search/nearby")
+    public ResponseEntity<List<GymDto>> searchNearbyGyms(
+            @RequestParam Double latitude,
+            @RequestParam Double longitude,
+            @RequestParam Double radius,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) Long userId) {
+        if (!gymService.isNearbyPageInRange(page, size)) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<GymDto> gyms = gymService.searchNearbyGyms(latitude, longitude, radius, page, size, userId);
+        return ResponseEntity.ok(gyms);
+    }
+    
     // 가격 범위로 헬스장 검색
     @GetMapping("/search/price")
     public ResponseEntity<List<GymDto>> searchGymsByPrice(
@@ -79,6 +116,16 @@ public class GymController {
         return ResponseEntity.ok(gyms);
     }
     
+    // 여러 시설로 헬스장 검색 (match=all: 모두 갖춤, any: 하나 이상)
+    @GetMapping("/search/facilities")
+    public ResponseEntity<List<GymDto>> searchGymsByFacilities(
+            @RequestParam List<String> facilities,
+            @RequestParam(defaultValue = "all") String match,
+            @RequestParam(required = false) Long userId) {
+        List<GymDto> gyms = gymService.searchGymsByFacilities(facilities, !"any".equalsIgnoreCase(match), userId);
+        return ResponseEntity.ok(gyms);
+    }
+    
     // 평점 순으로 헬스장 조회
     @GetMapping("/sort/rating")
     public ResponseEntity<List<GymDto>> getGymsByRating(@RequestParam(required = false) Long userId) {
@@ -93,6 +140,80 @@ public class GymController {
         return ResponseEntity.ok(gyms);
     }
     
+    // 모든 헬스장 조회 (커서 페이지)
+    @GetMapping("/page")
+    public ResponseEntity<CursorPageDto<GymDto>> getGymsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) Long userId) {
+        return ResponseEntity.ok(gymService.getGymsPage(cursor, size, userId));
+    }
+    
+    // 이름으로 헬스장 검색 (커서 페이지)
+    @GetMapping("/search/name/page")
+    public ResponseEntity<CursorPageDto<GymDto>> searchGymsByNamePage(
+            @RequestParam String name,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) Long userId) {
+        return ResponseEntity.ok(gymService.searchGymsByNamePage(name, cursor, size, userId));
+    }
+    
+    // 주소로 헬스장 검색 (커서 페이지)
+    @GetMapping("/search/address/page")
+    public ResponseEntity<CursorPageDto<GymDto>> searchGymsByAddressPage(
+            @RequestParam String address,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) Long userId) {
+        return ResponseEntity.ok(gymService.searchGymsByAddressPage(address, cursor, size, userId));
+    }
+    
+    // 가격 범위로 헬스장 검색 (커서 페이지)
+    @GetMapping("/search/price/page")
+    public ResponseEntity<CursorPageDto<GymDto>> searchGymsByPricePage(
+            @RequestParam BigDecimal minPrice,
+            @RequestParam BigDecimal maxPrice,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) Long userId) {
+        return ResponseEntity.ok(gymService.searchGymsByPricePage(minPrice, maxPrice, cursor, size, userId));
+    }
+    
+    // 시설로 헬스장 검색 (커서 페이지)
+    @GetMapping("/search/facility/page")
+    public ResponseEntity<CursorPageDto<GymDto>> searchGymsByFacilityPage(
+            @RequestParam String facility,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) Long userId) {
+        return ResponseEntity.ok(gymService.searchGymsByFacilityPage(facility, cursor, size, userId));
+    }
+    
+    // 평점 순으로 헬스장 조회 (커서 페이지)
+    @GetMapping("/sort/rating/page")
+    public ResponseEntity<CursorPageDto<GymDto>> getGymsByRatingPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) Long userId) {
+        return ResponseEntity.ok(gymService.getGymsByRatingPage(cursor, size, userId));
+    }
+    
+    // 최저가 순으로 헬스장 조회 (커서 페이지)
+    @GetMapping("/sort/price/page")
+    public ResponseEntity<CursorPageDto<GymDto>> getGymsByPricePage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) Long userId) {
+        return ResponseEntity.ok(gymService.getGymsByPricePage(cursor, size, userId));
+    }
+    
+    // 캐시 통계 (적중/미스/축출)
+    @GetMapping("/cache/stats")
+    public ResponseEntity<List<CacheStatsDto>> getCacheStats() {
+        return ResponseEntity.ok(gymService.getCacheStats());
+    }
+    
     // 헬스장 등록
     @PostMapping
     public ResponseEntity<GymDto> createGym(@RequestBody GymDto gymDto) {
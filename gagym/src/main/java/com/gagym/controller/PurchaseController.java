@@ -1,13 +1,19 @@
 package com.gagym.controller;
 
+import com.gagym.dto.CursorPageDto;
+import com.gagym.dto.GateScanDto;
 import com.gagym.dto.PurchaseDto;
 import com.gagym.entity.Purchase;
+import com.gagym.service.PurchaseEventLog;
+import com.gagym.service.PurchaseIdempotencyGuard;
 import com.gagym.service.PurchaseService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/purchases")
@@ -16,6 +22,9 @@ import java.util.List;
 public class PurchaseController {
     
     private final PurchaseService purchaseService;
+    private final PurchaseIdempotencyGuard purchaseIdempotencyGuard;
+    
+    private static final long MAX_AWAIT_MILLIS = 60_000;
     
     // 사용자의 모든 구매 내역 조회
     @GetMapping("/user/{userId}")
@@ -38,26 +47,63 @@ public class PurchaseController {
         return ResponseEntity.ok(purchase);
     }
     
-    // 티켓 구매
+    // 구매 조회 (결제 결과 폴링)
+    @GetMapping("/{purchaseId}")
+    public ResponseEntity<PurchaseDto> getPurchase(@PathVariable Long purchaseId) {
+        PurchaseDto purchase = purchaseService.getPurchase(purchaseId);
+        return ResponseEntity.ok(purchase);
+    }
+    
+    // 결제 결과 롱 폴링 (결제가 끝나면 바로 응답, 시간 초과 시 현재 상태 응답, 대기 중 요청 스레드는 반환)
+    @GetMapping("/{purchaseId}/result")
+    public DeferredResult<ResponseEntity<PurchaseDto>> awaitPaymentResult(
+            @PathVariable Long purchaseId,
+            @RequestParam(defaultValue = "30000") long timeoutMs) {
+        DeferredResult<ResponseEntity<PurchaseDto>> result =
+                new DeferredResult<>(Math.max(1, Math.min(timeoutMs, MAX_AWAIT_MILLIS)));
+        CompletableFuture<PurchaseDto> watcher = purchaseService.awaitPaymentResult(purchaseId);
+        result.onTimeout(() -> {
+            purchaseService.stopAwaitingPaymentResult(purchaseId, watcher);
+            result.setResult(ResponseEntity.ok(purchaseService.getPurchase(purchaseId)));
+        });
+        // 응답이 끝나면 (결과, 시간 초과, 연결 종료) 대기 목록에서 제거
+        result.onCompletion(() -> purchaseService.stopAwaitingPaymentResult(purchaseId, watcher));
+        watcher.thenAccept(purchase -> result.setResult(ResponseEntity.ok(purchase)));
+        return result;
+    }
+    
+    // 티켓 구매: 결제 대기(PENDING) 상태로 바로 응답, 결과는 조회 또는 롱 폴링으로 확인
+    // (Idempotency-Key 헤더가 같으면 재시도로 보고 처음 결과를 반환)
     @PostMapping("/purchase")
     public ResponseEntity<PurchaseDto> purchaseTicket(
             @RequestParam Long userId,
             @RequestParam Long ticketId,
-            @RequestParam String paymentMethod) {
-        PurchaseDto purchase = purchaseService.purchaseTicket(
+            @RequestParam String paymentMethod,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        PurchaseDto purchase = purchaseIdempotencyGuard.purchaseTicket(
                 userId, 
                 ticketId, 
-                Purchase.PaymentMethod.valueOf(paymentMethod));
+                Purchase.PaymentMethod.valueOf(paymentMethod),
+                idempotencyKey);
         return ResponseEntity.ok(purchase);
     }
     
     // QR 코드 사용 (입장)
     @PostMapping("/use/{qrCode}")
-    public ResponseEntity<PurchaseDto> useTicket(@PathVariable String qrCode) {
-        PurchaseDto purchase = purchaseService.useTicket(qrCode);
+    public ResponseEntity<PurchaseDto> useTicket(
+            @PathVariable String qrCode,
+            @RequestParam(required = false) Long gymId) {
+        PurchaseDto purchase = purchaseService.useTicket(qrCode, gymId);
         return ResponseEntity.ok(purchase);
     }
     
+    // QR 코드 일괄 사용 (게이트 컨트롤러 배치 전송)
+    @PostMapping("/use/batch")
+    public ResponseEntity<GateScanDto.BatchResponse> useTickets(@RequestBody GateScanDto.BatchRequest request) {
+        GateScanDto.BatchResponse response = purchaseService.useTickets(request.getQrCodes(), request.getGymId());
+        return ResponseEntity.ok(response);
+    }
+    
     // 구매 취소
     @PostMapping("/{purchaseId}/cancel")
     public ResponseEntity<Void> cancelPurchase(@PathVariable Long purchaseId) {
@@ -65,10 +111,21 @@ public class PurchaseController {
         return ResponseEntity.ok().build();
     }
     
-    // 만료된 티켓 조회
+    // 구매 이벤트 이어 읽기 (after 이후 시퀀스부터, 응답의 마지막 sequence 를 다음 after 로 사용)
+    @GetMapping("/events")
+    public ResponseEntity<List<PurchaseEventLog.Event>> getPurchaseEvents(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "1000") int limit) {
+        List<PurchaseEventLog.Event> events = purchaseService.getPurchaseEvents(after, limit);
+        return ResponseEntity.ok(events);
+    }
+    
+    // 만료된 티켓 조회 (커서 페이지)
     @GetMapping("/expired")
-    public ResponseEntity<List<PurchaseDto>> getExpiredPurchases() {
-        List<PurchaseDto> purchases = purchaseService.getExpiredPurchases();
+    public ResponseEntity<CursorPageDto<PurchaseDto>> getExpiredPurchases(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        CursorPageDto<PurchaseDto> purchases = purchaseService.getExpiredPurchases(cursor, size);
         return ResponseEntity.ok(purchases);
     }
 } 
\ No newline at end of file
@@ -0,0 +1,96 @@
+package com.gagym.controller;
+
+import com.gagym.dto.CursorPageDto;
+import com.gagym.dto.RatingHistogramDto;
+import com.gagym.dto.ReviewDto;
+import com.gagym.service.ReviewService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/reviews")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class ReviewController {
+    
+    private final ReviewService reviewService;
+    
+    // 헬스장 리뷰 피드 (최신순 커서 페이지)
+    @GetMapping("/gym/{gymId}")
+    public ResponseEntity<CursorPageDto<ReviewDto>> getReviewsByGymId(
+            @PathVariable Long gymId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        CursorPageDto<ReviewDto> reviews = reviewService.getReviewsByGymId(gymId, cursor, size);
+        return ResponseEntity.ok(reviews);
+    }
+    
+    // 헬스장 별점 분포 (별점별 리뷰 수, 평균)
+    @GetMapping("/gym/{gymId}/histogram")
+    public ResponseEntity<RatingHistogramDto> getRatingHistogram(@PathVariable Long gymId) {
+        RatingHistogramDto histogram = reviewService.getRatingHistogram(gymId);
+        return ResponseEntity.ok(histogram);
+    }
+    
+    // 헬스장 리뷰 별점 필터 (커서 페이지)
+    @GetMapping("/gym/{gymId}/rating/{rating}")
+    public ResponseEntity<CursorPageDto<ReviewDto>> getReviewsByGymIdAndRating(
+            @PathVariable Long gymId,
+            @PathVariable Integer rating,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        CursorPageDto<ReviewDto> reviews = reviewService.getReviewsByGymIdAndRating(gymId, rating, cursor, size);
+        return ResponseEntity.ok(reviews);
+    }
+    
+    // 트레이너 리뷰 피드 (최신순 커서 페이지)
+    @GetMapping("/trainer/{trainerId}")
+    public ResponseEntity<CursorPageDto<ReviewDto>> getReviewsByTrainerId(
+            @PathVariable Long trainerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        CursorPageDto<ReviewDto> reviews = reviewService.getReviewsByTrainerId(trainerId, cursor, size);
+        return ResponseEntity.ok(reviews);
+    }
+    
+    // 사용자가 작성한 리뷰 피드 (최신순 커서 페이지)
+    @GetMapping("/user/{userId}")
+    public ResponseEntity<CursorPageDto<ReviewDto>> getReviewsByUserId(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        CursorPageDto<ReviewDto> reviews = reviewService.getReviewsByUserId(userId, cursor, size);
+        return ResponseEntity.ok(reviews);
+    }
+    
+    // 리뷰 상세 조회
+    @GetMapping("/{reviewId}")
+    public ResponseEntity<ReviewDto> getReview(@PathVariable Long reviewId) {
+        ReviewDto review = reviewService.getReview(reviewId);
+        return ResponseEntity.ok(review);
+    }
+    
+    // 리뷰 작성
+    @PostMapping
+    public ResponseEntity<ReviewDto> createReview(@RequestParam Long userId, @RequestBody ReviewDto reviewDto) {
+        ReviewDto createdReview = reviewService.createReview(userId, reviewDto);
+        return ResponseEntity.ok(createdReview);
+    }
+    
+    // 리뷰 수정
+    @PutMapping("/{reviewId}")
+    public ResponseEntity<ReviewDto> updateReview(@PathVariable Long reviewId,
+                                                  @RequestParam Long userId,
+                                                  @RequestBody ReviewDto reviewDto) {
+        ReviewDto updatedReview = reviewService.updateReview(reviewId, userId, reviewDto);
+        return ResponseEntity.ok(updatedReview);
+    }
+    
+    // 리뷰 삭제
+    @DeleteMapping("/{reviewId}")
+    public ResponseEntity<Void> deleteReview(@PathVariable Long reviewId, @RequestParam Long userId) {
+        reviewService.deleteReview(reviewId, userId);
+        return ResponseEntity.ok().build();
+    }
+} 
\ No newline at end of file
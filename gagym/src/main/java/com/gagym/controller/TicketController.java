@@ -1,10 +1,13 @@
 package com.gagym.controller;
 
 import com.gagym.dto.TicketDto;
+import com.gagym.service.TicketCatalogCache;
 import com.gagym.service.TicketService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -16,11 +19,17 @@ public class TicketController {
     
     private final TicketService ticketService;
     
-    // 헬스장의 모든 티켓 조회
+    // 헬스장의 모든 티켓 조회 (If-None-Match 가 현재 ETag 와 같으면 본문 없이 304)
     @GetMapping("/gym/{gymId}")
-    public ResponseEntity<List<TicketDto>> getTicketsByGymId(@PathVariable Long gymId) {
-        List<TicketDto> tickets = ticketService.getTicketsByGymId(gymId);
-        return ResponseEntity.ok(tickets);
+    public ResponseEntity<List<TicketDto>> getTicketsByGymId(@PathVariable Long gymId, WebRequest webRequest) {
+        TicketCatalogCache.Catalog catalog = ticketService.getTicketCatalog(gymId);
+        if (webRequest.checkNotModified(catalog.getEtag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(catalog.getEtag())
+                .body(catalog.getTickets());
     }
     
     // 티켓 타입별 조회
@@ -0,0 +1,23 @@
+package com.gagym.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatsDto {
+    
+    private String name;
+    private Integer size;
+    private Integer maxSize;
+    private Long hits;
+    private Long misses;
+    private Long evictions; // 용량 초과로 밀려난 항목
+    private Long expirations; // TTL 만료 항목
+    private Long invalidations; // 쓰기로 무효화된 항목
+    private Double hitRate;
+} 
\ No newline at end of file
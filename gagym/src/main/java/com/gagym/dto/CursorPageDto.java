@@ -0,0 +1,19 @@
+package com.gagym.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDto<T> {
+    
+    private List<T> content;
+    private String nextCursor; // 다음 페이지 요청 시 그대로 전달 (마지막 페이지면 null)
+    private Boolean hasNext;
+} 
\ No newline at end of file
@@ -0,0 +1,41 @@
+package com.gagym.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+public class GateScanDto {
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BatchRequest {
+        private Long gymId; // 게이트가 설치된 헬스장 (없으면 헬스장 확인 생략)
+        private List<String> qrCodes; // 게이트에서 스캔한 순서대로
+    }
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BatchResponse {
+        private List<Result> results; // 요청 순서와 동일
+        private int accepted;
+        private int rejected;
+    }
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Result {
+        private String qrCode;
+        private String status; // ACCEPTED, ALREADY_USED, EXPIRED, NOT_USABLE, INVALID, WRONG_GYM, NOT_FOUND, DUPLICATE
+        private Long purchaseId;
+        private String message;
+    }
+} 
\ No newline at end of file
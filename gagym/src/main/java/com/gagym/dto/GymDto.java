@@ -10,7 +10,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class GymDto {
@@ -25,6 +25,7 @@ public class GymDto {
     private Double longitude;
     private BigDecimal monthlyFee;
     private BigDecimal dailyFee;
+    private Integer dailyPassCapacity;
     private BigDecimal ptPrice;
     private List<String> facilities;
     private String imageUrl;
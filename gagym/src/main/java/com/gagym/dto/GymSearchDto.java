@@ -0,0 +1,62 @@
+package com.gagym.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public class GymSearchDto {
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Request {
+        private Double latitude;
+        private Double longitude;
+        private Double radius; // km
+        private BigDecimal minFee;
+        private BigDecimal maxFee;
+        private List<String> facilities;
+        private Boolean matchAllFacilities; // 기본값 true
+        private Double minRating;
+        private String text; // 이름 또는 주소
+        private Integer size;
+        private Long userId;
+        private Boolean explain; // 실행 계획 포함 여부
+    }
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Response {
+        private List<GymDto> gyms;
+        private Plan plan;
+    }
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Plan {
+        private String driver; // 후보를 생성한 조건
+        private List<PlanStep> steps;
+        private Integer candidateCount; // 인메모리 필터 후 남은 후보 수
+        private Long elapsedMicros;
+    }
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PlanStep {
+        private String predicate;
+        private String source; // INDEX / DATABASE
+        private String role; // DRIVER / FILTER / RESIDUAL
+        private Long estimatedRows;
+    }
+} 
\ No newline at end of file
@@ -1,5 +1,7 @@
 package com.gagym.dto;
 
+import com.gagym.entity.Purchase;
+import com.gagym.entity.Ticket;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -34,4 +36,32 @@ public class PurchaseDto {
     private String gymName;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    
+    // JPQL 생성자 표현식용 (조인 한 번으로 필요한 컬럼만 조회)
+    public PurchaseDto(Long id, Long userId, String userName, Long ticketId, String ticketName,
+                       Ticket.TicketType ticketType, BigDecimal amount, Purchase.PaymentMethod paymentMethod,
+                       Purchase.PaymentStatus status, LocalDateTime purchaseDate, LocalDateTime expiryDate,
+                       String qrCode, Boolean isUsed, LocalDateTime usedAt, Long gymId, String gymName,
+                       LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.userId = userId;
+        this.userName = userName;
+        this.ticketId = ticketId;
+        this.ticketName = ticketName;
+        this.ticketType = ticketType.name();
+        this.amount = amount;
+        this.paymentMethod = paymentMethod.name();
+        this.paymentMethodDisplayName = paymentMethod.getDisplayName();
+        this.status = status.name();
+        this.statusDisplayName = status.getDisplayName();
+        this.purchaseDate = purchaseDate;
+        this.expiryDate = expiryDate;
+        this.qrCode = qrCode;
+        this.isUsed = isUsed;
+        this.usedAt = usedAt;
+        this.gymId = gymId;
+        this.gymName = gymName;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.gagym.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatingHistogramDto {
+    
+    private Long gymId;
+    private Long star1;
+    private Long star2;
+    private Long star3;
+    private Long star4;
+    private Long star5;
+    private Long reviewCount;
+    private Double averageRating;
+} 
\ No newline at end of file
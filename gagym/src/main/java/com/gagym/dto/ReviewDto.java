@@ -13,9 +13,12 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class ReviewDto {
     
+    // 필드 순서가 ReviewRepository.DTO_SELECT 생성자 표현식의 인자 순서 (전체 인자 생성자 사용)
     private Long id;
     private Long userId;
     private String userName;
+    private String nickname; // 작성자 닉네임
+    private String profileImage; // 작성자 프로필 이미지
     private Long gymId;
     private String gymName;
     private Long trainerId;
@@ -0,0 +1,38 @@
+package com.gagym.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// 헬스장별 일일권 판매 수 (판매분 + 인스턴스가 받아 둔 판매권, 모든 인스턴스가 공유하는 한도 원본)
+@Entity
+@Table(name = "daily_pass_sales", indexes = {
+        @Index(name = "uk_daily_pass_sales_gym_date", columnList = "gym_id, sale_date", unique = true)
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyPassSale {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "gym_id", nullable = false)
+    private Long gymId;
+    
+    @Column(name = "sale_date", nullable = false)
+    private LocalDate saleDate;
+    
+    @Column(name = "sold_count", nullable = false)
+    private Integer soldCount;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+} 
\ No newline at end of file
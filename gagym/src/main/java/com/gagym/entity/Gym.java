@@ -10,7 +10,10 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "gyms")
+@Table(name = "gyms", indexes = {
+        @Index(name = "idx_gyms_rating_desc_id", columnList = "rating DESC, id ASC"),
+        @Index(name = "idx_gyms_monthly_fee_id", columnList = "monthly_fee, id")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -48,6 +51,9 @@ public class Gym {
     @Column(name = "daily_fee")
     private BigDecimal dailyFee;
     
+    @Column(name = "daily_pass_capacity")
+    private Integer dailyPassCapacity; // 하루 일일권 판매 한도 (null 이면 제한 없음)
+    
     @Column(name = "pt_price")
     private BigDecimal ptPrice;
     
@@ -57,12 +63,16 @@ public class Gym {
     @Column(name = "image_url")
     private String imageUrl;
     
-    @Column(name = "rating")
+    // 평점 집계는 증감분 UPDATE 로만 변경 (엔티티 저장 시 덮어쓰지 않음)
+    @Column(name = "rating", updatable = false)
     private Double rating = 0.0;
     
-    @Column(name = "review_count")
+    @Column(name = "review_count", updatable = false)
     private Integer reviewCount = 0;
     
+    @Column(name = "rating_sum", updatable = false)
+    private Long ratingSum = 0L; // 리뷰 평점 합계 (평균은 rating_sum / review_count)
+    
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
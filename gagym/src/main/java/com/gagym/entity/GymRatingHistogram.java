@@ -0,0 +1,44 @@
+package com.gagym.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// 헬스장별 별점 분포 (리뷰 작성/수정/삭제 시 증감분으로 갱신, 원본은 reviews)
+@Entity
+@Table(name = "gym_rating_histograms")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GymRatingHistogram {
+    
+    @Id
+    @Column(name = "gym_id")
+    private Long gymId;
+    
+    @Column(name = "star1", nullable = false)
+    private Long star1;
+    
+    @Column(name = "star2", nullable = false)
+    private Long star2;
+    
+    @Column(name = "star3", nullable = false)
+    private Long star3;
+    
+    @Column(name = "star4", nullable = false)
+    private Long star4;
+    
+    @Column(name = "star5", nullable = false)
+    private Long star5;
+    
+    @Column(name = "revision", nullable = false)
+    private Long revision; // 갱신할 때마다 증가 (재집계 시 그 사이 변경 여부 확인용)
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+} 
\ No newline at end of file
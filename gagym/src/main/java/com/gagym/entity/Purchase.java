@@ -10,7 +10,15 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "purchases")
+@Table(name = "purchases", indexes = {
+        @Index(name = "uk_purchases_qr_key", columnList = "qr_key", unique = true),
+        @Index(name = "idx_purchases_user_active", columnList = "user_id, status, is_used, expiry_date"),
+        @Index(name = "idx_purchases_expired_expiry", columnList = "is_expired, expiry_date"),
+        @Index(name = "idx_purchases_expired_id", columnList = "is_expired, id"),
+        @Index(name = "idx_purchases_purchase_date", columnList = "purchase_date"),
+        @Index(name = "idx_purchases_status_created", columnList = "status, created_at"),
+        @Index(name = "uk_purchases_user_idempotency_key", columnList = "user_id, idempotency_key", unique = true)
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -49,12 +57,21 @@ public class Purchase {
     @Column(name = "qr_code")
     private String qrCode; // 구매한 티켓의 QR 코드
     
+    @Column(name = "qr_key", columnDefinition = "binary(16)")
+    private byte[] qrKey; // QR 코드 조회 키 (QrKeyCodec)
+    
     @Column(name = "is_used")
     private Boolean isUsed = false;
     
     @Column(name = "used_at")
     private LocalDateTime usedAt;
     
+    @Column(name = "is_expired", nullable = false, columnDefinition = "bit(1) default 0")
+    private Boolean isExpired = false; // 만료 스케줄러가 갱신
+    
+    @Column(name = "idempotency_key", length = 64)
+    private String idempotencyKey; // 클라이언트 재시도 식별 (사용자별 유일)
+    
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
@@ -9,7 +9,13 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "reviews")
+@Table(name = "reviews", indexes = {
+        @Index(name = "idx_reviews_gym_created", columnList = "gym_id, created_at"),
+        @Index(name = "idx_reviews_trainer_created", columnList = "trainer_id, created_at"),
+        @Index(name = "idx_reviews_user_created", columnList = "user_id, created_at"),
+        @Index(name = "idx_reviews_gym_rating_created", columnList = "gym_id, rating, created_at"),
+        @Index(name = "idx_reviews_trainer_rating", columnList = "trainer_id, rating")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -10,7 +10,9 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "tickets")
+@Table(name = "tickets", indexes = {
+        @Index(name = "uk_tickets_qr_key", columnList = "qr_key", unique = true)
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -40,6 +42,9 @@ public class Ticket {
     @Column(name = "qr_code")
     private String qrCode; // QR 코드 문자열
     
+    @Column(name = "qr_key", columnDefinition = "binary(16)")
+    private byte[] qrKey; // QR 코드 조회 키 (QrKeyCodec)
+    
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "gym_id", nullable = false)
     private Gym gym;
@@ -45,12 +45,15 @@ public class Trainer {
     @Column(name = "image_url")
     private String imageUrl;
     
-    @Column(name = "rating")
+    @Column(name = "rating", updatable = false)
     private Double rating = 0.0;
     
-    @Column(name = "review_count")
+    @Column(name = "review_count", updatable = false)
     private Integer reviewCount = 0;
     
+    @Column(name = "rating_sum", updatable = false)
+    private Long ratingSum = 0L; // 리뷰 평점 합계 (평균은 rating_sum / review_count)
+    
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "gym_id")
     private Gym gym;
@@ -2,10 +2,13 @@ package com.gagym.reposiotry;
 
 import com.gagym.entity.Favorite;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface FavoriteRepository extends JpaRepository<Favorite, Long> {
@@ -23,4 +26,8 @@ public interface FavoriteRepository extends JpaRepository<Favorite, Long> {
     boolean existsByUserIdAndGymId(Long userId, Long gymId);
     
     boolean existsByUserIdAndTrainerId(Long userId, Long trainerId);
+    
+    // 사용자가 즐겨찾기한 헬스장 ID 목록
+    @Query("SELECT f.gym.id FROM Favorite f WHERE f.user.id = :userId AND f.gym IS NOT NULL")
+    Set<Long> findGymIdsByUserId(@Param("userId") Long userId);
 } 
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.gagym.reposiotry;
+
+import com.gagym.entity.GymRatingHistogram;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface GymRatingHistogramRepository extends JpaRepository<GymRatingHistogram, Long> {
+    
+    // 별점별 증감분 반영 (행이 없으면 생성, 읽지 않고 한 문장으로 더함)
+    @Modifying
+    @Query(value = "INSERT INTO gym_rating_histograms (gym_id, star1, star2, star3, star4, star5, revision, updated_at) " +
+                   "VALUES (:gymId, GREATEST(:d1, 0), GREATEST(:d2, 0), GREATEST(:d3, 0), GREATEST(:d4, 0), GREATEST(:d5, 0), 1, :now) " +
+                   "ON DUPLICATE KEY UPDATE star1 = star1 + :d1, star2 = star2 + :d2, star3 = star3 + :d3, " +
+                   "star4 = star4 + :d4, star5 = star5 + :d5, revision = revision + 1, updated_at = :now",
+           nativeQuery = true)
+    int applyDelta(@Param("gymId") Long gymId, @Param("d1") int d1, @Param("d2") int d2, @Param("d3") int d3,
+                   @Param("d4") int d4, @Param("d5") int d5, @Param("now") LocalDateTime now);
+    
+    // 재집계 결과 반영 (읽은 뒤 증감분이 반영되었으면 갱신하지 않음)
+    @Modifying
+    @Query("UPDATE GymRatingHistogram h SET h.star1 = :star1, h.star2 = :star2, h.star3 = :star3, h.star4 = :star4, " +
+           "h.star5 = :star5, h.revision = h.revision + 1, h.updatedAt = :now " +
+           "WHERE h.gymId = :gymId AND h.revision = :revision")
+    int resetIfRevision(@Param("gymId") Long gymId, @Param("revision") Long revision,
+                        @Param("star1") long star1, @Param("star2") long star2, @Param("star3") long star3,
+                        @Param("star4") long star4, @Param("star5") long star5, @Param("now") LocalDateTime now);
+    
+    // 재집계 시 없는 행 생성 (그 사이 증감분으로 생성되었으면 무시, 다음 재집계에서 확인)
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO gym_rating_histograms (gym_id, star1, star2, star3, star4, star5, revision, updated_at) " +
+                   "VALUES (:gymId, :star1, :star2, :star3, :star4, :star5, 1, :now)",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("gymId") Long gymId,
+                       @Param("star1") long star1, @Param("star2") long star2, @Param("star3") long star3,
+                       @Param("star4") long star4, @Param("star5") long star5, @Param("now") LocalDateTime now);
+} 
\ No newline at end of file
@@ -4,12 +4,20 @@ import com.gagym.entity.Gym;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface GymRepository extends JpaRepository<Gym, Long> {
@@ -24,6 +32,31 @@ public interface GymRepository extends JpaRepository<Gym, Long> {
             @Param("longitude") Double longitude,
             @Param("radius") Double radius);
     
+    // 위치 인덱스 적재용 좌표 조회
+    @Query("SELECT g.id, g.latitude, g.longitude FROM Gym g " +
+           "WHERE g.latitude IS NOT NULL AND g.longitude IS NOT NULL")
+    List<Object[]> findAllLocations();
+    
+    // 시설 인덱스 적재용 조회
+    @Query("SELECT g.id, g.facilities FROM Gym g")
+    List<Object[]> findAllFacilities();
+    
+    // 검색 인덱스 적재용 이름/주소 조회
+    @Query("SELECT g.id, g.name, g.address FROM Gym g")
+    List<Object[]> findAllNamesAndAddresses();
+    
+    // 전체 헬스장 스트리밍 (MySQL 은 fetch size 가 Integer.MIN_VALUE 일 때 행 단위로 읽음)
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT g FROM Gym g ORDER BY g.id")
+    Stream<Gym> streamAllByOrderByIdAsc();
+    
+    // 정렬 인덱스 적재용 평점/회비 조회
+    @Query("SELECT g.id, g.rating, g.monthlyFee FROM Gym g")
+    List<Object[]> findAllRankings();
+    
     // 가격 범위 검색
     List<Gym> findByMonthlyFeeBetween(BigDecimal minPrice, BigDecimal maxPrice);
     
@@ -42,4 +75,72 @@ public interface GymRepository extends JpaRepository<Gym, Long> {
     // 시설 포함 검색 (JSON 필드)
     @Query("SELECT g FROM Gym g WHERE g.facilities LIKE %:facility%")
     List<Gym> findByFacilitiesContaining(@Param("facility") String facility);
+    
+    // 가격 범위 ID 조회
+    @Query("SELECT g.id FROM Gym g WHERE g.monthlyFee BETWEEN :minPrice AND :maxPrice ORDER BY g.id")
+    List<Long> findIdsByMonthlyFeeBetween(@Param("minPrice") BigDecimal minPrice, @Param("maxPrice") BigDecimal maxPrice);
+    
+    @Query("SELECT g.id FROM Gym g ORDER BY g.id")
+    List<Long> findAllIds();
+    
+    // ID 순 앞에서부터 ID 조회 (조건 없는 복합 검색)
+    @Query("SELECT g.id FROM Gym g ORDER BY g.id")
+    List<Long> findIds(Pageable pageable);
+    
+    // 키셋 페이지네이션 (id 기준)
+    List<Gym> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+    
+    List<Gym> findByNameContainingIgnoreCaseAndIdGreaterThanOrderByIdAsc(String name, Long id, Pageable pageable);
+    
+    List<Gym> findByAddressContainingIgnoreCaseAndIdGreaterThanOrderByIdAsc(String address, Long id, Pageable pageable);
+    
+    List<Gym> findByMonthlyFeeBetweenAndIdGreaterThanOrderByIdAsc(
+            BigDecimal minPrice, BigDecimal maxPrice, Long id, Pageable pageable);
+    
+    @Query("SELECT g FROM Gym g WHERE g.facilities LIKE %:facility% AND g.id > :id ORDER BY g.id ASC")
+    List<Gym> findByFacilitiesContainingAfter(
+            @Param("facility") String facility, @Param("id") Long id, Pageable pageable);
+    
+    // 키셋 페이지네이션 (평점 내림차순, 평점 없는 헬스장은 마지막, (rating DESC, id ASC) 인덱스 순서와 같음)
+    // rating <= :rating 을 앞에 두어 인덱스 범위 스캔으로 시작점을 찾음
+    List<Gym> findByRatingIsNotNullOrderByRatingDescIdAsc(Pageable pageable);
+    
+    @Query("SELECT g FROM Gym g WHERE g.rating <= :rating AND (g.rating < :rating OR g.id > :id) " +
+           "ORDER BY g.rating DESC, g.id ASC")
+    List<Gym> findByRatingAfter(@Param("rating") Double rating, @Param("id") Long id, Pageable pageable);
+    
+    List<Gym> findByRatingIsNullAndIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+    
+    // 키셋 페이지네이션 (월 회비 오름차순, 회비 없는 헬스장은 마지막)
+    List<Gym> findByMonthlyFeeIsNotNullOrderByMonthlyFeeAscIdAsc(Pageable pageable);
+    
+    @Query("SELECT g FROM Gym g WHERE g.monthlyFee >= :fee AND (g.monthlyFee > :fee OR g.id > :id) " +
+           "ORDER BY g.monthlyFee ASC, g.id ASC")
+    List<Gym> findByMonthlyFeeAfter(@Param("fee") BigDecimal fee, @Param("id") Long id, Pageable pageable);
+    
+    List<Gym> findByMonthlyFeeIsNullAndIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+    
+    // 리뷰 반영: 합계/개수에 증감분을 더하고 평균 재계산 (MySQL 은 SET 을 왼쪽부터 적용하므로 평균을 먼저 계산)
+    @Modifying
+    @Query("UPDATE Gym g SET g.rating = COALESCE((COALESCE(g.ratingSum, 0) + :sumDelta) * 1.0 " +
+           "/ NULLIF(COALESCE(g.reviewCount, 0) + :countDelta, 0), 0.0), " +
+           "g.ratingSum = COALESCE(g.ratingSum, 0) + :sumDelta, " +
+           "g.reviewCount = COALESCE(g.reviewCount, 0) + :countDelta WHERE g.id = :id")
+    int applyRatingDelta(@Param("id") Long id, @Param("sumDelta") long sumDelta, @Param("countDelta") int countDelta);
+    
+    @Query("SELECT g.rating FROM Gym g WHERE g.id = :id")
+    Double findRatingById(@Param("id") Long id);
+    
+    // 평점 재집계용 (ID, 평점, 합계, 개수), id 순 키셋
+    @Query("SELECT g.id, g.rating, COALESCE(g.ratingSum, 0), COALESCE(g.reviewCount, 0) FROM Gym g " +
+           "WHERE g.id > :afterId ORDER BY g.id")
+    List<Object[]> findRatingAggregates(@Param("afterId") Long afterId, Pageable pageable);
+    
+    // 재집계 결과 반영 (읽은 뒤 리뷰 반영이 끼어들었으면 갱신하지 않음)
+    @Modifying
+    @Query("UPDATE Gym g SET g.rating = :rating, g.ratingSum = :ratingSum, g.reviewCount = :reviewCount " +
+           "WHERE g.id = :id AND COALESCE(g.ratingSum, 0) = :expectedSum AND COALESCE(g.reviewCount, 0) = :expectedCount")
+    int resetRatingAggregate(@Param("id") Long id, @Param("expectedSum") long expectedSum,
+                             @Param("expectedCount") int expectedCount, @Param("rating") Double rating,
+                             @Param("ratingSum") long ratingSum, @Param("reviewCount") int reviewCount);
 } 
\ No newline at end of file
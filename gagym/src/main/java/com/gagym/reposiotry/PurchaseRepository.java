@@ -1,23 +1,141 @@
 package com.gagym.reposiotry;
 
+import com.gagym.dto.PurchaseDto;
 import com.gagym.entity.Purchase;
+import com.gagym.entity.Ticket;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface PurchaseRepository extends JpaRepository<Purchase, Long> {
     
+    // PurchaseDto 생성자 표현식 (사용자, 티켓, 헬스장을 한 번에 조인)
+    String DTO_SELECT = "SELECT new com.gagym.dto.PurchaseDto(p.id, u.id, u.username, t.id, t.name, t.type, " +
+            "p.amount, p.paymentMethod, p.status, p.purchaseDate, p.expiryDate, p.qrCode, p.isUsed, p.usedAt, " +
+            "g.id, g.name, p.createdAt, p.updatedAt) " +
+            "FROM Purchase p JOIN p.user u JOIN p.ticket t JOIN t.gym g ";
+    
     List<Purchase> findByUserId(Long userId);
     
     List<Purchase> findByUserIdAndStatus(Long userId, Purchase.PaymentStatus status);
     
-    Optional<Purchase> findByQrCode(String qrCode);
+    Optional<Purchase> findByQrKey(byte[] qrKey);
     
     List<Purchase> findByExpiryDateBefore(LocalDateTime date);
     
     List<Purchase> findByTicketGymId(Long gymId);
+    
+    // 헬스장별 기간 내 티켓 종류 판매 수 (일일권 한도 보정용)
+    @Query("SELECT t.gym.id, COUNT(p) FROM Purchase p JOIN p.ticket t WHERE t.type = :type " +
+            "AND p.status IN :statuses AND p.purchaseDate >= :from AND p.purchaseDate < :to GROUP BY t.gym.id")
+    List<Object[]> countDailyPassSales(@Param("type") Ticket.TicketType type,
+                                       @Param("statuses") Collection<Purchase.PaymentStatus> statuses,
+                                       @Param("from") LocalDateTime from,
+                                       @Param("to") LocalDateTime to);
+    
+    @Query(DTO_SELECT + "WHERE p.id = :id")
+    Optional<PurchaseDto> findDtoById(@Param("id") Long id);
+    
+    @Query(DTO_SELECT + "WHERE p.qrKey = :qrKey")
+    Optional<PurchaseDto> findDtoByQrKey(@Param("qrKey") byte[] qrKey);
+    
+    @Query(DTO_SELECT + "WHERE u.id = :userId AND p.idempotencyKey = :idempotencyKey")
+    Optional<PurchaseDto> findDtoByUserIdAndIdempotencyKey(@Param("userId") Long userId,
+                                                           @Param("idempotencyKey") String idempotencyKey);
+    
+    @Query(DTO_SELECT + "WHERE u.id = :userId ORDER BY p.id")
+    List<PurchaseDto> findDtosByUserId(@Param("userId") Long userId);
+    
+    // 사용 가능한 이용권 (user_id, status, is_used, expiry_date 인덱스 사용)
+    @Query(DTO_SELECT + "WHERE u.id = :userId AND p.status = :status AND p.isUsed = false " +
+           "AND p.expiryDate > :now ORDER BY p.expiryDate")
+    List<PurchaseDto> findActiveDtosByUserId(@Param("userId") Long userId,
+                                             @Param("status") Purchase.PaymentStatus status,
+                                             @Param("now") LocalDateTime now);
+    
+    @Query("SELECT DISTINCT p.user.id FROM Purchase p WHERE p.id IN :ids")
+    List<Long> findUserIdsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // 만료 처리된 구매 (최신순 키셋)
+    @Query(DTO_SELECT + "WHERE p.isExpired = true AND p.id < :beforeId ORDER BY p.id DESC")
+    List<PurchaseDto> findExpiredDtos(@Param("beforeId") Long beforeId, Pageable pageable);
+    
+    // 만료 스케줄러 적재용 다가오는 만료 ((expiryDate, id) 순 키셋)
+    @Query("SELECT p.id, p.expiryDate FROM Purchase p WHERE p.isExpired = false AND p.expiryDate IS NOT NULL " +
+           "AND (p.expiryDate > :afterDate OR (p.expiryDate = :afterDate AND p.id > :afterId)) " +
+           "ORDER BY p.expiryDate, p.id")
+    List<Object[]> findUpcomingExpiries(@Param("afterDate") LocalDateTime afterDate,
+                                        @Param("afterId") Long afterId,
+                                        Pageable pageable);
+    
+    // 만료 시각이 지났지만 아직 만료 처리되지 않은 구매
+    @Query("SELECT p.id FROM Purchase p WHERE p.isExpired = false AND p.expiryDate <= :now ORDER BY p.id")
+    List<Long> findIdsToExpire(@Param("now") LocalDateTime now, Pageable pageable);
+    
+    @Modifying
+    @Query("UPDATE Purchase p SET p.isExpired = true WHERE p.id IN :ids AND p.isExpired = false")
+    int markExpired(@Param("ids") Collection<Long> ids);
+    
+    // 만료된 구매를 QR 조회 인덱스에서 빼기 위한 qr_key
+    @Query("SELECT p.qrKey FROM Purchase p WHERE p.id IN :ids AND p.qrKey IS NOT NULL")
+    List<byte[]> findQrKeysByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // 게이트 인덱스 적재용 사용 가능한 구매 (QR 코드, 구매 ID, 헬스장 ID, 만료일)
+    @Query("SELECT p.qrCode, p.id, t.gym.id, p.expiryDate FROM Purchase p JOIN p.ticket t " +
+           "WHERE p.status = :status AND p.isUsed = false AND p.expiryDate > :now AND p.qrCode IS NOT NULL")
+    List<Object[]> findActivePasses(@Param("status") Purchase.PaymentStatus status, @Param("now") LocalDateTime now);
+    
+    // 일괄 스캔 판정용 상태 조회 (QR 코드, 구매 ID, 결제 상태, 사용 여부, 만료일, 헬스장 ID)
+    @Query("SELECT p.qrCode, p.id, p.status, p.isUsed, p.expiryDate, t.gym.id FROM Purchase p JOIN p.ticket t " +
+           "WHERE p.qrKey IN :qrKeys")
+    List<Object[]> findScanStatesByQrKeyIn(@Param("qrKeys") Collection<byte[]> qrKeys);
+    
+    // QR 조회 인덱스 적재용 사용 가능한 구매 (QR 키, 구매 ID)
+    @Query("SELECT p.qrKey, p.id FROM Purchase p WHERE p.status = :status AND p.isUsed = false " +
+           "AND p.expiryDate > :now AND p.qrKey IS NOT NULL")
+    List<Object[]> findActiveQrKeys(@Param("status") Purchase.PaymentStatus status, @Param("now") LocalDateTime now,
+                                    Pageable pageable);
+    
+    // qr_key 백필 대상 (ID, QR 코드, id 순 키셋)
+    @Query("SELECT p.id, p.qrCode FROM Purchase p WHERE p.qrKey IS NULL AND p.qrCode IS NOT NULL AND p.id > :afterId " +
+           "ORDER BY p.id")
+    List<Object[]> findQrCodesWithoutKey(@Param("afterId") Long afterId, Pageable pageable);
+    
+    // 결제 대기 중인 구매 (재시작, 대기열 초과 후 재처리용)
+    @Query("SELECT p.id FROM Purchase p WHERE p.status = :status AND p.createdAt < :before ORDER BY p.id")
+    List<Long> findIdsByStatusAndCreatedAtBefore(@Param("status") Purchase.PaymentStatus status,
+                                                 @Param("before") LocalDateTime before,
+                                                 Pageable pageable);
+    
+    // 결제 결과 반영 (아직 결제 대기 상태일 때만, 결제 완료 시 만료일과 QR 코드도 함께 설정)
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Purchase p SET p.status = :status, p.expiryDate = :expiryDate, p.qrCode = :qrCode, " +
+           "p.qrKey = :qrKey, p.updatedAt = :now WHERE p.id = :id AND p.status = :pending")
+    int finishPayment(@Param("id") Long id, @Param("pending") Purchase.PaymentStatus pending,
+                      @Param("status") Purchase.PaymentStatus status, @Param("expiryDate") LocalDateTime expiryDate,
+                      @Param("qrCode") String qrCode, @Param("qrKey") byte[] qrKey,
+                      @Param("now") LocalDateTime now);
+    
+    // 결제 완료, 미사용, 미만료일 때만 사용 처리 (동시 스캔에 대한 최종 보장)
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Purchase p SET p.isUsed = true, p.usedAt = :usedAt, p.updatedAt = :usedAt " +
+           "WHERE p.id = :id AND p.isUsed = false AND p.status = :status AND p.expiryDate >= :usedAt")
+    int markUsed(@Param("id") Long id, @Param("status") Purchase.PaymentStatus status,
+                 @Param("usedAt") LocalDateTime usedAt);
+    
+    // 결제 완료, 미사용일 때만 취소 (동시 사용 처리와 경합해도 사용 여부를 덮어쓰지 않음)
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Purchase p SET p.status = :cancelled, p.updatedAt = :now " +
+           "WHERE p.id = :id AND p.status = :completed AND p.isUsed = false")
+    int cancelCompleted(@Param("id") Long id, @Param("completed") Purchase.PaymentStatus completed,
+                        @Param("cancelled") Purchase.PaymentStatus cancelled, @Param("now") LocalDateTime now);
 } 
\ No newline at end of file
@@ -1,19 +1,79 @@
 package com.gagym.reposiotry;
 
+import com.gagym.dto.ReviewDto;
 import com.gagym.entity.Review;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ReviewRepository extends JpaRepository<Review, Long> {
     
-    List<Review> findByGymIdOrderByCreatedAtDesc(Long gymId);
+    // ReviewDto 생성자 표현식 (작성자 닉네임/프로필 이미지까지 한 번에 조인, 행마다 User 를 따로 읽지 않음)
+    String DTO_SELECT = "SELECT new com.gagym.dto.ReviewDto(r.id, u.id, u.username, u.nickname, u.profileImage, " +
+            "g.id, g.name, t.id, t.name, r.rating, r.content, r.imageUrl, r.createdAt, r.updatedAt) " +
+            "FROM Review r JOIN r.user u LEFT JOIN r.gym g LEFT JOIN r.trainer t ";
     
-    List<Review> findByTrainerIdOrderByCreatedAtDesc(Long trainerId);
+    // (created_at, id) 커서 이전 행을 최신순으로
+    String BEFORE_CURSOR = "AND (r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.id < :id)) " +
+            "ORDER BY r.createdAt DESC, r.id DESC";
     
-    List<Review> findByUserIdOrderByCreatedAtDesc(Long userId);
+    @EntityGraph(attributePaths = {"user", "gym", "trainer"})
+    @Query("SELECT r FROM Review r WHERE r.id = :id")
+    Optional<Review> findWithDetailsById(@Param("id") Long id);
+    
+    @Query(DTO_SELECT + "WHERE r.id = :id")
+    Optional<ReviewDto> findDtoById(@Param("id") Long id);
+    
+    // 리뷰 피드 키셋 페이지네이션 (최신순, 첫 페이지는 먼 미래 시각과 Long.MAX_VALUE 를 커서로 조회)
+    @Query(DTO_SELECT + "WHERE r.gym.id = :gymId " + BEFORE_CURSOR)
+    List<ReviewDto> findGymFeed(@Param("gymId") Long gymId, @Param("createdAt") LocalDateTime createdAt,
+                                @Param("id") Long id, Pageable pageable);
+    
+    @Query(DTO_SELECT + "WHERE r.trainer.id = :trainerId " + BEFORE_CURSOR)
+    List<ReviewDto> findTrainerFeed(@Param("trainerId") Long trainerId, @Param("createdAt") LocalDateTime createdAt,
+                                    @Param("id") Long id, Pageable pageable);
+    
+    @Query(DTO_SELECT + "WHERE r.user.id = :userId " + BEFORE_CURSOR)
+    List<ReviewDto> findUserFeed(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt,
+                                 @Param("id") Long id, Pageable pageable);
+    
+    // 별점 필터 ((gym_id, rating, created_at) 인덱스 순서 그대로)
+    @Query(DTO_SELECT + "WHERE r.gym.id = :gymId AND r.rating = :rating " + BEFORE_CURSOR)
+    List<ReviewDto> findGymRatingFeed(@Param("gymId") Long gymId, @Param("rating") Integer rating,
+                                      @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                      Pageable pageable);
     
     List<Review> findByGymIdAndRating(Long gymId, Integer rating);
+    
+    // 평점이 그대로일 때만 수정 (동시 수정으로 증감분이 두 번 반영되지 않도록)
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Review r SET r.rating = :rating, r.content = :content, r.imageUrl = :imageUrl, r.updatedAt = :now " +
+           "WHERE r.id = :id AND r.rating = :expectedRating")
+    int updateIfRating(@Param("id") Long id, @Param("expectedRating") Integer expectedRating,
+                       @Param("rating") Integer rating, @Param("content") String content,
+                       @Param("imageUrl") String imageUrl, @Param("now") LocalDateTime now);
+    
+    // 읽은 평점 그대로일 때만 삭제 (실제로 삭제한 요청만 그 평점을 집계에서 뺌)
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Review r WHERE r.id = :id AND r.rating = :expectedRating")
+    int deleteIfRating(@Param("id") Long id, @Param("expectedRating") Integer expectedRating);
+    
+    // 평점 재집계용 별점별 리뷰 수 (헬스장 ID, 별점, 리뷰 수)
+    @Query("SELECT r.gym.id, r.rating, COUNT(r) FROM Review r WHERE r.gym.id IN :gymIds GROUP BY r.gym.id, r.rating")
+    List<Object[]> countRatingsByGymIds(@Param("gymIds") Collection<Long> gymIds);
+    
+    // 평점 재집계용 별점별 리뷰 수 (트레이너 ID, 별점, 리뷰 수)
+    @Query("SELECT r.trainer.id, r.rating, COUNT(r) FROM Review r WHERE r.trainer.id IN :trainerIds " +
+           "GROUP BY r.trainer.id, r.rating")
+    List<Object[]> countRatingsByTrainerIds(@Param("trainerIds") Collection<Long> trainerIds);
 } 
\ No newline at end of file
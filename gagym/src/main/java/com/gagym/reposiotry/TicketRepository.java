@@ -1,17 +1,35 @@
 package com.gagym.reposiotry;
 
 import com.gagym.entity.Ticket;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface TicketRepository extends JpaRepository<Ticket, Long> {
     
+    // 헬스장 이름까지 한 번에 조회 (DTO 변환 시 지연 로딩 없음)
+    @EntityGraph(attributePaths = "gym")
     List<Ticket> findByGymIdAndIsActiveTrue(Long gymId);
     
+    @EntityGraph(attributePaths = "gym")
     List<Ticket> findByTypeAndGymId(Ticket.TicketType type, Long gymId);
     
-    List<Ticket> findByQrCode(String qrCode);
+    @EntityGraph(attributePaths = "gym")
+    Optional<Ticket> findByQrKey(byte[] qrKey);
+    
+    // QR 조회 인덱스 적재용 (QR 키, 티켓 ID)
+    @Query("SELECT t.qrKey, t.id FROM Ticket t WHERE t.qrKey IS NOT NULL")
+    List<Object[]> findQrKeys();
+    
+    // qr_key 백필 대상 (ID, QR 코드, id 순 키셋)
+    @Query("SELECT t.id, t.qrCode FROM Ticket t WHERE t.qrKey IS NULL AND t.qrCode IS NOT NULL AND t.id > :afterId " +
+           "ORDER BY t.id")
+    List<Object[]> findQrCodesWithoutKey(@Param("afterId") Long afterId, Pageable pageable);
 } 
\ No newline at end of file
@@ -1,7 +1,11 @@
 package com.gagym.reposiotry;
 
 import com.gagym.entity.Trainer;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -16,4 +20,28 @@ public interface TrainerRepository extends JpaRepository<Trainer, Long> {
     List<Trainer> findByExperienceYearsGreaterThanEqual(Integer experienceYears);
     
     List<Trainer> findAllByOrderByRatingDesc();
+    
+    // 리뷰 반영: 합계/개수에 증감분을 더하고 평균 재계산 (MySQL 은 SET 을 왼쪽부터 적용하므로 평균을 먼저 계산)
+    @Modifying
+    @Query("UPDATE Trainer t SET t.rating = COALESCE((COALESCE(t.ratingSum, 0) + :sumDelta) * 1.0 " +
+           "/ NULLIF(COALESCE(t.reviewCount, 0) + :countDelta, 0), 0.0), " +
+           "t.ratingSum = COALESCE(t.ratingSum, 0) + :sumDelta, " +
+           "t.reviewCount = COALESCE(t.reviewCount, 0) + :countDelta WHERE t.id = :id")
+    int applyRatingDelta(@Param("id") Long id, @Param("sumDelta") long sumDelta, @Param("countDelta") int countDelta);
+    
+    @Query("SELECT t.rating FROM Trainer t WHERE t.id = :id")
+    Double findRatingById(@Param("id") Long id);
+    
+    // 평점 재집계용 (ID, 평점, 합계, 개수), id 순 키셋
+    @Query("SELECT t.id, t.rating, COALESCE(t.ratingSum, 0), COALESCE(t.reviewCount, 0) FROM Trainer t " +
+           "WHERE t.id > :afterId ORDER BY t.id")
+    List<Object[]> findRatingAggregates(@Param("afterId") Long afterId, Pageable pageable);
+    
+    // 재집계 결과 반영 (읽은 뒤 리뷰 반영이 끼어들었으면 갱신하지 않음)
+    @Modifying
+    @Query("UPDATE Trainer t SET t.rating = :rating, t.ratingSum = :ratingSum, t.reviewCount = :reviewCount " +
+           "WHERE t.id = :id AND COALESCE(t.ratingSum, 0) = :expectedSum AND COALESCE(t.reviewCount, 0) = :expectedCount")
+    int resetRatingAggregate(@Param("id") Long id, @Param("expectedSum") long expectedSum,
+                             @Param("expectedCount") int expectedCount, @Param("rating") Double rating,
+                             @Param("ratingSum") long ratingSum, @Param("reviewCount") int reviewCount);
 } 
\ No newline at end of file
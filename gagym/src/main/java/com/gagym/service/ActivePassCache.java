@@ -0,0 +1,59 @@
+package com.gagym.service;
+
+import com.gagym.dto.CacheStatsDto;
+import com.gagym.dto.PurchaseDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// 사용자별 현재 사용 가능한 이용권 캐시 (앱 홈 화면 조회용)
+@Component
+public class ActivePassCache {
+    
+    private final LocalCache<Long, List<PurchaseDto>> passes;
+    
+    public ActivePassCache(@Value("${app.active-pass-cache.max-size:50000}") int maxSize,
+                           @Value("${app.active-pass-cache.ttl-ms:60000}") long ttlMillis) {
+        this.passes = new LocalCache<>("activePasses", maxSize, ttlMillis);
+    }
+    
+    // 캐시된 뒤 만료된 이용권은 읽을 때 제외
+    public List<PurchaseDto> get(Long userId, Function<Long, List<PurchaseDto>> loader) {
+        List<PurchaseDto> cached = passes.get(userId, id -> List.copyOf(loader.apply(id)));
+        LocalDateTime now = LocalDateTime.now();
+        return cached.stream()
+                .filter(purchase -> purchase.getExpiryDate().isAfter(now))
+                .collect(Collectors.toList());
+    }
+    
+    // 구매, 사용, 취소 시 무효화 (커밋 이후에도 한 번 더 무효화)
+    public void evict(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        passes.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    passes.invalidate(userId);
+                }
+            });
+        }
+    }
+    
+    public void evictAll(Collection<Long> userIds) {
+        userIds.forEach(this::evict);
+    }
+    
+    public CacheStatsDto stats() {
+        return passes.stats();
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,79 @@
+package com.gagym.service;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// 키셋 페이지네이션 커서 인코딩 ("타입:값1,값2" 를 URL-safe Base64 로 감춤)
+public final class CursorCodec {
+    
+    private CursorCodec() {
+    }
+    
+    public static String encode(String type, Object... values) {
+        String raw = type + ":" + Arrays.stream(values)
+                .map(String::valueOf)
+                .collect(Collectors.joining(","));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    // [0] 은 커서 타입, 이후는 값
+    public static String[] decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            if (separator <= 0) {
+                throw new IllegalArgumentException();
+            }
+            String[] values = raw.substring(separator + 1).split(",", -1);
+            String[] result = new String[values.length + 1];
+            result[0] = raw.substring(0, separator);
+            System.arraycopy(values, 0, result, 1, values.length);
+            return result;
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("잘못된 커서입니다.");
+        }
+    }
+    
+    // 지정한 타입과 값 개수를 가진 커서인지 확인 후 값만 반환
+    public static String[] decode(String cursor, String type, int valueCount) {
+        String[] decoded = decode(cursor);
+        if (!type.equals(decoded[0]) || decoded.length != valueCount + 1) {
+            throw new RuntimeException("잘못된 커서입니다.");
+        }
+        return Arrays.copyOfRange(decoded, 1, decoded.length);
+    }
+    
+    // 커서 값 변환 (형식이 맞지 않으면 타입이 틀린 커서와 같은 오류)
+    public static long toLong(String value) {
+        return parse(value, Long::valueOf);
+    }
+    
+    public static double toDouble(String value) {
+        double parsed = parse(value, Double::valueOf);
+        if (!Double.isFinite(parsed)) {
+            throw new RuntimeException("잘못된 커서입니다.");
+        }
+        return parsed;
+    }
+    
+    public static BigDecimal toDecimal(String value) {
+        return parse(value, BigDecimal::new);
+    }
+    
+    public static LocalDateTime toDateTime(String value) {
+        return parse(value, LocalDateTime::parse);
+    }
+    
+    private static <T> T parse(String value, Function<String, T> parser) {
+        try {
+            return parser.apply(value);
+        } catch (RuntimeException e) {
+            throw new RuntimeException("잘못된 커서입니다.");
+        }
+    }
+} 
\ No newline at end of file
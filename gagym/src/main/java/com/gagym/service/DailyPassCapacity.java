@@ -0,0 +1,250 @@
+package com.gagym.service;
+
+import com.gagym.entity.Purchase;
+import com.gagym.entity.Ticket;
+import com.gagym.reposiotry.PurchaseRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// 헬스장별 하루 일일권 판매 한도
+// daily_pass_sales.sold_count 가 모든 인스턴스가 공유하는 원본: 인스턴스는 판매권을 묶음으로 받아(조건부 UPDATE)
+// 스트라이프 카운터에 두고 행 잠금 없이 팔며, 팔리지 않은 판매권은 주기적으로 돌려줌 (write-behind)
+// 남은 한도가 한 묶음보다 적으면 한 장씩 받으므로 여러 인스턴스가 팔아도 한도를 넘지 않음
+@Component
+@Slf4j
+public class DailyPassCapacity {
+    
+    // 결제 대기 중인 구매도 한도를 차지 (실패하면 반환)
+    private static final List<Purchase.PaymentStatus> COUNTED_STATUSES =
+            List.of(Purchase.PaymentStatus.PENDING, Purchase.PaymentStatus.COMPLETED);
+    private static final int RETAIN_DAYS = 1;
+    private static final int LEASE_SIZE = 20; // 한 번에 받아 두는 판매권 수
+    private static final int STRIPES = 8; // 2의 거듭제곱
+    private static final int STRIPE_SPACING = 16; // 스트라이프 간격 (int 16개 = 64바이트, 캐시 라인을 나눠 쓰지 않음)
+    // 행이 없을 때만 만들고 이미 있으면 그대로 둠 (다른 인스턴스가 받아 간 몫 포함)
+    private static final String SEED_SQL = "INSERT INTO daily_pass_sales (gym_id, sale_date, sold_count, updated_at) " +
+            "VALUES (?, ?, ?, ?) ON DUPLICATE KEY UPDATE gym_id = gym_id";
+    private static final String LEASE_SQL = "UPDATE daily_pass_sales SET sold_count = sold_count + ?, updated_at = ? " +
+            "WHERE gym_id = ? AND sale_date = ? AND sold_count + ? <= ?";
+    private static final String RETURN_SQL = "UPDATE daily_pass_sales SET sold_count = GREATEST(sold_count - ?, 0), " +
+            "updated_at = ? WHERE gym_id = ? AND sale_date = ?";
+    
+    private final PurchaseRepository purchaseRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate leaseTransaction;
+    private final Map<Key, Counter> counters = new ConcurrentHashMap<>();
+    
+    public DailyPassCapacity(PurchaseRepository purchaseRepository, JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager) {
+        this.purchaseRepository = purchaseRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        // 판매권 수령은 구매 트랜잭션과 따로 커밋 (구매가 롤백돼도 받은 판매권은 카운터에 남아 다시 팔림)
+        this.leaseTransaction = new TransactionTemplate(transactionManager);
+        this.leaseTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+    
+    // 애플리케이션 시작 시 판매 기록이 없는 헬스장(테이블 도입 전 판매분)을 오늘 구매 내역으로 채움
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcile() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = now.toLocalDate();
+        List<Object[]> rows = purchaseRepository.countDailyPassSales(
+                Ticket.TicketType.DAILY, COUNTED_STATUSES, today.atStartOfDay(), now);
+        List<Object[]> args = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            args.add(new Object[]{row[0], Date.valueOf(today), ((Long) row[1]).intValue(), Timestamp.valueOf(now)});
+        }
+        if (!args.isEmpty()) {
+            jdbcTemplate.batchUpdate(SEED_SQL, args);
+        }
+        log.info("일일권 판매 수 보정 완료: {}개 헬스장", rows.size());
+    }
+    
+    // 한도 안이면 1장 예약 (capacity 가 null 이면 한도 없이 집계만)
+    public boolean tryReserve(Long gymId, LocalDate date, Integer capacity) {
+        Counter counter = counter(gymId, date);
+        if (counter.take()) {
+            return true;
+        }
+        int limit = capacity == null ? Integer.MAX_VALUE : capacity;
+        if (lease(counter, gymId, date, LEASE_SIZE, limit)) {
+            counter.add(LEASE_SIZE - 1);
+            return true;
+        }
+        // 남은 한도가 한 묶음보다 적으면 한 장만 받음
+        return lease(counter, gymId, date, 1, limit);
+    }
+    
+    // 예약 반환 (다시 팔 수 있는 판매권으로 두었다가 flush 때 DB 에 돌려줌)
+    public void release(Long gymId, LocalDate date) {
+        counter(gymId, date).add(1);
+    }
+    
+    // 현재 트랜잭션이 커밋되지 않으면 예약 반환 (구매 실패)
+    public void releaseOnRollback(Long gymId, LocalDate date) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    release(gymId, date);
+                }
+            }
+        });
+    }
+    
+    // 커밋된 뒤 예약 반환 (구매 취소)
+    public void releaseAfterCommit(Long gymId, LocalDate date) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            release(gymId, date);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                release(gymId, date);
+            }
+        });
+    }
+    
+    // 팔리지 않은 판매권을 한 번의 배치로 돌려주고, 지난 날짜 카운터는 정리
+    @Scheduled(fixedDelay = 5000, initialDelay = 5000)
+    public void flush() {
+        LocalDate oldest = LocalDate.now().minusDays(RETAIN_DAYS);
+        counters.keySet().removeIf(key -> key.date.isBefore(oldest));
+        
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Counter> drained = new ArrayList<>();
+        List<Object[]> args = new ArrayList<>();
+        counters.forEach((key, counter) -> {
+            int unsold = counter.drain();
+            if (unsold > 0) {
+                drained.add(counter);
+                args.add(new Object[]{unsold, now, key.gymId, Date.valueOf(key.date)});
+            }
+        });
+        if (args.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate(RETURN_SQL, args);
+        } catch (DataAccessException e) {
+            // 돌려주지 못한 판매권은 카운터에 다시 두고 다음 주기에 재시도
+            for (int i = 0; i < drained.size(); i++) {
+                drained.get(i).add((Integer) args.get(i)[0]);
+            }
+            log.warn("일일권 판매권 반환 실패: {}", e.getMessage());
+        }
+    }
+    
+    // 종료 전에 받아 둔 판매권 반환 (비정상 종료 시 남은 판매권은 그날 한도에서 빠짐)
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+    
+    // DB 에서 판매권 count 장 받기 (한도를 넘으면 0건 갱신으로 실패)
+    private boolean lease(Counter counter, Long gymId, LocalDate date, int count, int limit) {
+        Date saleDate = Date.valueOf(date);
+        Integer updated = leaseTransaction.execute(status -> {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            if (!counter.seeded) {
+                jdbcTemplate.update(SEED_SQL, gymId, saleDate, 0, now);
+            }
+            return jdbcTemplate.update(LEASE_SQL, count, now, gymId, saleDate, count, limit);
+        });
+        counter.seeded = true;
+        return updated != null && updated > 0;
+    }
+    
+    private Counter counter(Long gymId, LocalDate date) {
+        return counters.computeIfAbsent(new Key(gymId, date), key -> new Counter());
+    }
+    
+    // 받아 둔 판매권 (스레드마다 다른 스트라이프에서 CAS, 비면 다른 스트라이프를 확인)
+    private static class Counter {
+        private final AtomicIntegerArray tokens = new AtomicIntegerArray(STRIPES * STRIPE_SPACING);
+        private volatile boolean seeded;
+        
+        private boolean take() {
+            int start = stripe();
+            for (int i = 0; i < STRIPES; i++) {
+                int index = ((start + i) & (STRIPES - 1)) * STRIPE_SPACING;
+                int left;
+                while ((left = tokens.get(index)) > 0) {
+                    if (tokens.compareAndSet(index, left, left - 1)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+        
+        private void add(int count) {
+            tokens.addAndGet(stripe() * STRIPE_SPACING, count);
+        }
+        
+        private int drain() {
+            int drained = 0;
+            for (int i = 0; i < STRIPES; i++) {
+                drained += tokens.getAndSet(i * STRIPE_SPACING, 0);
+            }
+            return drained;
+        }
+        
+        private static int stripe() {
+            return (int) Thread.currentThread().getId() & (STRIPES - 1);
+        }
+    }
+    
+    private static class Key {
+        private final long gymId;
+        private final LocalDate date;
+        
+        Key(long gymId, LocalDate date) {
+            this.gymId = gymId;
+            this.date = date;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return gymId == other.gymId && date.equals(other.date);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(gymId, date);
+        }
+    }
+} 
\ No newline at end of file
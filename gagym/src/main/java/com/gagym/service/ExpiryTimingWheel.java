@@ -0,0 +1,134 @@
+package com.gagym.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+// 계층형 타이밍 휠: 하위 휠 한 바퀴가 상위 휠의 한 칸, 상위 칸이 돌아오면 하위 휠로 다시 배치
+// 동기화는 호출하는 쪽에서 담당
+class ExpiryTimingWheel {
+    
+    private final long tickMillis;
+    private final int wheelSize;
+    private final long interval;
+    private final List<Map<Long, Long>> buckets; // 칸마다 ID -> 만료 시각(ms)
+    private final Map<Long, Long> deadlines = new HashMap<>(); // 등록된 ID -> 만료 시각 (최상위 휠에서만 사용)
+    private long currentTime; // tickMillis 단위로 내림한 현재 시각
+    private ExpiryTimingWheel overflow;
+    private int size = 0;
+    
+    ExpiryTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.interval = tickMillis * wheelSize;
+        this.currentTime = startMillis - (startMillis % tickMillis);
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new HashMap<>());
+        }
+    }
+    
+    // 등록 (같은 ID 가 있으면 새 만료 시각으로 옮김, 현재 칸 이전에 이미 만료된 항목이면 false)
+    boolean add(long id, long expiration) {
+        cancel(id);
+        if (!place(id, expiration)) {
+            return false;
+        }
+        deadlines.put(id, expiration);
+        return true;
+    }
+    
+    // 등록 취소 (휠에 없으면 false)
+    boolean cancel(long id) {
+        Long expiration = deadlines.remove(id);
+        return expiration != null && unplace(id, expiration);
+    }
+    
+    // now 까지 한 칸씩 진행하며 만료된 ID 를 전달
+    void advance(long now, LongConsumer expired) {
+        while (currentTime + tickMillis <= now) {
+            currentTime += tickMillis;
+            if (overflow != null) {
+                overflow.tickTo(currentTime, (id, expiration) -> reinsert(id, expiration, expired));
+            }
+            drain(currentTime, (id, expiration) -> reinsert(id, expiration, expired));
+        }
+    }
+    
+    // 아직 만료되지 않아 휠에 남아 있는 항목 수 (상위 휠 포함)
+    int size() {
+        return size + (overflow == null ? 0 : overflow.size());
+    }
+    
+    private boolean place(long id, long expiration) {
+        if (expiration < currentTime + tickMillis) {
+            return false;
+        }
+        if (expiration < currentTime + interval) {
+            if (buckets.get(indexOf(expiration)).put(id, expiration) == null) {
+                size++;
+            }
+            return true;
+        }
+        return overflow().place(id, expiration);
+    }
+    
+    // 등록 후 휠이 진행되면 항목이 하위 휠로 내려와 있을 수 있으므로 하위 휠부터 확인
+    private boolean unplace(long id, long expiration) {
+        if (buckets.get(indexOf(expiration)).remove(id) != null) {
+            size--;
+            return true;
+        }
+        return overflow != null && overflow.unplace(id, expiration);
+    }
+    
+    // 상위 휠: 하위 휠 시각이 이 휠의 칸 경계에 닿으면 해당 칸을 비워 하위 휠로 내림
+    private void tickTo(long time, EntryConsumer sink) {
+        if (time % tickMillis != 0 || time < currentTime + tickMillis) {
+            return;
+        }
+        currentTime = time;
+        if (overflow != null) {
+            overflow.tickTo(time, sink);
+        }
+        drain(time, sink);
+    }
+    
+    // 칸을 비우며 만료 시각, ID 순으로 전달
+    private void drain(long time, EntryConsumer sink) {
+        Map<Long, Long> bucket = buckets.get(indexOf(time));
+        if (bucket.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<Long, Long>> entries = new ArrayList<>(bucket.entrySet());
+        bucket.clear();
+        size -= entries.size();
+        entries.sort(Map.Entry.<Long, Long>comparingByValue().thenComparing(Map.Entry.comparingByKey()));
+        entries.forEach(entry -> sink.accept(entry.getKey(), entry.getValue()));
+    }
+    
+    private void reinsert(long id, long expiration, LongConsumer expired) {
+        if (!place(id, expiration)) {
+            deadlines.remove(id);
+            expired.accept(id);
+        }
+    }
+    
+    private int indexOf(long time) {
+        return (int) ((time / tickMillis) % wheelSize);
+    }
+    
+    private ExpiryTimingWheel overflow() {
+        if (overflow == null) {
+            overflow = new ExpiryTimingWheel(interval, wheelSize, currentTime);
+        }
+        return overflow;
+    }
+    
+    @FunctionalInterface
+    private interface EntryConsumer {
+        void accept(long id, long expiration);
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,114 @@
+package com.gagym.service;
+
+import com.gagym.dto.CacheStatsDto;
+import com.gagym.dto.GymDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+// 헬스장 상세(사용자별 즐겨찾기 제외), 목록 결과(ID 목록), 사용자별 즐겨찾기 헬스장 ID 캐시
+@Component
+public class GymCache {
+    
+    private final LocalCache<Long, GymDto> gyms;
+    private final LocalCache<String, GymIdList> lists;
+    private final LocalCache<Long, Set<Long>> favorites;
+    
+    public GymCache(@Value("${app.gym-cache.max-size:10000}") int maxSize,
+                    @Value("${app.gym-cache.ttl-ms:300000}") long ttlMillis,
+                    @Value("${app.gym-cache.list-max-size:256}") int listMaxSize,
+                    @Value("${app.gym-cache.favorite-max-size:10000}") int favoriteMaxSize,
+                    @Value("${app.gym-cache.favorite-ttl-ms:60000}") long favoriteTtlMillis) {
+        this.gyms = new LocalCache<>("gyms", maxSize, ttlMillis);
+        this.lists = new LocalCache<>("gymLists", listMaxSize, ttlMillis);
+        this.favorites = new LocalCache<>("gymFavorites", favoriteMaxSize, favoriteTtlMillis);
+    }
+    
+    public GymDto getGym(Long gymId, Function<Long, GymDto> loader) {
+        return gyms.get(gymId, loader);
+    }
+    
+    public Map<Long, GymDto> getGyms(List<Long> gymIds) {
+        return gyms.getAll(gymIds);
+    }
+    
+    public long generation() {
+        return gyms.generation();
+    }
+    
+    public void putGym(GymDto gym, long loadGeneration) {
+        gyms.putIfGeneration(gym.getId(), gym, loadGeneration);
+    }
+    
+    public List<Long> getList(String key, Supplier<List<Long>> loader) {
+        return lists.get(key, ignored -> new GymIdList(loader.get())).ids;
+    }
+    
+    // 사용자의 즐겨찾기 헬스장 ID (상세, 목록 조회가 함께 사용)
+    public Set<Long> getFavoriteGymIds(Long userId, Function<Long, Set<Long>> loader) {
+        return favorites.get(userId, id -> Set.copyOf(loader.apply(id)));
+    }
+    
+    // 즐겨찾기 변경 시 해당 사용자 항목 무효화
+    public void evictFavorites(Long userId) {
+        favorites.invalidate(userId);
+        afterCommit(() -> favorites.invalidate(userId));
+    }
+    
+    // 헬스장 변경 시 해당 항목과 그 헬스장이 들어 있는 목록만 무효화 (커밋 이후에도 한 번 더 무효화)
+    public void evict(Long gymId) {
+        evict(gymId, key -> false);
+    }
+    
+    // 변경 후 새로 포함될 수 있는 목록(newlyMatching)도 함께 무효화
+    public void evict(Long gymId, Predicate<String> newlyMatching) {
+        evictNow(gymId, newlyMatching);
+        afterCommit(() -> evictNow(gymId, newlyMatching));
+    }
+    
+    public List<CacheStatsDto> stats() {
+        return List.of(gyms.stats(), lists.stats(), favorites.stats());
+    }
+    
+    private void evictNow(Long gymId, Predicate<String> newlyMatching) {
+        if (gymId != null) {
+            gyms.invalidate(gymId);
+        }
+        lists.invalidateIf((key, list) -> list.contains(gymId) || newlyMatching.test(key));
+    }
+    
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+    
+    // 목록 결과 (순서 유지 ID 목록 + 포함 여부 확인용 정렬 배열)
+    private static final class GymIdList {
+        private final List<Long> ids;
+        private final long[] sortedIds;
+        
+        private GymIdList(List<Long> ids) {
+            this.ids = List.copyOf(ids);
+            this.sortedIds = this.ids.stream().mapToLong(Long::longValue).sorted().toArray();
+        }
+        
+        private boolean contains(Long gymId) {
+            return gymId != null && Arrays.binarySearch(sortedIds, gymId) >= 0;
+        }
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,223 @@
+package com.gagym.service;
+
+import com.gagym.reposiotry.GymRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class GymFacilityIndex {
+    
+    private final GymRepository gymRepository;
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    // 정규화된 시설명 -> 시설 번호
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    // 시설 번호 -> 해당 시설을 가진 헬스장 ID 비트맵
+    private final List<BitSet> postings = new ArrayList<>();
+    // 헬스장 ID -> 파싱된 시설 목록 (원본 문자열과 함께 보관)
+    private final Map<Long, ParsedFacilities> gymFacilities = new HashMap<>();
+    
+    private volatile boolean ready = false;
+    
+    // 애플리케이션 시작 시 전체 시설 정보 적재
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Object[]> rows = gymRepository.findAllFacilities();
+        lock.writeLock().lock();
+        try {
+            dictionary.clear();
+            postings.clear();
+            gymFacilities.clear();
+            for (Object[] row : rows) {
+                putInternal((Long) row[0], (String) row[1]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ready = true;
+        log.info("헬스장 시설 인덱스 적재 완료: 헬스장 {}건, 시설 {}종", rows.size(), dictionary.size());
+    }
+    
+    public boolean isReady() {
+        return ready;
+    }
+    
+    // 헬스장 시설 등록/갱신
+    public void put(Long gymId, String facilities) {
+        lock.writeLock().lock();
+        try {
+            putInternal(gymId, facilities);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    // 헬스장 시설 삭제
+    public void remove(Long gymId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(gymId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    // 모든 시설을 갖춘 헬스장 (AND)
+    public BitSet findAll(Collection<String> facilities) {
+        lock.readLock().lock();
+        try {
+            BitSet result = null;
+            for (String facility : facilities) {
+                BitSet posting = postingOf(facility);
+                if (posting == null) {
+                    return new BitSet();
+                }
+                if (result == null) {
+                    result = (BitSet) posting.clone();
+                } else {
+                    result.and(posting);
+                }
+            }
+            return result == null ? new BitSet() : result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // 하나 이상의 시설을 갖춘 헬스장 (OR)
+    public BitSet findAny(Collection<String> facilities) {
+        lock.readLock().lock();
+        try {
+            BitSet result = new BitSet();
+            for (String facility : facilities) {
+                BitSet posting = postingOf(facility);
+                if (posting != null) {
+                    result.or(posting);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // 해당 시설을 가진 헬스장 수
+    public int count(String facility) {
+        lock.readLock().lock();
+        try {
+            BitSet posting = postingOf(facility);
+            return posting == null ? 0 : posting.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // 헬스장의 시설 목록 (인덱스에 있는 값이 현재 문자열과 같으면 재파싱하지 않음)
+    public List<String> facilitiesOf(Long gymId, String facilities) {
+        lock.readLock().lock();
+        try {
+            ParsedFacilities parsed = gymFacilities.get(gymId);
+            if (parsed != null && parsed.raw.equals(facilities == null ? "" : facilities)) {
+                return parsed.names;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return parse(facilities);
+    }
+    
+    // 비트맵에서 afterId 다음부터 limit 개의 ID를 오름차순으로 추출
+    public static List<Long> idsAfter(BitSet gymIds, long afterId, int limit) {
+        List<Long> result = new ArrayList<>(Math.min(limit, 1024));
+        int from = (int) Math.min(Integer.MAX_VALUE, Math.max(0, afterId + 1));
+        for (int id = gymIds.nextSetBit(from); id >= 0 && result.size() < limit; id = gymIds.nextSetBit(id + 1)) {
+            result.add((long) id);
+        }
+        return result;
+    }
+    
+    // 콤마로 구분된 시설 문자열 파싱
+    public static List<String> parse(String facilities) {
+        if (facilities == null || facilities.isBlank()) {
+            return List.of();
+        }
+        List<String> names = new ArrayList<>();
+        for (String token : facilities.split(",")) {
+            String name = token.trim().replaceAll("\\s+", " ");
+            if (!name.isEmpty() && !names.contains(name)) {
+                names.add(name);
+            }
+        }
+        return List.copyOf(names);
+    }
+    
+    // 사전 키로 쓰는 정규화 (대소문자, 공백 차이 무시)
+    public static String normalize(String facility) {
+        return facility == null ? "" : facility.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+    
+    private BitSet postingOf(String facility) {
+        Integer facilityId = dictionary.get(normalize(facility));
+        return facilityId == null ? null : postings.get(facilityId);
+    }
+    
+    private void putInternal(Long gymId, String facilities) {
+        removeInternal(gymId);
+        if (gymId == null) {
+            return;
+        }
+        List<String> names = parse(facilities);
+        int bit = Math.toIntExact(gymId);
+        for (String name : names) {
+            int facilityId = dictionary.computeIfAbsent(normalize(name), key -> {
+                postings.add(new BitSet());
+                return postings.size() - 1;
+            });
+            postings.get(facilityId).set(bit);
+        }
+        gymFacilities.put(gymId, new ParsedFacilities(facilities == null ? "" : facilities, names));
+    }
+    
+    private void removeInternal(Long gymId) {
+        if (gymId == null) {
+            return;
+        }
+        ParsedFacilities previous = gymFacilities.remove(gymId);
+        if (previous == null) {
+            return;
+        }
+        int bit = Math.toIntExact(gymId);
+        for (String name : previous.names) {
+            Integer facilityId = dictionary.get(normalize(name));
+            if (facilityId != null) {
+                postings.get(facilityId).clear(bit);
+            }
+        }
+    }
+    
+    private static class ParsedFacilities {
+        private final String raw;
+        private final List<String> names;
+        
+        private ParsedFacilities(String raw, List<String> names) {
+            this.raw = raw;
+            this.names = names;
+        }
+    }
+} 
\ No newline at end of file
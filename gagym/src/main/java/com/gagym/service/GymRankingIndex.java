@@ -0,0 +1,237 @@
+package com.gagym.service;
+
+import com.gagym.reposiotry.GymRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// 평점 순 / 최저가 순 정렬 인덱스 (스킵 리스트)
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class GymRankingIndex {
+    
+    // 평점 내림차순, 평점 없음은 마지막, 같으면 ID 오름차순
+    static final Comparator<RankEntry> RATING_ORDER = (a, b) -> {
+        if (a.rating == null || b.rating == null) {
+            if (a.rating != b.rating) {
+                return a.rating == null ? 1 : -1;
+            }
+        } else {
+            int compared = Double.compare(b.rating, a.rating);
+            if (compared != 0) {
+                return compared;
+            }
+        }
+        return Long.compare(a.gymId, b.gymId);
+    };
+    
+    // 월 회비 오름차순, 회비 없음은 마지막, 같으면 ID 오름차순
+    static final Comparator<RankEntry> FEE_ORDER = (a, b) -> {
+        if (a.monthlyFee == null || b.monthlyFee == null) {
+            if (a.monthlyFee != b.monthlyFee) {
+                return a.monthlyFee == null ? 1 : -1;
+            }
+        } else {
+            int compared = a.monthlyFee.compareTo(b.monthlyFee);
+            if (compared != 0) {
+                return compared;
+            }
+        }
+        return Long.compare(a.gymId, b.gymId);
+    };
+    
+    // 건수 추정용 히스토그램: 평점 0.1점 단위, 회비 1만원 단위 (100만원 이상은 마지막 구간)
+    private static final int RATING_BUCKETS = 51;
+    private static final BigDecimal FEE_BUCKET_WIDTH = new BigDecimal("10000");
+    private static final int FEE_BUCKETS = 101;
+    
+    private final GymRepository gymRepository;
+    
+    private final AtomicLongArray ratingHistogram = new AtomicLongArray(RATING_BUCKETS);
+    private final AtomicLongArray feeHistogram = new AtomicLongArray(FEE_BUCKETS);
+    private final Map<Long, RankEntry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<RankEntry> byRating = new ConcurrentSkipListSet<>(RATING_ORDER);
+    private final ConcurrentSkipListSet<RankEntry> byFee = new ConcurrentSkipListSet<>(FEE_ORDER);
+    
+    private volatile boolean ready = false;
+    
+    // 애플리케이션 시작 시 전체 평점/회비 적재
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Object[]> rows = gymRepository.findAllRankings();
+        synchronized (this) {
+            entries.clear();
+            byRating.clear();
+            byFee.clear();
+            for (int bucket = 0; bucket < RATING_BUCKETS; bucket++) {
+                ratingHistogram.set(bucket, 0);
+            }
+            for (int bucket = 0; bucket < FEE_BUCKETS; bucket++) {
+                feeHistogram.set(bucket, 0);
+            }
+            for (Object[] row : rows) {
+                put((Long) row[0], (Double) row[1], (BigDecimal) row[2]);
+            }
+        }
+        ready = true;
+        log.info("헬스장 정렬 인덱스 적재 완료: {}건", entries.size());
+    }
+    
+    public boolean isReady() {
+        return ready;
+    }
+    
+    // 헬스장 평점/회비 등록/갱신
+    public synchronized void put(Long gymId, Double rating, BigDecimal monthlyFee) {
+        if (gymId == null) {
+            return;
+        }
+        removeInternal(gymId);
+        RankEntry entry = new RankEntry(gymId, rating, monthlyFee);
+        entries.put(gymId, entry);
+        byRating.add(entry);
+        byFee.add(entry);
+        count(entry, 1);
+    }
+    
+    // 평점만 갱신 (리뷰 반영 시)
+    public synchronized void updateRating(Long gymId, Double rating) {
+        RankEntry previous = entries.get(gymId);
+        if (previous != null) {
+            put(gymId, rating, previous.monthlyFee);
+        }
+    }
+    
+    // 회비만 갱신 (헬스장 정보 수정 시, 평점은 리뷰 반영분 유지)
+    public synchronized void updateFee(Long gymId, BigDecimal monthlyFee) {
+        RankEntry previous = entries.get(gymId);
+        if (previous != null) {
+            put(gymId, previous.rating, monthlyFee);
+        }
+    }
+    
+    public synchronized void remove(Long gymId) {
+        removeInternal(gymId);
+    }
+    
+    public RankEntry get(Long gymId) {
+        return entries.get(gymId);
+    }
+    
+    // 회비가 minFee 이상 maxFee 이하인 헬스장 ID (회비 순)
+    public List<Long> idsWithFeeBetween(BigDecimal minFee, BigDecimal maxFee) {
+        if (minFee.compareTo(maxFee) > 0) {
+            return List.of();
+        }
+        return ids(byFee.subSet(new RankEntry(Long.MIN_VALUE, null, minFee), true,
+                new RankEntry(Long.MAX_VALUE, null, maxFee), true));
+    }
+    
+    // 평점이 minRating 이상인 헬스장 ID (평점 순)
+    public List<Long> idsWithRatingAtLeast(double minRating) {
+        return ids(byRating.headSet(new RankEntry(Long.MAX_VALUE, minRating, null), true));
+    }
+    
+    // 회비 구간 건수 추정 (걸치는 히스토그램 구간의 합, 실제 건수 이상)
+    public long estimateFeeBetween(BigDecimal minFee, BigDecimal maxFee) {
+        if (minFee.compareTo(maxFee) > 0) {
+            return 0;
+        }
+        return sum(feeHistogram, feeBucket(minFee), feeBucket(maxFee));
+    }
+    
+    // 평점 하한 건수 추정
+    public long estimateRatingAtLeast(double minRating) {
+        return sum(ratingHistogram, ratingBucket(minRating), RATING_BUCKETS - 1);
+    }
+    
+    // 평점 순으로 after 다음부터 limit 개 (after 가 null 이면 처음부터)
+    public List<RankEntry> byRating(RankEntry after, int limit) {
+        return slice(after == null ? byRating : byRating.tailSet(after, false), limit);
+    }
+    
+    // 최저가 순으로 after 다음부터 limit 개
+    public List<RankEntry> byFee(RankEntry after, int limit) {
+        return slice(after == null ? byFee : byFee.tailSet(after, false), limit);
+    }
+    
+    private static List<RankEntry> slice(NavigableSet<RankEntry> view, int limit) {
+        List<RankEntry> result = new ArrayList<>(Math.min(limit, 1024));
+        for (RankEntry entry : view) {
+            if (result.size() >= limit) {
+                break;
+            }
+            result.add(entry);
+        }
+        return result;
+    }
+    
+    private void removeInternal(Long gymId) {
+        RankEntry previous = entries.remove(gymId);
+        if (previous != null) {
+            byRating.remove(previous);
+            byFee.remove(previous);
+            count(previous, -1);
+        }
+    }
+    
+    private void count(RankEntry entry, int delta) {
+        if (entry.rating != null) {
+            ratingHistogram.addAndGet(ratingBucket(entry.rating), delta);
+        }
+        if (entry.monthlyFee != null) {
+            feeHistogram.addAndGet(feeBucket(entry.monthlyFee), delta);
+        }
+    }
+    
+    private static int ratingBucket(double rating) {
+        return (int) Math.max(0, Math.min(RATING_BUCKETS - 1, Math.floor(rating * 10)));
+    }
+    
+    private static int feeBucket(BigDecimal fee) {
+        if (fee.signum() <= 0) {
+            return 0;
+        }
+        BigDecimal bucket = fee.divideToIntegralValue(FEE_BUCKET_WIDTH);
+        return bucket.compareTo(BigDecimal.valueOf(FEE_BUCKETS - 1)) >= 0 ? FEE_BUCKETS - 1 : bucket.intValue();
+    }
+    
+    private static long sum(AtomicLongArray histogram, int from, int to) {
+        long total = 0;
+        for (int bucket = from; bucket <= to; bucket++) {
+            total += histogram.get(bucket);
+        }
+        return Math.max(0, total);
+    }
+    
+    private static List<Long> ids(NavigableSet<RankEntry> view) {
+        List<Long> result = new ArrayList<>();
+        for (RankEntry entry : view) {
+            result.add(entry.gymId);
+        }
+        return result;
+    }
+    
+    @Getter
+    @AllArgsConstructor
+    public static class RankEntry {
+        private final long gymId;
+        private final Double rating;
+        private final BigDecimal monthlyFee;
+    }
+} 
\ No newline at end of file
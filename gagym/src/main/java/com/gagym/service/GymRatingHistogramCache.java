@@ -0,0 +1,46 @@
+package com.gagym.service;
+
+import com.gagym.dto.CacheStatsDto;
+import com.gagym.dto.RatingHistogramDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Function;
+
+// 헬스장별 별점 분포 캐시 (적중 시 조회 없음, 없으면 분포 테이블 한 행만 읽음)
+@Component
+public class GymRatingHistogramCache {
+    
+    private final LocalCache<Long, RatingHistogramDto> histograms;
+    
+    public GymRatingHistogramCache(@Value("${app.rating-histogram-cache.max-size:10000}") int maxSize,
+                                   @Value("${app.rating-histogram-cache.ttl-ms:600000}") long ttlMillis) {
+        this.histograms = new LocalCache<>("ratingHistograms", maxSize, ttlMillis);
+    }
+    
+    public RatingHistogramDto get(Long gymId, Function<Long, RatingHistogramDto> loader) {
+        return histograms.get(gymId, loader);
+    }
+    
+    // 리뷰 작성, 수정, 삭제 시 무효화 (커밋 이후에도 한 번 더)
+    public void evict(Long gymId) {
+        if (gymId == null) {
+            return;
+        }
+        histograms.invalidate(gymId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    histograms.invalidate(gymId);
+                }
+            });
+        }
+    }
+    
+    public CacheStatsDto stats() {
+        return histograms.stats();
+    }
+} 
\ No newline at end of file
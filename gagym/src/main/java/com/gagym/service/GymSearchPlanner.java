@@ -0,0 +1,363 @@
+package com.gagym.service;
+
+import com.gagym.dto.GymSearchDto;
+import com.gagym.entity.Gym;
+import com.gagym.reposiotry.GymRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+// 복합 검색 조건의 선택도를 추정해 가장 좁은 조건으로 후보를 만들고 나머지는 필터로 적용
+// 건수 추정은 메모리 인덱스(회비/평점은 정렬 인덱스의 히스토그램)로만 하고 DB COUNT 는 쓰지 않음
+@Component
+@RequiredArgsConstructor
+public class GymSearchPlanner {
+    
+    private static final BigDecimal MAX_FEE = new BigDecimal("1000000000000");
+    
+    private final GymRepository gymRepository;
+    private final GymSpatialIndex gymSpatialIndex;
+    private final GymFacilityIndex gymFacilityIndex;
+    private final GymTextIndex gymTextIndex;
+    private final GymRankingIndex gymRankingIndex;
+    
+    // limit: 조건이 하나도 없을 때 읽을 후보 수 (결과 페이지 크기)
+    public SearchPlan plan(GymSearchDto.Request request, int limit) {
+        // 위치 인덱스 없이는 거리순 정렬을 할 수 없으므로 ID 순 결과를 거리순인 것처럼 돌려주지 않음
+        if (hasLocation(request) && !gymSpatialIndex.isReady()) {
+            throw new RuntimeException("위치 검색을 준비 중입니다. 잠시 후 다시 시도해 주세요.");
+        }
+        List<SearchPredicate> predicates = buildPredicates(request);
+        
+        // 후보 생성이 가능한 조건 중 추정 건수가 가장 작은 것을 드라이버로 선택 (동률이면 인메모리 우선)
+        SearchPredicate driver = predicates.stream()
+                .filter(SearchPredicate::isDrivable)
+                .min(Comparator.comparingLong(SearchPredicate::getEstimate)
+                        .thenComparing(predicate -> !predicate.isInMemory()))
+                .orElse(null);
+        
+        List<GymSearchDto.PlanStep> steps = new ArrayList<>();
+        List<Long> candidates;
+        if (predicates.isEmpty()) {
+            // 조건이 없으면 ID 순 첫 페이지만
+            candidates = gymRepository.findIds(PageRequest.of(0, limit));
+            steps.add(step("ALL", "DATABASE", "DRIVER", candidates.size()));
+        } else if (driver == null) {
+            // 인덱스 적재 전이라 후보를 만들 조건이 없으면 전체를 순서대로 걸러냄
+            candidates = gymRepository.findAllIds();
+            steps.add(step("ALL", "DATABASE", "DRIVER", candidates.size()));
+        } else {
+            candidates = driver.candidates();
+            steps.add(step(driver.getName(), driver.isInMemory() ? "INDEX" : "DATABASE", "DRIVER", driver.getEstimate()));
+        }
+        
+        List<SearchPredicate> filters = new ArrayList<>();
+        List<SearchPredicate> residuals = new ArrayList<>();
+        predicates.stream()
+                .filter(predicate -> predicate != driver)
+                .sorted(Comparator.comparingLong(SearchPredicate::getEstimate))
+                .forEach(predicate -> {
+                    if (predicate.isInMemory()) {
+                        filters.add(predicate);
+                        steps.add(step(predicate.getName(), "INDEX", "FILTER", predicate.getEstimate()));
+                    } else {
+                        residuals.add(predicate);
+                        steps.add(step(predicate.getName(), "DATABASE", "RESIDUAL", predicate.getEstimate()));
+                    }
+                });
+        
+        // 인덱스로 판정 가능한 조건은 엔티티 조회 전에 적용
+        List<Long> filtered = candidates.stream()
+                .filter(gymId -> filters.stream().allMatch(filter -> filter.matches(gymId)))
+                .collect(Collectors.toCollection(ArrayList::new));
+        
+        Map<Long, Double> distances = new HashMap<>();
+        if (hasLocation(request)) {
+            for (Long gymId : filtered) {
+                Double distance = gymSpatialIndex.distanceTo(gymId, request.getLatitude(), request.getLongitude());
+                if (distance != null) {
+                    distances.put(gymId, distance);
+                }
+            }
+            filtered.sort(Comparator.comparingDouble((Long gymId) -> distances.getOrDefault(gymId, Double.MAX_VALUE))
+                    .thenComparing(Comparator.naturalOrder()));
+        } else {
+            filtered.sort(Comparator.naturalOrder());
+        }
+        
+        Predicate<Gym> residual = gym -> residuals.stream().allMatch(predicate -> predicate.matches(gym));
+        GymSearchDto.Plan explain = GymSearchDto.Plan.builder()
+                .driver(driver == null ? "ALL" : driver.getName())
+                .steps(steps)
+                .candidateCount(filtered.size())
+                .build();
+        return new SearchPlan(filtered, residual, !residuals.isEmpty(), distances, explain);
+    }
+    
+    private List<SearchPredicate> buildPredicates(GymSearchDto.Request request) {
+        List<SearchPredicate> predicates = new ArrayList<>();
+        if (hasLocation(request)) {
+            predicates.add(new LocationPredicate(request.getLatitude(), request.getLongitude(), request.getRadius()));
+        }
+        if (request.getFacilities() != null && !request.getFacilities().isEmpty()) {
+            predicates.add(new FacilityPredicate(request.getFacilities(), !Boolean.FALSE.equals(request.getMatchAllFacilities())));
+        }
+        if (request.getText() != null && !request.getText().isBlank()) {
+            predicates.add(new TextPredicate(request.getText()));
+        }
+        if (request.getMinFee() != null || request.getMaxFee() != null) {
+            predicates.add(new FeePredicate(
+                    request.getMinFee() == null ? BigDecimal.ZERO : request.getMinFee(),
+                    request.getMaxFee() == null ? MAX_FEE : request.getMaxFee()));
+        }
+        if (request.getMinRating() != null) {
+            predicates.add(new RatingPredicate(request.getMinRating()));
+        }
+        return predicates;
+    }
+    
+    private static boolean hasLocation(GymSearchDto.Request request) {
+        return request.getLatitude() != null && request.getLongitude() != null && request.getRadius() != null;
+    }
+    
+    private static GymSearchDto.PlanStep step(String predicate, String source, String role, long estimatedRows) {
+        return GymSearchDto.PlanStep.builder()
+                .predicate(predicate)
+                .source(source)
+                .role(role)
+                .estimatedRows(estimatedRows)
+                .build();
+    }
+    
+    @Getter
+    @AllArgsConstructor
+    public static class SearchPlan {
+        private final List<Long> candidateIds; // 인메모리 조건까지 통과한 후보 (정렬 완료)
+        private final Predicate<Gym> residual; // 엔티티 조회 후 적용할 조건
+        private final boolean hasResidual;
+        private final Map<Long, Double> distances;
+        private final GymSearchDto.Plan explain;
+    }
+    
+    @Getter
+    private abstract static class SearchPredicate {
+        private final String name;
+        private final boolean inMemory;
+        private final long estimate;
+        
+        SearchPredicate(String name, boolean inMemory, long estimate) {
+            this.name = name;
+            this.inMemory = inMemory;
+            this.estimate = estimate;
+        }
+        
+        boolean isDrivable() {
+            return estimate != Long.MAX_VALUE;
+        }
+        
+        abstract List<Long> candidates();
+        
+        // 인덱스로 판정 (inMemory 인 경우만 사용)
+        boolean matches(Long gymId) {
+            return true;
+        }
+        
+        // 엔티티로 판정 (inMemory 가 아닌 경우 사용)
+        abstract boolean matches(Gym gym);
+    }
+    
+    private class LocationPredicate extends SearchPredicate {
+        private final double latitude;
+        private final double longitude;
+        private final double radius;
+        
+        LocationPredicate(double latitude, double longitude, double radius) {
+            super("LOCATION", gymSpatialIndex.isReady(), gymSpatialIndex.isReady()
+                    ? gymSpatialIndex.estimateWithinRadius(latitude, longitude, radius) : Long.MAX_VALUE);
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.radius = radius;
+        }
+        
+        @Override
+        List<Long> candidates() {
+            return gymSpatialIndex.findWithinRadius(latitude, longitude, radius);
+        }
+        
+        @Override
+        boolean matches(Long gymId) {
+            Double distance = gymSpatialIndex.distanceTo(gymId, latitude, longitude);
+            return distance != null && distance <= radius;
+        }
+        
+        @Override
+        boolean matches(Gym gym) {
+            return gym.getLatitude() != null && gym.getLongitude() != null
+                    && GymSpatialIndex.distance(latitude, longitude, gym.getLatitude(), gym.getLongitude()) <= radius;
+        }
+    }
+    
+    private class FacilityPredicate extends SearchPredicate {
+        private final List<String> facilities;
+        private final boolean matchAll;
+        private final BitSet gymIds;
+        
+        FacilityPredicate(List<String> facilities, boolean matchAll) {
+            this(facilities, matchAll, !gymFacilityIndex.isReady() ? null
+                    : matchAll ? gymFacilityIndex.findAll(facilities) : gymFacilityIndex.findAny(facilities));
+        }
+        
+        private FacilityPredicate(List<String> facilities, boolean matchAll, BitSet gymIds) {
+            super("FACILITY", gymIds != null, gymIds != null ? gymIds.cardinality() : Long.MAX_VALUE);
+            this.facilities = facilities;
+            this.matchAll = matchAll;
+            this.gymIds = gymIds;
+        }
+        
+        @Override
+        List<Long> candidates() {
+            return GymFacilityIndex.idsAfter(gymIds, 0L, Integer.MAX_VALUE);
+        }
+        
+        @Override
+        boolean matches(Long gymId) {
+            return gymIds.get(Math.toIntExact(gymId));
+        }
+        
+        @Override
+        boolean matches(Gym gym) {
+            Set<String> owned = GymFacilityIndex.parse(gym.getFacilities()).stream()
+                    .map(GymFacilityIndex::normalize)
+                    .collect(Collectors.toSet());
+            return matchAll
+                    ? facilities.stream().map(GymFacilityIndex::normalize).allMatch(owned::contains)
+                    : facilities.stream().map(GymFacilityIndex::normalize).anyMatch(owned::contains);
+        }
+    }
+    
+    private class TextPredicate extends SearchPredicate {
+        private final String text;
+        private int[] nameMatches;
+        private int[] addressMatches;
+        
+        TextPredicate(String text) {
+            super("TEXT", gymTextIndex.isReady(), gymTextIndex.isReady()
+                    ? (long) gymTextIndex.estimateName(text) + gymTextIndex.estimateAddress(text) : Long.MAX_VALUE);
+            this.text = text;
+        }
+        
+        @Override
+        List<Long> candidates() {
+            load();
+            // 정렬된 두 배열의 합집합
+            List<Long> result = new ArrayList<>(nameMatches.length + addressMatches.length);
+            int i = 0;
+            int j = 0;
+            while (i < nameMatches.length || j < addressMatches.length) {
+                int next;
+                if (j >= addressMatches.length || (i < nameMatches.length && nameMatches[i] <= addressMatches[j])) {
+                    next = nameMatches[i++];
+                } else {
+                    next = addressMatches[j++];
+                }
+                if (result.isEmpty() || result.get(result.size() - 1) != next) {
+                    result.add((long) next);
+                }
+            }
+            return result;
+        }
+        
+        @Override
+        boolean matches(Long gymId) {
+            load();
+            int id = Math.toIntExact(gymId);
+            return Arrays.binarySearch(nameMatches, id) >= 0 || Arrays.binarySearch(addressMatches, id) >= 0;
+        }
+        
+        @Override
+        boolean matches(Gym gym) {
+            String query = GymTextIndex.normalize(text);
+            return GymTextIndex.normalize(gym.getName()).contains(query)
+                    || GymTextIndex.normalize(gym.getAddress()).contains(query);
+        }
+        
+        private void load() {
+            if (nameMatches == null) {
+                nameMatches = gymTextIndex.matchName(text);
+                addressMatches = gymTextIndex.matchAddress(text);
+            }
+        }
+    }
+    
+    private class FeePredicate extends SearchPredicate {
+        private final BigDecimal minFee;
+        private final BigDecimal maxFee;
+        
+        FeePredicate(BigDecimal minFee, BigDecimal maxFee) {
+            super("FEE", gymRankingIndex.isReady(), gymRankingIndex.isReady()
+                    ? gymRankingIndex.estimateFeeBetween(minFee, maxFee) : Long.MAX_VALUE);
+            this.minFee = minFee;
+            this.maxFee = maxFee;
+        }
+        
+        @Override
+        List<Long> candidates() {
+            return gymRankingIndex.idsWithFeeBetween(minFee, maxFee);
+        }
+        
+        @Override
+        boolean matches(Long gymId) {
+            GymRankingIndex.RankEntry entry = gymRankingIndex.get(gymId);
+            return entry != null && entry.getMonthlyFee() != null
+                    && entry.getMonthlyFee().compareTo(minFee) >= 0
+                    && entry.getMonthlyFee().compareTo(maxFee) <= 0;
+        }
+        
+        @Override
+        boolean matches(Gym gym) {
+            return gym.getMonthlyFee() != null
+                    && gym.getMonthlyFee().compareTo(minFee) >= 0
+                    && gym.getMonthlyFee().compareTo(maxFee) <= 0;
+        }
+    }
+    
+    private class RatingPredicate extends SearchPredicate {
+        private final double minRating;
+        
+        RatingPredicate(double minRating) {
+            super("RATING", gymRankingIndex.isReady(), gymRankingIndex.isReady()
+                    ? gymRankingIndex.estimateRatingAtLeast(minRating) : Long.MAX_VALUE);
+            this.minRating = minRating;
+        }
+        
+        @Override
+        List<Long> candidates() {
+            return gymRankingIndex.idsWithRatingAtLeast(minRating);
+        }
+        
+        @Override
+        boolean matches(Long gymId) {
+            GymRankingIndex.RankEntry entry = gymRankingIndex.get(gymId);
+            return entry != null && entry.getRating() != null && entry.getRating() >= minRating;
+        }
+        
+        @Override
+        boolean matches(Gym gym) {
+            return gym.getRating() != null && gym.getRating() >= minRating;
+        }
+    }
+} 
\ No newline at end of file
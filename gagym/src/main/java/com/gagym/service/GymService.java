@@ -1,97 +1,420 @@
 package com.gagym.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.gagym.dto.CacheStatsDto;
+import com.gagym.dto.CursorPageDto;
 import com.gagym.dto.GymDto;
+import com.gagym.dto.GymSearchDto;
 import com.gagym.entity.Gym;
 import com.gagym.reposiotry.GymRepository;
 import com.gagym.reposiotry.FavoriteRepository;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
-@Transactional
+@Transactional(readOnly = true)
 public class GymService {
     
     private final GymRepository gymRepository;
     private final FavoriteRepository favoriteRepository;
+    private final GymSpatialIndex gymSpatialIndex;
+    private final GymFacilityIndex gymFacilityIndex;
+    private final GymTextIndex gymTextIndex;
+    private final GymRankingIndex gymRankingIndex;
+    private final GymSearchPlanner gymSearchPlanner;
+    private final GymCache gymCache;
+    private final TicketCatalogCache ticketCatalogCache;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    
+    private static final int MAX_NEARBY_PAGE_SIZE = 100;
+    private static final int MAX_NEARBY_RESULTS = 1_000; // 가까운 순 검색은 앞쪽 1000건까지만 페이지로 제공
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+    private static final int SEARCH_CHUNK_SIZE = 200;
+    private static final int STREAM_FLUSH_INTERVAL = 500;
+    private static final int ID_LOOKUP_CHUNK_SIZE = 500; // 전체 목록도 IN 절은 이 크기씩 나눠 조회
+    private static final String PRICE_LIST_PREFIX = "price:"; // 가격 범위 목록 캐시 키 (price:최저:최고)
     
     // 모든 헬스장 조회
     public List<GymDto> getAllGyms(Long userId) {
-        List<Gym> gyms = gymRepository.findAll();
-        return gyms.stream()
-                .map(gym -> convertToDto(gym, userId))
-                .collect(Collectors.toList());
+        List<Long> gymIds = gymCache.getList("all", gymRepository::findAllIds);
+        return loadCachedDtos(gymIds, userId);
+    }
+    
+    // 모든 헬스장을 한 줄에 하나씩 JSON 으로 출력 (NDJSON, 커서로 읽어 메모리 사용량 일정)
+    public void streamAllGyms(Long userId, OutputStream out) throws IOException {
+        Set<Long> favoriteGymIds = loadFavoriteGymIds(userId);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+                     .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+             SequenceWriter writer = objectMapper.writerFor(GymDto.class)
+                     .withRootValueSeparator("\n")
+                     .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                     .writeValues(generator);
+             Stream<Gym> gyms = gymRepository.streamAllByOrderByIdAsc()) {
+            int written = 0;
+            Iterator<Gym> iterator = gyms.iterator();
+            while (iterator.hasNext()) {
+                Gym gym = iterator.next();
+                writer.write(convertToDto(gym, favoriteGymIds.contains(gym.getId())));
+                // 주기적으로 내보내고 영속성 컨텍스트를 비워 엔티티가 쌓이지 않게 함
+                if (++written % STREAM_FLUSH_INTERVAL == 0) {
+                    writer.flush();
+                    entityManager.clear();
+                }
+            }
+            if (written > 0) {
+                generator.writeRaw('\n');
+            }
+        }
     }
     
-    // ID로 헬스장 조회
+    // ID로 헬스장 조회 (캐시 적중 시 트랜잭션, 쿼리 없음)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public GymDto getGymById(Long gymId, Long userId) {
-        Gym gym = gymRepository.findById(gymId)
-                .orElseThrow(() -> new RuntimeException("헬스장을 찾을 수 없습니다."));
-        return convertToDto(gym, userId);
+        GymDto gym = gymCache.getGym(gymId, id -> gymRepository.findById(id)
+                .map(entity -> convertToDto(entity, false))
+                .orElse(null));
+        if (gym == null) {
+            throw new RuntimeException("헬스장을 찾을 수 없습니다.");
+        }
+        return gym.toBuilder().isFavorite(loadFavoriteGymIds(userId).contains(gymId)).build();
     }
     
     // 위치 기반 헬스장 검색
     public List<GymDto> searchGymsByLocation(Double latitude, Double longitude, Double radius, Long userId) {
+        if (gymSpatialIndex.isReady()) {
+            return loadDtosInOrder(gymSpatialIndex.findWithinRadius(latitude, longitude, radius), userId);
+        }
         List<Gym> gyms = gymRepository.findByLocationWithinRadius(latitude, longitude, radius);
-        return gyms.stream()
-                .map(gym -> convertToDto(gym, userId))
+        return convertToDtos(gyms, userId);
+    }
+    
+    // 가까운 순 헬스장 검색 (페이지 단위, 거리 포함)
+    public List<GymDto> searchNearbyGyms(Double latitude, Double longitude, Double radius,
+                                         int page, int size, Long userId) {
+        if (!isNearbyPageInRange(page, size)) {
+            throw new RuntimeException("가까운 헬스장은 " + MAX_NEARBY_RESULTS + "번째까지만 조회할 수 있습니다.");
+        }
+        int pageSize = normalizeNearbyPageSize(size);
+        int offset = page * pageSize;
+        
+        List<GymSpatialIndex.Neighbor> neighbors;
+        if (gymSpatialIndex.isReady()) {
+            neighbors = gymSpatialIndex.findNearest(latitude, longitude, radius, offset + pageSize);
+        } else {
+            neighbors = gymRepository.findByLocationWithinRadius(latitude, longitude, radius).stream()
+                    .filter(gym -> gym.getLatitude() != null && gym.getLongitude() != null)
+                    .map(gym -> new GymSpatialIndex.Neighbor(gym.getId(), GymSpatialIndex.distance(
+                            latitude, longitude, gym.getLatitude(), gym.getLongitude())))
+                    .sorted(Comparator.comparingDouble(GymSpatialIndex.Neighbor::getDistance)
+                            .thenComparing(GymSpatialIndex.Neighbor::getGymId))
+                    .limit(offset + pageSize)
+                    .collect(Collectors.toList());
+        }
+        if (neighbors.size() <= offset) {
+            return List.of();
+        }
+        
+        // 현재 페이지에 해당하는 헬스장만 조회
+        List<GymSpatialIndex.Neighbor> pageNeighbors = neighbors.subList(offset, neighbors.size());
+        List<Long> gymIds = pageNeighbors.stream()
+                .map(GymSpatialIndex.Neighbor::getGymId)
                 .collect(Collectors.toList());
+        Map<Long, Gym> gymsById = gymRepository.findAllById(gymIds).stream()
+                .collect(Collectors.toMap(Gym::getId, Function.identity()));
+        
+        Set<Long> favoriteGymIds = loadFavoriteGymIds(userId);
+        List<GymDto> result = new ArrayList<>(pageNeighbors.size());
+        for (GymSpatialIndex.Neighbor neighbor : pageNeighbors) {
+            Gym gym = gymsById.get(neighbor.getGymId());
+            if (gym != null) {
+                GymDto dto = convertToDto(gym, favoriteGymIds.contains(gym.getId()));
+                dto.setDistance(neighbor.getDistance());
+                result.add(dto);
+            }
+        }
+        return result;
+    }
+    
+    // 요청한 페이지가 조회 가능한 깊이 안인지 (page * size 는 long 으로 계산해 넘침 방지)
+    public boolean isNearbyPageInRange(int page, int size) {
+        int pageSize = normalizeNearbyPageSize(size);
+        return page >= 0 && ((long) page + 1) * pageSize <= MAX_NEARBY_RESULTS;
     }
     
     // 가격 범위로 헬스장 검색
     public List<GymDto> searchGymsByPrice(BigDecimal minPrice, BigDecimal maxPrice, Long userId) {
-        List<Gym> gyms = gymRepository.findByMonthlyFeeBetween(minPrice, maxPrice);
-        return gyms.stream()
-                .map(gym -> convertToDto(gym, userId))
-                .collect(Collectors.toList());
+        String key = PRICE_LIST_PREFIX + minPrice.toPlainString() + ":" + maxPrice.toPlainString();
+        List<Long> gymIds = gymCache.getList(key, () -> gymRepository.findIdsByMonthlyFeeBetween(minPrice, maxPrice));
+        return loadCachedDtos(gymIds, userId);
     }
     
     // 이름으로 헬스장 검색
     public List<GymDto> searchGymsByName(String name, Long userId) {
+        if (gymTextIndex.isReady()) {
+            return loadDtosInOrder(gymTextIndex.searchName(name, Integer.MAX_VALUE), userId);
+        }
         List<Gym> gyms = gymRepository.findByNameContainingIgnoreCase(name);
-        return gyms.stream()
-                .map(gym -> convertToDto(gym, userId))
-                .collect(Collectors.toList());
+        return convertToDtos(gyms, userId);
     }
     
     // 주소로 헬스장 검색
     public List<GymDto> searchGymsByAddress(String address, Long userId) {
+        if (gymTextIndex.isReady()) {
+            return loadDtosInOrder(gymTextIndex.searchAddress(address, Integer.MAX_VALUE), userId);
+        }
         List<Gym> gyms = gymRepository.findByAddressContainingIgnoreCase(address);
-        return gyms.stream()
-                .map(gym -> convertToDto(gym, userId))
-                .collect(Collectors.toList());
+        return convertToDtos(gyms, userId);
     }
     
     // 시설로 헬스장 검색
     public List<GymDto> searchGymsByFacility(String facility, Long userId) {
-        List<Gym> gyms = gymRepository.findByFacilitiesContaining(facility);
-        return gyms.stream()
-                .map(gym -> convertToDto(gym, userId))
-                .collect(Collectors.toList());
+        if (!gymFacilityIndex.isReady()) {
+            List<Gym> gyms = gymRepository.findByFacilitiesContaining(facility);
+            return convertToDtos(gyms, userId);
+        }
+        return searchGymsByFacilities(List.of(facility), true, userId);
+    }
+    
+    // 여러 시설로 헬스장 검색 (matchAll: 모두 갖춤 / 하나 이상 갖춤)
+    public List<GymDto> searchGymsByFacilities(List<String> facilities, boolean matchAll, Long userId) {
+        if (!gymFacilityIndex.isReady()) {
+            // 인덱스 적재 전에는 시설별 조회 결과를 파싱된 시설 목록으로 걸러냄
+            Set<String> wanted = facilities.stream().map(GymFacilityIndex::normalize).collect(Collectors.toSet());
+            List<Gym> gyms = facilities.stream()
+                    .flatMap(facility -> gymRepository.findByFacilitiesContaining(facility).stream())
+                    .collect(Collectors.toMap(Gym::getId, Function.identity(), (a, b) -> a, TreeMap::new))
+                    .values().stream()
+                    .filter(gym -> {
+                        Set<String> owned = GymFacilityIndex.parse(gym.getFacilities()).stream()
+                                .map(GymFacilityIndex::normalize).collect(Collectors.toSet());
+                        return matchAll ? owned.containsAll(wanted) : wanted.stream().anyMatch(owned::contains);
+                    })
+                    .collect(Collectors.toList());
+            return convertToDtos(gyms, userId);
+        }
+        BitSet gymIds = matchAll ? gymFacilityIndex.findAll(facilities) : gymFacilityIndex.findAny(facilities);
+        return loadDtosInOrder(GymFacilityIndex.idsAfter(gymIds, 0L, Integer.MAX_VALUE), userId);
     }
     
     // 평점 순으로 헬스장 조회
     public List<GymDto> getGymsByRating(Long userId) {
-        List<Gym> gyms = gymRepository.findAllByOrderByRatingDesc(null).getContent();
-        return gyms.stream()
-                .map(gym -> convertToDto(gym, userId))
-                .collect(Collectors.toList());
+        if (gymRankingIndex.isReady()) {
+            return loadCachedDtos(rankedIds(gymRankingIndex.byRating(null, Integer.MAX_VALUE)), userId);
+        }
+        List<Long> gymIds = gymCache.getList("sort:rating", () ->
+                gymRepository.findAllByOrderByRatingDesc(Pageable.unpaged()).map(Gym::getId).getContent());
+        return loadCachedDtos(gymIds, userId);
     }
     
     // 최저가 순으로 헬스장 조회
     public List<GymDto> getGymsByPrice(Long userId) {
-        List<Gym> gyms = gymRepository.findAllByOrderByMonthlyFeeAsc(null).getContent();
-        return gyms.stream()
-                .map(gym -> convertToDto(gym, userId))
-                .collect(Collectors.toList());
+        if (gymRankingIndex.isReady()) {
+            return loadCachedDtos(rankedIds(gymRankingIndex.byFee(null, Integer.MAX_VALUE)), userId);
+        }
+        List<Long> gymIds = gymCache.getList("sort:price", () ->
+                gymRepository.findAllByOrderByMonthlyFeeAsc(Pageable.unpaged()).map(Gym::getId).getContent());
+        return loadCachedDtos(gymIds, userId);
+    }
+    
+    // 캐시 통계
+    public List<CacheStatsDto> getCacheStats() {
+        return gymCache.stats();
+    }
+    
+    // 복합 조건 검색 (위치, 회비, 시설, 평점, 이름/주소)
+    public GymSearchDto.Response searchGyms(GymSearchDto.Request request) {
+        long startedAt = System.nanoTime();
+        int size = normalizeCursorPageSize(request.getSize() == null ? 20 : request.getSize());
+        GymSearchPlanner.SearchPlan plan = gymSearchPlanner.plan(request, size);
+        
+        // 후보를 순서대로 나눠 조회하면서 DB 조건을 적용, size 건이 모이면 중단
+        List<Long> candidateIds = plan.getCandidateIds();
+        int chunkSize = plan.isHasResidual() ? SEARCH_CHUNK_SIZE : size;
+        List<Gym> matched = new ArrayList<>(size);
+        for (int from = 0; from < candidateIds.size() && matched.size() < size; from += chunkSize) {
+            List<Long> chunk = candidateIds.subList(from, Math.min(from + chunkSize, candidateIds.size()));
+            for (Gym gym : findAllByIdInOrder(chunk)) {
+                if (matched.size() < size && plan.getResidual().test(gym)) {
+                    matched.add(gym);
+                }
+            }
+        }
+        
+        List<GymDto> gyms = convertToDtos(matched, request.getUserId());
+        gyms.forEach(dto -> dto.setDistance(plan.getDistances().get(dto.getId())));
+        
+        GymSearchDto.Plan explain = null;
+        if (Boolean.TRUE.equals(request.getExplain())) {
+            explain = plan.getExplain();
+            explain.setElapsedMicros((System.nanoTime() - startedAt) / 1000);
+        }
+        return GymSearchDto.Response.builder()
+                .gyms(gyms)
+                .plan(explain)
+                .build();
+    }
+    
+    // 모든 헬스장 조회 (커서 페이지)
+    public CursorPageDto<GymDto> getGymsPage(String cursor, int size, Long userId) {
+        return idCursorPage(cursor, size, userId, gymRepository::findByIdGreaterThanOrderByIdAsc);
+    }
+    
+    // 이름으로 헬스장 검색 (커서 페이지)
+    public CursorPageDto<GymDto> searchGymsByNamePage(String name, String cursor, int size, Long userId) {
+        if (gymTextIndex.isReady()) {
+            int[] gymIds = gymTextIndex.matchName(name);
+            return idCursorPage(cursor, size, userId, (afterId, pageable) ->
+                    findAllByIdInOrder(idsAfter(gymIds, afterId, pageable.getPageSize())));
+        }
+        return idCursorPage(cursor, size, userId, (afterId, pageable) ->
+                gymRepository.findByNameContainingIgnoreCaseAndIdGreaterThanOrderByIdAsc(name, afterId, pageable));
+    }
+    
+    // 주소로 헬스장 검색 (커서 페이지)
+    public CursorPageDto<GymDto> searchGymsByAddressPage(String address, String cursor, int size, Long userId) {
+        if (gymTextIndex.isReady()) {
+            int[] gymIds = gymTextIndex.matchAddress(address);
+            return idCursorPage(cursor, size, userId, (afterId, pageable) ->
+                    findAllByIdInOrder(idsAfter(gymIds, afterId, pageable.getPageSize())));
+        }
+        return idCursorPage(cursor, size, userId, (afterId, pageable) ->
+                gymRepository.findByAddressContainingIgnoreCaseAndIdGreaterThanOrderByIdAsc(address, afterId, pageable));
+    }
+    
+    // 가격 범위로 헬스장 검색 (커서 페이지)
+    public CursorPageDto<GymDto> searchGymsByPricePage(BigDecimal minPrice, BigDecimal maxPrice,
+                                                       String cursor, int size, Long userId) {
+        return idCursorPage(cursor, size, userId, (afterId, pageable) ->
+                gymRepository.findByMonthlyFeeBetweenAndIdGreaterThanOrderByIdAsc(minPrice, maxPrice, afterId, pageable));
+    }
+    
+    // 시설로 헬스장 검색 (커서 페이지)
+    public CursorPageDto<GymDto> searchGymsByFacilityPage(String facility, String cursor, int size, Long userId) {
+        if (!gymFacilityIndex.isReady()) {
+            return idCursorPage(cursor, size, userId, (afterId, pageable) ->
+                    gymRepository.findByFacilitiesContainingAfter(facility, afterId, pageable));
+        }
+        BitSet gymIds = gymFacilityIndex.findAll(List.of(facility));
+        return idCursorPage(cursor, size, userId, (afterId, pageable) ->
+                findAllByIdInOrder(GymFacilityIndex.idsAfter(gymIds, afterId, pageable.getPageSize())));
+    }
+    
+    // 평점 순으로 헬스장 조회 (커서 페이지, (rating, id) 기준)
+    public CursorPageDto<GymDto> getGymsByRatingPage(String cursor, int size, Long userId) {
+        int pageSize = normalizeCursorPageSize(size);
+        if (gymRankingIndex.isReady()) {
+            GymRankingIndex.RankEntry after = null;
+            if (cursor != null && "RN".equals(CursorCodec.decode(cursor)[0])) {
+                after = new GymRankingIndex.RankEntry(CursorCodec.toLong(CursorCodec.decode(cursor, "RN", 1)[0]), null, null);
+            } else if (cursor != null) {
+                String[] values = CursorCodec.decode(cursor, "R", 2);
+                after = new GymRankingIndex.RankEntry(CursorCodec.toLong(values[1]), CursorCodec.toDouble(values[0]), null);
+            }
+            return toRankingPage(gymRankingIndex.byRating(after, pageSize + 1), pageSize, userId,
+                    entry -> entry.getRating() == null
+                            ? CursorCodec.encode("RN", entry.getGymId())
+                            : CursorCodec.encode("R", entry.getRating(), entry.getGymId()));
+        }
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        
+        List<Gym> gyms;
+        boolean inNullSection = false;
+        if (cursor == null) {
+            gyms = gymRepository.findByRatingIsNotNullOrderByRatingDescIdAsc(limit);
+        } else if ("RN".equals(CursorCodec.decode(cursor)[0])) {
+            Long afterId = CursorCodec.toLong(CursorCodec.decode(cursor, "RN", 1)[0]);
+            gyms = gymRepository.findByRatingIsNullAndIdGreaterThanOrderByIdAsc(afterId, limit);
+            inNullSection = true;
+        } else {
+            String[] values = CursorCodec.decode(cursor, "R", 2);
+            gyms = gymRepository.findByRatingAfter(CursorCodec.toDouble(values[0]), CursorCodec.toLong(values[1]), limit);
+        }
+        // 평점이 있는 헬스장을 모두 넘기면 평점 없는 헬스장으로 이어서 채움
+        if (!inNullSection && gyms.size() <= pageSize) {
+            gyms = new ArrayList<>(gyms);
+            gyms.addAll(gymRepository.findByRatingIsNullAndIdGreaterThanOrderByIdAsc(
+                    0L, PageRequest.of(0, pageSize + 1 - gyms.size())));
+        }
+        return toCursorPage(gyms, pageSize, userId, gym -> gym.getRating() == null
+                ? CursorCodec.encode("RN", gym.getId())
+                : CursorCodec.encode("R", gym.getRating(), gym.getId()));
+    }
+    
+    // 최저가 순으로 헬스장 조회 (커서 페이지, (monthlyFee, id) 기준)
+    public CursorPageDto<GymDto> getGymsByPricePage(String cursor, int size, Long userId) {
+        int pageSize = normalizeCursorPageSize(size);
+        if (gymRankingIndex.isReady()) {
+            GymRankingIndex.RankEntry after = null;
+            if (cursor != null && "FN".equals(CursorCodec.decode(cursor)[0])) {
+                after = new GymRankingIndex.RankEntry(CursorCodec.toLong(CursorCodec.decode(cursor, "FN", 1)[0]), null, null);
+            } else if (cursor != null) {
+                String[] values = CursorCodec.decode(cursor, "F", 2);
+                after = new GymRankingIndex.RankEntry(CursorCodec.toLong(values[1]), null, CursorCodec.toDecimal(values[0]));
+            }
+            return toRankingPage(gymRankingIndex.byFee(after, pageSize + 1), pageSize, userId,
+                    entry -> entry.getMonthlyFee() == null
+                            ? CursorCodec.encode("FN", entry.getGymId())
+                            : CursorCodec.encode("F", entry.getMonthlyFee().toPlainString(), entry.getGymId()));
+        }
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        
+        List<Gym> gyms;
+        boolean inNullSection = false;
+        if (cursor == null) {
+            gyms = gymRepository.findByMonthlyFeeIsNotNullOrderByMonthlyFeeAscIdAsc(limit);
+        } else if ("FN".equals(CursorCodec.decode(cursor)[0])) {
+            Long afterId = CursorCodec.toLong(CursorCodec.decode(cursor, "FN", 1)[0]);
+            gyms = gymRepository.findByMonthlyFeeIsNullAndIdGreaterThanOrderByIdAsc(afterId, limit);
+            inNullSection = true;
+        } else {
+            String[] values = CursorCodec.decode(cursor, "F", 2);
+            gyms = gymRepository.findByMonthlyFeeAfter(CursorCodec.toDecimal(values[0]), CursorCodec.toLong(values[1]), limit);
+        }
+        // 회비가 있는 헬스장을 모두 넘기면 회비 없는 헬스장으로 이어서 채움
+        if (!inNullSection && gyms.size() <= pageSize) {
+            gyms = new ArrayList<>(gyms);
+            gyms.addAll(gymRepository.findByMonthlyFeeIsNullAndIdGreaterThanOrderByIdAsc(
+                    0L, PageRequest.of(0, pageSize + 1 - gyms.size())));
+        }
+        return toCursorPage(gyms, pageSize, userId, gym -> gym.getMonthlyFee() == null
+                ? CursorCodec.encode("FN", gym.getId())
+                : CursorCodec.encode("F", gym.getMonthlyFee().toPlainString(), gym.getId()));
     }
     
     // 헬스장 등록
+    @Transactional
     public GymDto createGym(GymDto gymDto) {
         Gym gym = Gym.builder()
                 .name(gymDto.getName())
@@ -103,16 +426,27 @@ public class GymService {
                 .longitude(gymDto.getLongitude())
                 .monthlyFee(gymDto.getMonthlyFee())
                 .dailyFee(gymDto.getDailyFee())
+                .dailyPassCapacity(gymDto.getDailyPassCapacity())
                 .ptPrice(gymDto.getPtPrice())
                 .facilities(String.join(",", gymDto.getFacilities()))
                 .imageUrl(gymDto.getImageUrl())
                 .build();
         
         Gym savedGym = gymRepository.save(gym);
-        return convertToDto(savedGym, null);
+        afterCommit(() -> {
+            gymSpatialIndex.put(savedGym.getId(), savedGym.getLatitude(), savedGym.getLongitude());
+            gymFacilityIndex.put(savedGym.getId(), savedGym.getFacilities());
+            gymTextIndex.put(savedGym.getId(), savedGym.getName(), savedGym.getAddress());
+            gymRankingIndex.put(savedGym.getId(), savedGym.getRating(), savedGym.getMonthlyFee());
+        });
+        // 새 헬스장은 가격 범위가 맞는 목록과 전체, 정렬 목록에 들어감
+        gymCache.evict(savedGym.getId(), priceListsCovering(savedGym.getMonthlyFee())
+                .or(key -> !key.startsWith(PRICE_LIST_PREFIX)));
+        return convertToDto(savedGym, false);
     }
     
     // 헬스장 수정
+    @Transactional
     public GymDto updateGym(Long gymId, GymDto gymDto) {
         Gym gym = gymRepository.findById(gymId)
                 .orElseThrow(() -> new RuntimeException("헬스장을 찾을 수 없습니다."));
@@ -126,26 +460,200 @@ public class GymService {
         gym.setLongitude(gymDto.getLongitude());
         gym.setMonthlyFee(gymDto.getMonthlyFee());
         gym.setDailyFee(gymDto.getDailyFee());
+        gym.setDailyPassCapacity(gymDto.getDailyPassCapacity());
         gym.setPtPrice(gymDto.getPtPrice());
         gym.setFacilities(String.join(",", gymDto.getFacilities()));
         gym.setImageUrl(gymDto.getImageUrl());
         
         Gym updatedGym = gymRepository.save(gym);
-        return convertToDto(updatedGym, null);
+        afterCommit(() -> {
+            gymSpatialIndex.put(updatedGym.getId(), updatedGym.getLatitude(), updatedGym.getLongitude());
+            gymFacilityIndex.put(updatedGym.getId(), updatedGym.getFacilities());
+            gymTextIndex.put(updatedGym.getId(), updatedGym.getName(), updatedGym.getAddress());
+            gymRankingIndex.updateFee(updatedGym.getId(), updatedGym.getMonthlyFee());
+        });
+        gymCache.evict(updatedGym.getId(), priceListsCovering(updatedGym.getMonthlyFee()));
+        ticketCatalogCache.evict(updatedGym.getId()); // 티켓 목록에 헬스장 이름 포함
+        return convertToDto(updatedGym, false);
     }
     
     // 헬스장 삭제
+    @Transactional
     public void deleteGym(Long gymId) {
         gymRepository.deleteById(gymId);
+        gymCache.evict(gymId);
+        ticketCatalogCache.evict(gymId);
+        afterCommit(() -> {
+            gymSpatialIndex.remove(gymId);
+            gymFacilityIndex.remove(gymId);
+            gymTextIndex.remove(gymId);
+            gymRankingIndex.remove(gymId);
+        });
     }
     
-    // DTO 변환
-    private GymDto convertToDto(Gym gym, Long userId) {
-        Boolean isFavorite = false;
-        if (userId != null) {
-            isFavorite = favoriteRepository.existsByUserIdAndGymId(userId, gym.getId());
+    // 메모리 인덱스는 커밋된 변경만 반영 (롤백 시 DB 에 없는 행이나 값을 가리키지 않도록)
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+    
+    // id 기준 키셋 페이지 조회
+    private CursorPageDto<GymDto> idCursorPage(String cursor, int size, Long userId,
+                                               BiFunction<Long, Pageable, List<Gym>> query) {
+        int pageSize = normalizeCursorPageSize(size);
+        Long afterId = cursor == null ? 0L : CursorCodec.toLong(CursorCodec.decode(cursor, "I", 1)[0]);
+        List<Gym> gyms = query.apply(afterId, PageRequest.of(0, pageSize + 1));
+        return toCursorPage(gyms, pageSize, userId, gym -> CursorCodec.encode("I", gym.getId()));
+    }
+    
+    // pageSize + 1 건을 조회해 다음 페이지 존재 여부를 판단
+    private CursorPageDto<GymDto> toCursorPage(List<Gym> gyms, int pageSize, Long userId,
+                                               Function<Gym, String> cursorOf) {
+        boolean hasNext = gyms.size() > pageSize;
+        List<Gym> content = hasNext ? gyms.subList(0, pageSize) : gyms;
+        return CursorPageDto.<GymDto>builder()
+                .content(convertToDtos(content, userId))
+                .nextCursor(hasNext ? cursorOf.apply(content.get(content.size() - 1)) : null)
+                .hasNext(hasNext)
+                .build();
+    }
+    
+    // 정렬 인덱스에서 꺼낸 pageSize + 1 건으로 페이지 구성 (DTO 는 캐시 우선)
+    private CursorPageDto<GymDto> toRankingPage(List<GymRankingIndex.RankEntry> entries, int pageSize, Long userId,
+                                                Function<GymRankingIndex.RankEntry, String> cursorOf) {
+        boolean hasNext = entries.size() > pageSize;
+        List<GymRankingIndex.RankEntry> content = hasNext ? entries.subList(0, pageSize) : entries;
+        return CursorPageDto.<GymDto>builder()
+                .content(loadCachedDtos(rankedIds(content), userId))
+                .nextCursor(hasNext ? cursorOf.apply(content.get(content.size() - 1)) : null)
+                .hasNext(hasNext)
+                .build();
+    }
+    
+    private static List<Long> rankedIds(List<GymRankingIndex.RankEntry> entries) {
+        return entries.stream()
+                .map(GymRankingIndex.RankEntry::getGymId)
+                .collect(Collectors.toList());
+    }
+    
+    private static int normalizeNearbyPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_NEARBY_PAGE_SIZE));
+    }
+    
+    private int normalizeCursorPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+    }
+    
+    // 오름차순 ID 배열에서 afterId 다음부터 limit 개 추출
+    private static List<Long> idsAfter(int[] sortedIds, long afterId, int limit) {
+        int position = Arrays.binarySearch(sortedIds, (int) Math.min(Integer.MAX_VALUE, afterId));
+        int from = position >= 0 ? position + 1 : -position - 1;
+        List<Long> result = new ArrayList<>(Math.min(limit, sortedIds.length));
+        for (int i = from; i < sortedIds.length && result.size() < limit; i++) {
+            result.add((long) sortedIds[i]);
+        }
+        return result;
+    }
+    
+    // ID 목록 순서를 유지한 채 헬스장 조회
+    private List<Gym> findAllByIdInOrder(List<Long> gymIds) {
+        if (gymIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Gym> gymsById = gymRepository.findAllById(gymIds).stream()
+                .collect(Collectors.toMap(Gym::getId, Function.identity()));
+        return gymIds.stream()
+                .map(gymsById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+    
+    // ID 순서대로 DTO 변환 (청크 단위로 조회하고 변환한 엔티티는 영속성 컨텍스트에서 비움)
+    private List<GymDto> loadDtosInOrder(List<Long> gymIds, Long userId) {
+        if (gymIds.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> favoriteGymIds = loadFavoriteGymIds(userId);
+        List<GymDto> result = new ArrayList<>(gymIds.size());
+        for (int from = 0; from < gymIds.size(); from += ID_LOOKUP_CHUNK_SIZE) {
+            List<Long> chunk = gymIds.subList(from, Math.min(from + ID_LOOKUP_CHUNK_SIZE, gymIds.size()));
+            for (Gym gym : findAllByIdInOrder(chunk)) {
+                result.add(convertToDto(gym, favoriteGymIds.contains(gym.getId())));
+            }
+            entityManager.clear();
+        }
+        return result;
+    }
+    
+    // 사용자의 즐겨찾기 헬스장 ID (사용자별 캐시, 없을 때만 한 번 조회)
+    private Set<Long> loadFavoriteGymIds(Long userId) {
+        if (userId == null) {
+            return Set.of();
+        }
+        return gymCache.getFavoriteGymIds(userId, favoriteRepository::findGymIdsByUserId);
+    }
+    
+    // 월 회비가 가격 범위 안에 드는 목록 캐시 키
+    private static Predicate<String> priceListsCovering(BigDecimal monthlyFee) {
+        return key -> {
+            if (monthlyFee == null || !key.startsWith(PRICE_LIST_PREFIX)) {
+                return false;
+            }
+            String[] range = key.substring(PRICE_LIST_PREFIX.length()).split(":");
+            return new BigDecimal(range[0]).compareTo(monthlyFee) <= 0
+                    && monthlyFee.compareTo(new BigDecimal(range[1])) <= 0;
+        };
+    }
+    
+    // 캐시에서 헬스장 DTO 를 모으고 빠진 것만 청크 단위로 조회
+    private List<GymDto> loadCachedDtos(List<Long> gymIds, Long userId) {
+        if (gymIds.isEmpty()) {
+            return List.of();
+        }
+        long loadGeneration = gymCache.generation();
+        Map<Long, GymDto> gymsById = new HashMap<>(gymCache.getGyms(gymIds));
+        List<Long> missingIds = gymIds.stream()
+                .filter(gymId -> !gymsById.containsKey(gymId))
+                .collect(Collectors.toList());
+        for (int from = 0; from < missingIds.size(); from += ID_LOOKUP_CHUNK_SIZE) {
+            List<Long> chunk = missingIds.subList(from, Math.min(from + ID_LOOKUP_CHUNK_SIZE, missingIds.size()));
+            for (Gym gym : gymRepository.findAllById(chunk)) {
+                GymDto dto = convertToDto(gym, false);
+                gymCache.putGym(dto, loadGeneration);
+                gymsById.put(gym.getId(), dto);
+            }
+            entityManager.clear();
         }
         
+        Set<Long> favoriteGymIds = loadFavoriteGymIds(userId);
+        return gymIds.stream()
+                .map(gymsById::get)
+                .filter(Objects::nonNull)
+                .map(gym -> gym.toBuilder().isFavorite(favoriteGymIds.contains(gym.getId())).build())
+                .collect(Collectors.toList());
+    }
+    
+    // 목록 DTO 변환
+    private List<GymDto> convertToDtos(List<Gym> gyms, Long userId) {
+        if (gyms.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> favoriteGymIds = loadFavoriteGymIds(userId);
+        return gyms.stream()
+                .map(gym -> convertToDto(gym, favoriteGymIds.contains(gym.getId())))
+                .collect(Collectors.toList());
+    }
+    
+    // DTO 변환
+    private GymDto convertToDto(Gym gym, boolean isFavorite) {
         return GymDto.builder()
                 .id(gym.getId())
                 .name(gym.getName())
@@ -157,8 +665,9 @@ public class GymService {
                 .longitude(gym.getLongitude())
                 .monthlyFee(gym.getMonthlyFee())
                 .dailyFee(gym.getDailyFee())
+                .dailyPassCapacity(gym.getDailyPassCapacity())
                 .ptPrice(gym.getPtPrice())
-                .facilities(List.of(gym.getFacilities().split(",")))
+                .facilities(gymFacilityIndex.facilitiesOf(gym.getId(), gym.getFacilities()))
                 .imageUrl(gym.getImageUrl())
                 .rating(gym.getRating())
                 .reviewCount(gym.getReviewCount())
@@ -0,0 +1,228 @@
+package com.gagym.service;
+
+import com.gagym.reposiotry.GymRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class GymSpatialIndex {
+    
+    private static final double EARTH_RADIUS_KM = 6371.0;
+    private static final double KM_PER_DEGREE = EARTH_RADIUS_KM * Math.PI / 180.0;
+    private static final double CELL_SIZE_DEGREES = 0.01; // 위도 기준 약 1.1km
+    private static final long MAX_SCANNED_CELLS = 40_000; // 이보다 넓은 반경은 전체 좌표를 순회
+    
+    private final GymRepository gymRepository;
+    
+    // 격자 셀 키 -> 헬스장 ID 목록
+    private final Map<Long, Set<Long>> cells = new ConcurrentHashMap<>();
+    // 헬스장 ID -> {위도, 경도}
+    private final Map<Long, double[]> locations = new ConcurrentHashMap<>();
+    
+    private static final Comparator<Neighbor> NEAREST_FIRST = Comparator
+            .comparingDouble(Neighbor::getDistance)
+            .thenComparing(Neighbor::getGymId);
+    
+    private volatile boolean ready = false;
+    
+    // 애플리케이션 시작 시 전체 좌표 적재
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        cells.clear();
+        locations.clear();
+        List<Object[]> rows = gymRepository.findAllLocations();
+        for (Object[] row : rows) {
+            put((Long) row[0], (Double) row[1], (Double) row[2]);
+        }
+        ready = true;
+        log.info("헬스장 위치 인덱스 적재 완료: {}건", locations.size());
+    }
+    
+    public boolean isReady() {
+        return ready;
+    }
+    
+    public int size() {
+        return locations.size();
+    }
+    
+    // 헬스장 위치 등록/갱신
+    public synchronized void put(Long gymId, Double latitude, Double longitude) {
+        removeInternal(gymId);
+        if (gymId == null || latitude == null || longitude == null) {
+            return;
+        }
+        locations.put(gymId, new double[]{latitude, longitude});
+        cells.computeIfAbsent(cellKey(cellOf(latitude), cellOf(longitude)), key -> ConcurrentHashMap.newKeySet())
+                .add(gymId);
+    }
+    
+    // 헬스장 위치 삭제
+    public synchronized void remove(Long gymId) {
+        removeInternal(gymId);
+    }
+    
+    // 반경(km) 내 헬스장 ID 조회
+    public List<Long> findWithinRadius(double latitude, double longitude, double radius) {
+        List<Long> result = new ArrayList<>();
+        forEachCandidate(latitude, longitude, radius, (gymId, location) -> {
+            if (distance(latitude, longitude, location[0], location[1]) <= radius) {
+                result.add(gymId);
+            }
+        });
+        return result;
+    }
+    
+    // 반경(km) 내 가까운 순 상위 limit개 조회 (거리 포함)
+    public List<Neighbor> findNearest(double latitude, double longitude, double radius, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        // 가장 먼 후보가 머리에 오는 크기 limit의 힙 (후보 수보다 크게 잡지 않음)
+        int capacity = Math.max(1, Math.min(limit, locations.size()));
+        PriorityQueue<Neighbor> heap = new PriorityQueue<>(capacity, NEAREST_FIRST.reversed());
+        forEachCandidate(latitude, longitude, radius, (gymId, location) -> {
+            double distance = distance(latitude, longitude, location[0], location[1]);
+            if (distance > radius) {
+                return;
+            }
+            Neighbor candidate = new Neighbor(gymId, distance);
+            if (heap.size() < limit) {
+                heap.add(candidate);
+            } else if (NEAREST_FIRST.compare(candidate, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(candidate);
+            }
+        });
+        List<Neighbor> result = new ArrayList<>(heap);
+        result.sort(NEAREST_FIRST);
+        return result;
+    }
+    
+    // 반경 내 결과 수 추정 (바운딩 박스에 걸치는 셀 크기의 합)
+    public int estimateWithinRadius(double latitude, double longitude, double radius) {
+        long[] range = cellRange(latitude, longitude, radius);
+        if (range == null) {
+            return locations.size();
+        }
+        int estimate = 0;
+        for (long row = range[0]; row <= range[1]; row++) {
+            for (long col = range[2]; col <= range[3]; col++) {
+                Set<Long> cell = cells.get(cellKey(row, col));
+                if (cell != null) {
+                    estimate += cell.size();
+                }
+            }
+        }
+        return estimate;
+    }
+    
+    // 특정 헬스장까지의 거리(km), 좌표가 없으면 null
+    public Double distanceTo(Long gymId, double latitude, double longitude) {
+        double[] location = locations.get(gymId);
+        return location == null ? null : distance(latitude, longitude, location[0], location[1]);
+    }
+    
+    // 바운딩 박스에 걸치는 셀의 후보만 순회
+    void forEachCandidate(double latitude, double longitude, double radius, CandidateConsumer consumer) {
+        long[] range = cellRange(latitude, longitude, radius);
+        if (range == null) {
+            locations.forEach(consumer::accept);
+            return;
+        }
+        
+        for (long row = range[0]; row <= range[1]; row++) {
+            for (long col = range[2]; col <= range[3]; col++) {
+                Set<Long> cell = cells.get(cellKey(row, col));
+                if (cell == null) {
+                    continue;
+                }
+                for (Long gymId : cell) {
+                    double[] location = locations.get(gymId);
+                    if (location != null) {
+                        consumer.accept(gymId, location);
+                    }
+                }
+            }
+        }
+    }
+    
+    // 바운딩 박스의 셀 범위 {minRow, maxRow, minCol, maxCol}, 셀이 너무 많으면 null
+    private static long[] cellRange(double latitude, double longitude, double radius) {
+        double latDelta = radius / KM_PER_DEGREE;
+        double cosLat = Math.cos(Math.toRadians(latitude));
+        double lngDelta = cosLat < 1e-6 ? 180.0 : Math.min(180.0, latDelta / cosLat);
+        
+        long minRow = cellOf(latitude - latDelta);
+        long maxRow = cellOf(latitude + latDelta);
+        long minCol = cellOf(longitude - lngDelta);
+        long maxCol = cellOf(longitude + lngDelta);
+        
+        if ((maxRow - minRow + 1) * (maxCol - minCol + 1) > MAX_SCANNED_CELLS) {
+            return null;
+        }
+        return new long[]{minRow, maxRow, minCol, maxCol};
+    }
+    
+    // 두 좌표 사이의 거리(km, 하버사인 공식)
+    public static double distance(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+    
+    private void removeInternal(Long gymId) {
+        if (gymId == null) {
+            return;
+        }
+        double[] previous = locations.remove(gymId);
+        if (previous != null) {
+            long key = cellKey(cellOf(previous[0]), cellOf(previous[1]));
+            Set<Long> cell = cells.get(key);
+            if (cell != null) {
+                cell.remove(gymId);
+                if (cell.isEmpty()) {
+                    cells.remove(key);
+                }
+            }
+        }
+    }
+    
+    private static long cellOf(double degree) {
+        return (long) Math.floor(degree / CELL_SIZE_DEGREES);
+    }
+    
+    private static long cellKey(long row, long col) {
+        return (row << 32) | (col & 0xffffffffL);
+    }
+    
+    @Getter
+    @AllArgsConstructor
+    public static class Neighbor {
+        private final Long gymId;
+        private final double distance; // km
+    }
+    
+    @FunctionalInterface
+    interface CandidateConsumer {
+        void accept(Long gymId, double[] location);
+    }
+} 
\ No newline at end of file
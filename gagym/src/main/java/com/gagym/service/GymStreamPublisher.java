@@ -0,0 +1,100 @@
+package com.gagym.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// 헬스장 NDJSON 스트림을 전용 스레드에서 내보냄 (이 응답에만 긴 시간 제한, 동시 스트림 수 제한)
+@Slf4j
+@Component
+public class GymStreamPublisher {
+    
+    public static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    
+    private final GymService gymService;
+    private final long timeoutMillis;
+    private final ThreadPoolExecutor executor;
+    
+    public GymStreamPublisher(GymService gymService,
+                              @Value("${app.gym-stream.timeout-ms:600000}") long timeoutMillis,
+                              @Value("${app.gym-stream.max-concurrent:4}") int maxConcurrent) {
+        this.gymService = gymService;
+        this.timeoutMillis = timeoutMillis;
+        // 스트림마다 DB 커넥션을 오래 잡으므로 대기열 없이 거절
+        this.executor = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 0L, TimeUnit.MILLISECONDS,
+                new SynchronousQueue<>(), new CustomizableThreadFactory("gym-stream-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+    
+    // 모든 헬스장 스트리밍 시작 (GymService 가 flush 할 때마다 모인 줄을 한 번에 전송)
+    public ResponseBodyEmitter streamAllGyms(Long userId) {
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(timeoutMillis);
+        try {
+            executor.execute(() -> {
+                try (OutputStream out = new EmitterOutputStream(emitter)) {
+                    gymService.streamAllGyms(userId, out);
+                } catch (Exception ex) {
+                    log.debug("헬스장 스트림 중단: {}", ex.getMessage());
+                    emitter.completeWithError(ex);
+                    return;
+                }
+                emitter.complete();
+            });
+        } catch (RejectedExecutionException ex) {
+            throw new RuntimeException("동시에 처리 중인 헬스장 스트림이 많습니다. 잠시 후 다시 시도해 주세요.");
+        }
+        return emitter;
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    // flush 시점까지 쓴 바이트를 모아 두었다가 한 덩어리로 전송
+    private static class EmitterOutputStream extends OutputStream {
+        
+        private final ResponseBodyEmitter emitter;
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(64 * 1024);
+        
+        EmitterOutputStream(ResponseBodyEmitter emitter) {
+            this.emitter = emitter;
+        }
+        
+        @Override
+        public void write(int b) {
+            buffer.write(b);
+        }
+        
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            buffer.write(bytes, offset, length);
+        }
+        
+        @Override
+        public void flush() throws IOException {
+            if (buffer.size() == 0) {
+                return;
+            }
+            emitter.send(buffer.toByteArray(), NDJSON);
+            buffer.reset();
+        }
+        
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+} 
\ No newline at end of file
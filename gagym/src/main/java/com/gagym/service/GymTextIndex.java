@@ -0,0 +1,313 @@
+package com.gagym.service;
+
+import com.gagym.reposiotry.GymRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class GymTextIndex {
+    
+    private final GymRepository gymRepository;
+    
+    private final NgramIndex names = new NgramIndex();
+    private final NgramIndex addresses = new NgramIndex();
+    
+    private volatile boolean ready = false;
+    
+    // 애플리케이션 시작 시 전체 이름/주소 적재
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        names.clear();
+        addresses.clear();
+        List<Object[]> rows = gymRepository.findAllNamesAndAddresses();
+        for (Object[] row : rows) {
+            put((Long) row[0], (String) row[1], (String) row[2]);
+        }
+        ready = true;
+        log.info("헬스장 이름/주소 검색 인덱스 적재 완료: {}건", rows.size());
+    }
+    
+    public boolean isReady() {
+        return ready;
+    }
+    
+    // 헬스장 이름/주소 등록/갱신
+    public void put(Long gymId, String name, String address) {
+        if (gymId == null) {
+            return;
+        }
+        int id = Math.toIntExact(gymId);
+        names.put(id, name);
+        addresses.put(id, address);
+    }
+    
+    // 헬스장 이름/주소 삭제
+    public void remove(Long gymId) {
+        if (gymId == null) {
+            return;
+        }
+        int id = Math.toIntExact(gymId);
+        names.remove(id);
+        addresses.remove(id);
+    }
+    
+    // 이름 검색 (관련도 순)
+    public List<Long> searchName(String query, int limit) {
+        return names.search(query, limit);
+    }
+    
+    // 주소 검색 (관련도 순)
+    public List<Long> searchAddress(String query, int limit) {
+        return addresses.search(query, limit);
+    }
+    
+    // 이름이 일치하는 헬스장 ID (오름차순)
+    public int[] matchName(String query) {
+        return names.match(query);
+    }
+    
+    // 주소가 일치하는 헬스장 ID (오름차순)
+    public int[] matchAddress(String query) {
+        return addresses.match(query);
+    }
+    
+    // 이름 검색 결과 수 상한 추정 (가장 짧은 포스팅 길이)
+    public int estimateName(String query) {
+        return names.estimate(query);
+    }
+    
+    // 주소 검색 결과 수 상한 추정
+    public int estimateAddress(String query) {
+        return addresses.estimate(query);
+    }
+    
+    // 정규화: 호환 문자 통합(NFKC), 소문자, 공백 제거
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        StringBuilder builder = new StringBuilder(normalized.length());
+        normalized.codePoints()
+                .filter(codePoint -> !Character.isWhitespace(codePoint))
+                .forEach(builder::appendCodePoint);
+        return builder.toString();
+    }
+    
+    // 유니그램 + 바이그램 (한글 음절은 코드포인트 단위)
+    static Set<String> grams(String normalized, boolean forQuery) {
+        int[] codePoints = normalized.codePoints().toArray();
+        Set<String> grams = new LinkedHashSet<>();
+        if (forQuery && codePoints.length >= 2) {
+            for (int i = 0; i + 1 < codePoints.length; i++) {
+                grams.add(new String(codePoints, i, 2));
+            }
+            return grams;
+        }
+        for (int i = 0; i < codePoints.length; i++) {
+            grams.add(new String(codePoints, i, 1));
+            if (!forQuery && i + 1 < codePoints.length) {
+                grams.add(new String(codePoints, i, 2));
+            }
+        }
+        return grams;
+    }
+    
+    static class NgramIndex {
+        
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<String, PostingList> postings = new HashMap<>();
+        private final Map<Integer, String> texts = new HashMap<>();
+        
+        void clear() {
+            lock.writeLock().lock();
+            try {
+                postings.clear();
+                texts.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        
+        void put(int id, String text) {
+            String normalized = normalize(text);
+            lock.writeLock().lock();
+            try {
+                removeInternal(id);
+                texts.put(id, normalized);
+                for (String gram : grams(normalized, false)) {
+                    postings.computeIfAbsent(gram, key -> new PostingList()).add(id);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        
+        void remove(int id) {
+            lock.writeLock().lock();
+            try {
+                removeInternal(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        
+        int estimate(String query) {
+            String normalized = normalize(query);
+            if (normalized.isEmpty()) {
+                return 0;
+            }
+            lock.readLock().lock();
+            try {
+                int estimate = Integer.MAX_VALUE;
+                for (String gram : grams(normalized, true)) {
+                    PostingList posting = postings.get(gram);
+                    estimate = Math.min(estimate, posting == null ? 0 : posting.size);
+                }
+                return estimate;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+        
+        // 부분 문자열로 포함하는 ID (오름차순)
+        int[] match(String query) {
+            String normalized = normalize(query);
+            if (normalized.isEmpty()) {
+                return new int[0];
+            }
+            lock.readLock().lock();
+            try {
+                return matchInternal(normalized);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+        
+        // 관련도 순 검색: 완전 일치 > 앞부분 일치 > 포함, 같으면 짧은 텍스트, ID 순
+        List<Long> search(String query, int limit) {
+            String normalized = normalize(query);
+            if (normalized.isEmpty() || limit <= 0) {
+                return List.of();
+            }
+            List<long[]> scored;
+            lock.readLock().lock();
+            try {
+                int[] ids = matchInternal(normalized);
+                scored = new ArrayList<>(ids.length);
+                for (int id : ids) {
+                    String text = texts.get(id);
+                    int tier = text.equals(normalized) ? 0 : text.startsWith(normalized) ? 1 : 2;
+                    scored.add(new long[]{tier, text.length(), id});
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            scored.sort(Comparator.<long[]>comparingLong(score -> score[0])
+                    .thenComparingLong(score -> score[1])
+                    .thenComparingLong(score -> score[2]));
+            List<Long> result = new ArrayList<>(Math.min(limit, scored.size()));
+            for (int i = 0; i < scored.size() && i < limit; i++) {
+                result.add(scored.get(i)[2]);
+            }
+            return result;
+        }
+        
+        private int[] matchInternal(String normalized) {
+            List<PostingList> lists = new ArrayList<>();
+            for (String gram : grams(normalized, true)) {
+                PostingList posting = postings.get(gram);
+                if (posting == null) {
+                    return new int[0];
+                }
+                lists.add(posting);
+            }
+            // 가장 짧은 포스팅부터 교집합
+            lists.sort(Comparator.comparingInt(posting -> posting.size));
+            PostingList smallest = lists.get(0);
+            int[] candidates = new int[smallest.size];
+            int count = 0;
+            for (int i = 0; i < smallest.size; i++) {
+                int id = smallest.ids[i];
+                boolean inAll = true;
+                for (int j = 1; j < lists.size() && inAll; j++) {
+                    inAll = lists.get(j).contains(id);
+                }
+                // 바이그램 교집합은 후보일 뿐이므로 원문 포함 여부로 확정
+                if (inAll && (normalized.codePointCount(0, normalized.length()) <= 2
+                        || texts.get(id).contains(normalized))) {
+                    candidates[count++] = id;
+                }
+            }
+            return Arrays.copyOf(candidates, count);
+        }
+        
+        private void removeInternal(int id) {
+            String previous = texts.remove(id);
+            if (previous == null) {
+                return;
+            }
+            for (String gram : grams(previous, false)) {
+                PostingList posting = postings.get(gram);
+                if (posting != null) {
+                    posting.remove(id);
+                    if (posting.size == 0) {
+                        postings.remove(gram);
+                    }
+                }
+            }
+        }
+    }
+    
+    // 정렬된 int 배열 포스팅 리스트
+    static class PostingList {
+        
+        private int[] ids = new int[4];
+        private int size = 0;
+        
+        void add(int id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            int insertAt = -position - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+        
+        void remove(int id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+        }
+        
+        boolean contains(int id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,163 @@
+package com.gagym.service;
+
+import com.gagym.dto.CacheStatsDto;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+// 크기(LRU)와 TTL 로 제한되는 로컬 캐시
+public class LocalCache<K, V> {
+    
+    private final String name;
+    private final int maxSize;
+    private final long ttlNanos;
+    
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    
+    // 무효화가 일어날 때마다 증가, 무효화 이전에 읽은 값이 다시 저장되는 것을 막음
+    private long generation = 0;
+    
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    
+    public LocalCache(String name, int maxSize, long ttlMillis) {
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+    }
+    
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.isExpired()) {
+            entries.remove(key);
+            expirations.increment();
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value;
+    }
+    
+    // 여러 키 조회 (적중한 항목만 반환)
+    public synchronized Map<K, V> getAll(Iterable<K> keys) {
+        Map<K, V> result = new HashMap<>();
+        for (K key : keys) {
+            V value = get(key);
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+        return result;
+    }
+    
+    // 없으면 loader 로 읽어서 저장 (loader 는 잠금 밖에서 실행)
+    public V get(K key, Function<K, V> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            V value = get(key);
+            if (value != null) {
+                return value;
+            }
+            loadGeneration = generation;
+        }
+        V loaded = loader.apply(key);
+        if (loaded != null) {
+            putIfGeneration(key, loaded, loadGeneration);
+        }
+        return loaded;
+    }
+    
+    public synchronized long generation() {
+        return generation;
+    }
+    
+    public synchronized void put(K key, V value) {
+        entries.put(key, new Entry<>(value, System.nanoTime() + ttlNanos));
+        Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxSize && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+    
+    // 읽기 시작 이후 무효화가 없었을 때만 저장
+    public synchronized void putIfGeneration(K key, V value, long loadGeneration) {
+        if (generation == loadGeneration) {
+            put(key, value);
+        }
+    }
+    
+    public synchronized void invalidate(K key) {
+        generation++;
+        if (entries.remove(key) != null) {
+            invalidations.increment();
+        }
+    }
+    
+    public synchronized void invalidateAll() {
+        generation++;
+        invalidations.add(entries.size());
+        entries.clear();
+    }
+    
+    // 조건에 맞는 항목만 무효화
+    public synchronized void invalidateIf(BiPredicate<K, V> condition) {
+        generation++;
+        Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<K, Entry<V>> entry = iterator.next();
+            if (condition.test(entry.getKey(), entry.getValue().value)) {
+                iterator.remove();
+                invalidations.increment();
+            }
+        }
+    }
+    
+    public synchronized int size() {
+        return entries.size();
+    }
+    
+    public CacheStatsDto stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+        return CacheStatsDto.builder()
+                .name(name)
+                .size(size())
+                .maxSize(maxSize)
+                .hits(hitCount)
+                .misses(missCount)
+                .evictions(evictions.sum())
+                .expirations(expirations.sum())
+                .invalidations(invalidations.sum())
+                .hitRate(total == 0 ? 0.0 : (double) hitCount / total)
+                .build();
+    }
+    
+    private static class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+        
+        private Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+        
+        private boolean isExpired() {
+            return System.nanoTime() - expiresAt > 0;
+        }
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.gagym.service;
+
+import com.gagym.entity.Purchase;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+// 결제 대행사 연동 지점
+// 실제 대행사 구현 빈이 없으면 PurchasePaymentProcessor 주입이 실패해 기동되지 않음 (가짜 구현은 테스트 소스에만 있음)
+// 재시작 후 PENDING 구매를 다시 요청할 수 있으므로 구현체는 purchaseId 기준으로 멱등해야 함
+public interface PaymentGateway {
+    
+    // 결제 요청 (응답이 올 때까지 블로킹, 결제 작업 스레드에서만 호출)
+    PaymentResult charge(Long purchaseId, Long userId, BigDecimal amount, Purchase.PaymentMethod paymentMethod);
+    
+    @Getter
+    @AllArgsConstructor
+    class PaymentResult {
+        private final boolean approved;
+        private final String transactionId;
+        private final String message;
+        
+        public static PaymentResult approved(String transactionId) {
+            return new PaymentResult(true, transactionId, null);
+        }
+        
+        public static PaymentResult declined(String message) {
+            return new PaymentResult(false, null, message);
+        }
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,336 @@
+package com.gagym.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+// 구매 상태 전환 이벤트 로그 (구매, 결제 완료/실패, 사용, 취소)
+// 64바이트 고정 레코드를 메모리 매핑된 세그먼트 파일에 순서대로 추가, 세그먼트가 차면 다음 파일로 넘어가고 보관 기간이 지나면 삭제
+// 레코드: 시퀀스 | 시각(ms) | 구매 ID | 사용자 ID | 헬스장 ID | 티켓 ID | 금액(1/100원) | 종류 | 예약 3바이트 | CRC32
+@Component
+@Slf4j
+public class PurchaseEventLog {
+    
+    static final int RECORD_SIZE = 64;
+    private static final int CRC_OFFSET = 60;
+    private static final int READ_CHUNK_RECORDS = 256;
+    private static final int MAX_READ_SIZE = 10_000;
+    private static final String SEGMENT_SUFFIX = ".log";
+    
+    private final Path directory;
+    private final int segmentRecords;
+    private final long retentionMillis;
+    // 세그먼트 첫 시퀀스 -> 파일
+    private final NavigableMap<Long, Path> segments = new ConcurrentSkipListMap<>();
+    
+    // 쓰기 상태 (this 로 동기화)
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int capacity;
+    private int position;
+    private boolean dirty;
+    private volatile long segmentStart;
+    // 마지막으로 기록을 마친 시퀀스 (읽기는 여기까지만)
+    private volatile long lastSequence;
+    
+    public PurchaseEventLog(@Value("${app.event-log.dir:${user.home}/gagym/purchase-events}") String directory,
+                            @Value("${app.event-log.segment-records:262144}") int segmentRecords,
+                            @Value("${app.event-log.retention-hours:168}") long retentionHours) {
+        this.directory = Paths.get(directory);
+        this.segmentRecords = segmentRecords;
+        this.retentionMillis = retentionHours * 3_600_000L;
+    }
+    
+    // 기존 세그먼트를 찾고 마지막 세그먼트에서 온전한 레코드 다음부터 이어 쓰기
+    @PostConstruct
+    public synchronized void open() {
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> files = Files.list(directory)) {
+                files.filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                        .forEach(file -> segments.put(firstSequenceOf(file), file));
+            }
+            if (segments.isEmpty()) {
+                roll(1);
+                return;
+            }
+            Map.Entry<Long, Path> last = segments.lastEntry();
+            map(last.getKey(), last.getValue());
+            while (position < capacity && isValid(buffer, position * RECORD_SIZE, segmentStart + position)) {
+                position++;
+            }
+            lastSequence = segmentStart + position - 1;
+            log.info("구매 이벤트 로그 열기: 세그먼트 {}개, 마지막 시퀀스 {}", segments.size(), lastSequence);
+        } catch (IOException e) {
+            throw new RuntimeException("구매 이벤트 로그를 열 수 없습니다.", e);
+        }
+    }
+    
+    // 트랜잭션이 커밋된 뒤 기록 (롤백된 전환은 남기지 않음)
+    public void appendAfterCommit(EventType type, Long purchaseId, Long userId, Long gymId, Long ticketId,
+                                  BigDecimal amount) {
+        afterCommit(() -> append(type, purchaseId, userId, gymId, ticketId, amount));
+    }
+    
+    // 일괄 입장 처리처럼 구매 ID 만 알고 있는 사용 이벤트
+    public void appendUsedAfterCommit(Collection<Long> purchaseIds, Long gymId) {
+        List<Long> ids = List.copyOf(purchaseIds);
+        afterCommit(() -> ids.forEach(purchaseId -> append(EventType.USED, purchaseId, null, gymId, null, null)));
+    }
+    
+    // 기록 실패는 구매 처리를 막지 않고 로그만 남김
+    public synchronized void append(EventType type, Long purchaseId, Long userId, Long gymId, Long ticketId,
+                                    BigDecimal amount) {
+        try {
+            if (position == capacity) {
+                roll(lastSequence + 1);
+            }
+            long sequence = lastSequence + 1;
+            int offset = position * RECORD_SIZE;
+            buffer.putLong(offset, sequence);
+            buffer.putLong(offset + 8, System.currentTimeMillis());
+            buffer.putLong(offset + 16, valueOf(purchaseId));
+            buffer.putLong(offset + 24, valueOf(userId));
+            buffer.putLong(offset + 32, valueOf(gymId));
+            buffer.putLong(offset + 40, valueOf(ticketId));
+            buffer.putLong(offset + 48, amount == null ? 0 : amount.movePointRight(2).longValue());
+            buffer.putInt(offset + 56, type.ordinal() << 24);
+            buffer.putInt(offset + CRC_OFFSET, crc(buffer, offset));
+            position++;
+            dirty = true;
+            lastSequence = sequence;
+        } catch (IOException | RuntimeException e) {
+            log.warn("구매 이벤트 기록 실패: type={}, purchaseId={}", type, purchaseId, e);
+        }
+    }
+    
+    public long lastSequence() {
+        return lastSequence;
+    }
+    
+    // afterSequence 다음 이벤트부터 최대 limit 건 (소비자는 마지막 시퀀스를 기억해 두고 이어서 호출)
+    public List<Event> read(long afterSequence, int limit) {
+        int max = Math.max(0, Math.min(limit, MAX_READ_SIZE));
+        long last = lastSequence;
+        List<Event> events = new ArrayList<>();
+        Map.Entry<Long, Path> first = segments.firstEntry();
+        long sequence = first == null ? afterSequence + 1 : Math.max(afterSequence + 1, first.getKey());
+        ByteBuffer chunk = ByteBuffer.allocate(RECORD_SIZE * READ_CHUNK_RECORDS);
+        
+        while (events.size() < max && sequence <= last) {
+            Map.Entry<Long, Path> segment = segments.floorEntry(sequence);
+            if (segment == null) {
+                break;
+            }
+            long start = segment.getKey();
+            try (FileChannel in = FileChannel.open(segment.getValue(), StandardOpenOption.READ)) {
+                long records = in.size() / RECORD_SIZE;
+                while (events.size() < max && sequence <= last && sequence - start < records) {
+                    chunk.clear();
+                    int read = in.read(chunk, (sequence - start) * RECORD_SIZE);
+                    if (read < RECORD_SIZE) {
+                        return events;
+                    }
+                    for (int offset = 0; offset + RECORD_SIZE <= read; offset += RECORD_SIZE) {
+                        if (events.size() == max || sequence > last) {
+                            return events;
+                        }
+                        if (!isValid(chunk, offset, sequence)) {
+                            return events;
+                        }
+                        events.add(decode(chunk, offset));
+                        sequence++;
+                    }
+                }
+                if (sequence - start < records) {
+                    break;
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("구매 이벤트 로그를 읽을 수 없습니다.", e);
+            }
+        }
+        return events;
+    }
+    
+    // 처음(또는 afterSequence 다음)부터 현재 끝까지 재생, 마지막으로 전달한 시퀀스 반환
+    public long replay(long afterSequence, Consumer<Event> consumer) {
+        long sequence = afterSequence;
+        List<Event> events;
+        while (!(events = read(sequence, MAX_READ_SIZE)).isEmpty()) {
+            events.forEach(consumer);
+            sequence = events.get(events.size() - 1).getSequence();
+        }
+        return sequence;
+    }
+    
+    // 매핑된 변경분을 주기적으로 디스크에 반영
+    @Scheduled(fixedDelay = 1000)
+    public synchronized void flush() {
+        if (dirty && buffer != null) {
+            buffer.force();
+            dirty = false;
+        }
+    }
+    
+    // 보관 기간이 지난 세그먼트 삭제 (마지막 레코드 시각 기준, 쓰는 중인 세그먼트는 제외)
+    @Scheduled(fixedDelay = 3_600_000, initialDelay = 60_000)
+    public void purgeExpiredSegments() {
+        long cutoff = System.currentTimeMillis() - retentionMillis;
+        for (Map.Entry<Long, Path> segment : segments.entrySet()) {
+            if (segment.getKey() >= segmentStart) {
+                break;
+            }
+            try {
+                if (lastTimestampOf(segment.getValue()) >= cutoff) {
+                    break;
+                }
+                segments.remove(segment.getKey());
+                Files.deleteIfExists(segment.getValue());
+                log.info("구매 이벤트 세그먼트 삭제: {}", segment.getValue().getFileName());
+            } catch (IOException e) {
+                log.warn("구매 이벤트 세그먼트 삭제 실패: {}", segment.getValue(), e);
+                break;
+            }
+        }
+    }
+    
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        flush();
+        if (channel != null) {
+            channel.close();
+        }
+    }
+    
+    private void roll(long startSequence) throws IOException {
+        if (buffer != null) {
+            buffer.force();
+            channel.close();
+        }
+        Path file = directory.resolve(String.format("%020d%s", startSequence, SEGMENT_SUFFIX));
+        map(startSequence, file);
+        segments.put(startSequence, file);
+        lastSequence = startSequence - 1;
+    }
+    
+    private void map(long startSequence, Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = channel.size();
+        capacity = size >= RECORD_SIZE ? (int) (size / RECORD_SIZE) : segmentRecords;
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) capacity * RECORD_SIZE);
+        segmentStart = startSequence;
+        position = 0;
+    }
+    
+    private long lastTimestampOf(Path file) throws IOException {
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer timestamp = ByteBuffer.allocate(Long.BYTES);
+            in.read(timestamp, in.size() - RECORD_SIZE + 8);
+            return timestamp.getLong(0);
+        }
+    }
+    
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+    
+    // 시퀀스가 맞고 CRC 가 일치해야 온전히 기록된 레코드
+    private static boolean isValid(ByteBuffer source, int offset, long expectedSequence) {
+        return source.getLong(offset) == expectedSequence
+                && source.getInt(offset + CRC_OFFSET) == crc(source, offset);
+    }
+    
+    private static int crc(ByteBuffer source, int offset) {
+        ByteBuffer record = source.duplicate();
+        record.position(offset);
+        record.limit(offset + CRC_OFFSET);
+        CRC32 crc = new CRC32();
+        crc.update(record);
+        return (int) crc.getValue();
+    }
+    
+    private static Event decode(ByteBuffer source, int offset) {
+        return new Event(
+                source.getLong(offset),
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(source.getLong(offset + 8)), ZoneId.systemDefault()),
+                EventType.values()[source.get(offset + 56)],
+                idOf(source.getLong(offset + 16)),
+                idOf(source.getLong(offset + 24)),
+                idOf(source.getLong(offset + 32)),
+                idOf(source.getLong(offset + 40)),
+                BigDecimal.valueOf(source.getLong(offset + 48), 2));
+    }
+    
+    private static long valueOf(Long id) {
+        return id == null ? 0 : id;
+    }
+    
+    private static Long idOf(long value) {
+        return value == 0 ? null : value;
+    }
+    
+    private static long firstSequenceOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+    
+    // 레코드에는 ordinal 로 저장되므로 새 종류는 끝에만 추가
+    public enum EventType {
+        PURCHASED,
+        PAYMENT_COMPLETED,
+        PAYMENT_FAILED,
+        USED,
+        CANCELLED
+    }
+    
+    @Getter
+    @AllArgsConstructor
+    public static class Event {
+        private final long sequence;
+        private final LocalDateTime timestamp;
+        private final EventType type;
+        private final Long purchaseId;
+        private final Long userId;
+        private final Long gymId;
+        private final Long ticketId;
+        private final BigDecimal amount;
+    }
+} 
\ No newline at end of file
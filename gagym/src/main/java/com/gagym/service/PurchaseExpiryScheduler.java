@@ -0,0 +1,162 @@
+package com.gagym.service;
+
+import com.gagym.reposiotry.PurchaseRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+// 이용권 만료 처리: 다가오는 만료 N건만 타이밍 휠에 올려두고, 만료되는 대로 묶어서 is_expired 갱신
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class PurchaseExpiryScheduler {
+    
+    private static final long TICK_MILLIS = 1000;
+    private static final int WHEEL_SIZE = 60;
+    private static final int SEED_SIZE = 10_000;
+    private static final int UPDATE_CHUNK_SIZE = 500;
+    
+    private final PurchaseRepository purchaseRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final QrLookupIndex qrLookupIndex;
+    
+    private ExpiryTimingWheel wheel;
+    // 휠에 올린 마지막 만료 위치 (expiryDate, id), 이후 만료는 휠이 비어 가면 이어서 적재
+    private LocalDateTime seededDate;
+    private long seededId;
+    private boolean exhausted;
+    private boolean seeding; // 적재 조회 중 (잠금 밖에서 DB 조회)
+    
+    // 애플리케이션 시작 시 밀린 만료를 정리하고 휠 적재
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void start() {
+        LocalDateTime now = LocalDateTime.now();
+        int swept = expireOverdue(now);
+        synchronized (this) {
+            wheel = new ExpiryTimingWheel(TICK_MILLIS, WHEEL_SIZE, toMillis(now));
+            seededDate = now;
+            seededId = 0L;
+            exhausted = false;
+        }
+        List<Long> expired = new ArrayList<>();
+        seed(expired);
+        markExpired(expired);
+        log.info("이용권 만료 스케줄러 시작: 밀린 만료 {}건 처리, 대기 {}건", swept, wheel.size());
+    }
+    
+    // 새 구매 등록 (적재 범위 밖이면 나중에 적재될 때 올라감)
+    public synchronized void schedule(Long purchaseId, LocalDateTime expiryDate) {
+        if (wheel == null || purchaseId == null || expiryDate == null) {
+            return;
+        }
+        // 적재 조회 중이면 결과에 포함될지 알 수 없으므로 바로 등록 (같은 ID 는 휠에 한 번만)
+        if (seeding || exhausted || expiryDate.isBefore(seededDate)) {
+            wheel.add(purchaseId, toMillis(expiryDate));
+        }
+    }
+    
+    // 1초마다 휠을 진행하고 만료된 구매를 일괄 갱신 (만료가 있을 때만 트랜잭션 시작)
+    @Scheduled(fixedDelay = TICK_MILLIS)
+    public void tick() {
+        List<Long> expired = new ArrayList<>();
+        boolean refill;
+        synchronized (this) {
+            if (wheel == null) {
+                return;
+            }
+            wheel.advance(System.currentTimeMillis(), expired::add);
+            refill = !exhausted && wheel.size() < SEED_SIZE / 2;
+        }
+        if (refill) {
+            seed(expired);
+        }
+        if (!expired.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> markExpired(expired));
+        }
+    }
+    
+    // 휠에서 빠진 항목(갱신 실패 등)을 위한 주기적 보정
+    @Scheduled(fixedDelay = 600_000, initialDelay = 600_000)
+    @Transactional
+    public void sweep() {
+        int swept = expireOverdue(LocalDateTime.now());
+        if (swept > 0) {
+            log.info("이용권 만료 보정: {}건", swept);
+        }
+    }
+    
+    // 다음 만료들을 휠 여유분만큼 적재 (이미 지난 것은 바로 만료 목록으로)
+    // DB 조회는 잠금 밖에서 하고 결과 반영만 잠금 안에서 (조회 중에도 tick, schedule 이 막히지 않도록)
+    private void seed(List<Long> expired) {
+        LocalDateTime afterDate;
+        long afterId;
+        int limit;
+        synchronized (this) {
+            if (seeding || exhausted) {
+                return;
+            }
+            seeding = true;
+            afterDate = seededDate;
+            afterId = seededId;
+            limit = Math.max(1, SEED_SIZE - wheel.size());
+        }
+        List<Object[]> rows;
+        try {
+            rows = purchaseRepository.findUpcomingExpiries(afterDate, afterId, PageRequest.of(0, limit));
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                seeding = false;
+            }
+            throw e;
+        }
+        synchronized (this) {
+            for (Object[] row : rows) {
+                Long purchaseId = (Long) row[0];
+                LocalDateTime expiryDate = (LocalDateTime) row[1];
+                if (!wheel.add(purchaseId, toMillis(expiryDate))) {
+                    expired.add(purchaseId);
+                }
+                seededDate = expiryDate;
+                seededId = purchaseId;
+            }
+            exhausted = rows.size() < limit;
+            seeding = false;
+        }
+    }
+    
+    private int expireOverdue(LocalDateTime now) {
+        int total = 0;
+        List<Long> purchaseIds;
+        do {
+            purchaseIds = purchaseRepository.findIdsToExpire(now, PageRequest.of(0, UPDATE_CHUNK_SIZE));
+            markExpired(purchaseIds);
+            total += purchaseIds.size();
+        } while (purchaseIds.size() == UPDATE_CHUNK_SIZE);
+        return total;
+    }
+    
+    // 만료 처리 후 QR 조회 인덱스에서도 제거
+    private void markExpired(List<Long> purchaseIds) {
+        for (int from = 0; from < purchaseIds.size(); from += UPDATE_CHUNK_SIZE) {
+            List<Long> chunk = purchaseIds.subList(from, Math.min(from + UPDATE_CHUNK_SIZE, purchaseIds.size()));
+            purchaseRepository.markExpired(chunk);
+            qrLookupIndex.removePurchaseKeys(purchaseRepository.findQrKeysByIdIn(chunk));
+        }
+    }
+    
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,132 @@
+package com.gagym.service;
+
+import com.gagym.dto.CacheStatsDto;
+import com.gagym.dto.PurchaseDto;
+import com.gagym.entity.Purchase;
+import com.gagym.reposiotry.PurchaseRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// 구매 요청 멱등성: 최근 키 캐시 -> 처리 중인 요청 대기 -> DB 유니크 키 순으로 중복 구매 차단
+// 트랜잭션 밖에서 동작 (대기 중에 DB 커넥션을 잡지 않도록)
+@Component
+public class PurchaseIdempotencyGuard {
+    
+    private static final int MAX_KEY_LENGTH = 64;
+    private static final long WAIT_SECONDS = 30;
+    
+    private final PurchaseService purchaseService;
+    private final PurchaseRepository purchaseRepository;
+    
+    // 완료된 요청 결과
+    private final LocalCache<String, PurchaseDto> recent;
+    // 처리 중인 요청 (같은 키의 재시도는 이 결과를 기다림)
+    private final Map<String, CompletableFuture<PurchaseDto>> inFlight = new ConcurrentHashMap<>();
+    
+    public PurchaseIdempotencyGuard(PurchaseService purchaseService,
+                                    PurchaseRepository purchaseRepository,
+                                    @Value("${app.idempotency.max-size:100000}") int maxSize,
+                                    @Value("${app.idempotency.ttl-ms:86400000}") long ttlMillis) {
+        this.purchaseService = purchaseService;
+        this.purchaseRepository = purchaseRepository;
+        this.recent = new LocalCache<>("idempotencyKeys", maxSize, ttlMillis);
+    }
+    
+    public PurchaseDto purchaseTicket(Long userId, Long ticketId, Purchase.PaymentMethod paymentMethod,
+                                      String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return purchaseService.purchaseTicket(userId, ticketId, paymentMethod, null);
+        }
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new RuntimeException("멱등성 키는 64자 이하여야 합니다.");
+        }
+        String key = userId + ":" + idempotencyKey;
+        
+        PurchaseDto cached = recent.get(key);
+        if (cached != null) {
+            return checkSameRequest(current(key, cached), ticketId);
+        }
+        
+        CompletableFuture<PurchaseDto> mine = new CompletableFuture<>();
+        CompletableFuture<PurchaseDto> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            return checkSameRequest(current(key, await(running)), ticketId);
+        }
+        
+        try {
+            // 이전에 처리된 요청이면 저장된 결과 반환 (재시작, 캐시 만료 대비)
+            Optional<PurchaseDto> stored = purchaseRepository.findDtoByUserIdAndIdempotencyKey(userId, idempotencyKey);
+            PurchaseDto result;
+            if (stored.isPresent()) {
+                result = stored.get();
+            } else {
+                try {
+                    // 커밋까지 끝난 뒤 반환되므로 대기 중인 요청은 커밋된 결과만 받음
+                    result = purchaseService.purchaseTicket(userId, ticketId, paymentMethod, idempotencyKey);
+                } catch (DataIntegrityViolationException e) {
+                    // 다른 서버에서 같은 키로 먼저 저장된 경우
+                    result = purchaseRepository.findDtoByUserIdAndIdempotencyKey(userId, idempotencyKey)
+                            .orElseThrow(() -> e);
+                }
+            }
+            recent.put(key, result);
+            mine.complete(result);
+            return checkSameRequest(result, ticketId);
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+    
+    public CacheStatsDto stats() {
+        return recent.stats();
+    }
+    
+    // 결제 대기 중이던 결과는 재시도 시점의 상태로 다시 조회 (이후 결제 결과가 반영되었을 수 있음)
+    private PurchaseDto current(String key, PurchaseDto purchase) {
+        if (!Purchase.PaymentStatus.PENDING.name().equals(purchase.getStatus())) {
+            return purchase;
+        }
+        PurchaseDto latest = purchaseRepository.findDtoById(purchase.getId()).orElse(purchase);
+        if (!Purchase.PaymentStatus.PENDING.name().equals(latest.getStatus())) {
+            recent.put(key, latest);
+        }
+        return latest;
+    }
+    
+    private static PurchaseDto await(CompletableFuture<PurchaseDto> running) {
+        try {
+            return running.get(WAIT_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException("구매 처리 중 오류가 발생했습니다.", e.getCause());
+        } catch (TimeoutException e) {
+            throw new RuntimeException("같은 구매 요청을 처리 중입니다. 잠시 후 다시 시도해주세요.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("구매 요청 대기 중 중단되었습니다.");
+        }
+    }
+    
+    // 같은 키로 다른 티켓을 구매하려는 요청은 거절
+    private static PurchaseDto checkSameRequest(PurchaseDto purchase, Long ticketId) {
+        if (!Objects.equals(purchase.getTicketId(), ticketId)) {
+            throw new RuntimeException("다른 구매 요청에 사용된 멱등성 키입니다.");
+        }
+        return purchase;
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,272 @@
+package com.gagym.service;
+
+import com.gagym.config.QrCodeSigner;
+import com.gagym.dto.PurchaseDto;
+import com.gagym.entity.Purchase;
+import com.gagym.entity.Ticket;
+import com.gagym.reposiotry.PurchaseRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// 비동기 결제 단계: 요청 스레드는 PENDING 구매만 저장하고, 결제 대행사 호출과 상태 전환은 제한된 작업 스레드에서 처리
+// 결제가 끝나야 QR 발급, 게이트 등록, 만료 예약을 진행
+@Component
+@Slf4j
+public class PurchasePaymentProcessor {
+    
+    private static final long STALE_PENDING_SECONDS = 60;
+    private static final long GIVE_UP_MINUTES = 10;
+    private static final int RECOVERY_BATCH_SIZE = 500;
+    
+    private final PurchaseRepository purchaseRepository;
+    private final PaymentGateway paymentGateway;
+    private final TransactionTemplate transactionTemplate;
+    private final QrCodeSigner qrCodeSigner;
+    private final QrGateEngine qrGateEngine;
+    private final PurchaseExpiryScheduler purchaseExpiryScheduler;
+    private final ActivePassCache activePassCache;
+    private final DailyPassCapacity dailyPassCapacity;
+    private final PurchaseEventLog purchaseEventLog;
+    private final QrLookupIndex qrLookupIndex;
+    private final ThreadPoolExecutor executor;
+    
+    // 결제 요청 중인 구매 (같은 구매를 두 번 요청하지 않도록)
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    // 결과를 기다리는 롱 폴링 요청 (요청마다 future 하나, 끝난 요청은 unwatch 로 제거)
+    private final Map<Long, Set<CompletableFuture<PurchaseDto>>> watchers = new ConcurrentHashMap<>();
+    
+    public PurchasePaymentProcessor(PurchaseRepository purchaseRepository,
+                                    PaymentGateway paymentGateway,
+                                    TransactionTemplate transactionTemplate,
+                                    QrCodeSigner qrCodeSigner,
+                                    QrGateEngine qrGateEngine,
+                                    PurchaseExpiryScheduler purchaseExpiryScheduler,
+                                    ActivePassCache activePassCache,
+                                    DailyPassCapacity dailyPassCapacity,
+                                    PurchaseEventLog purchaseEventLog,
+                                    QrLookupIndex qrLookupIndex,
+                                    @Value("${app.payment.workers:8}") int workers,
+                                    @Value("${app.payment.queue-capacity:1000}") int queueCapacity) {
+        this.purchaseRepository = purchaseRepository;
+        this.paymentGateway = paymentGateway;
+        this.transactionTemplate = transactionTemplate;
+        this.qrCodeSigner = qrCodeSigner;
+        this.qrGateEngine = qrGateEngine;
+        this.purchaseExpiryScheduler = purchaseExpiryScheduler;
+        this.activePassCache = activePassCache;
+        this.dailyPassCapacity = dailyPassCapacity;
+        this.purchaseEventLog = purchaseEventLog;
+        this.qrLookupIndex = qrLookupIndex;
+        // 대기열이 가득 차면 거절하고 PENDING 으로 남겨 복구 주기에 다시 처리 (요청 스레드가 결제를 대신 실행하지 않도록)
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("payment-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+    
+    // 구매 저장이 커밋된 뒤 결제 요청 (롤백된 구매는 결제하지 않도록)
+    public void submitAfterCommit(Long purchaseId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            submit(purchaseId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                submit(purchaseId);
+            }
+        });
+    }
+    
+    // 결제 결과 구독
+    public CompletableFuture<PurchaseDto> watch(Long purchaseId) {
+        CompletableFuture<PurchaseDto> watcher = new CompletableFuture<>();
+        watchers.compute(purchaseId, (id, waiting) -> {
+            Set<CompletableFuture<PurchaseDto>> updated = waiting == null ? new HashSet<>() : waiting;
+            updated.add(watcher);
+            return updated;
+        });
+        return watcher;
+    }
+    
+    // 구독 해제 (시간 초과, 연결 종료, 이미 결과를 받은 요청)
+    public void unwatch(Long purchaseId, CompletableFuture<PurchaseDto> watcher) {
+        watchers.computeIfPresent(purchaseId, (id, waiting) -> {
+            waiting.remove(watcher);
+            return waiting.isEmpty() ? null : waiting;
+        });
+    }
+    
+    // 재시작 전에 남은 PENDING 구매 재처리
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePending() {
+        resubmit(LocalDateTime.now());
+    }
+    
+    // 대기열 초과, 대행사 오류 등으로 오래 PENDING 인 구매 재처리
+    @Scheduled(fixedDelay = 60_000, initialDelay = 60_000)
+    public void retryStalePending() {
+        resubmit(LocalDateTime.now().minusSeconds(STALE_PENDING_SECONDS));
+    }
+    
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+    
+    private void resubmit(LocalDateTime createdBefore) {
+        List<Long> purchaseIds = purchaseRepository.findIdsByStatusAndCreatedAtBefore(
+                Purchase.PaymentStatus.PENDING, createdBefore, PageRequest.of(0, RECOVERY_BATCH_SIZE));
+        purchaseIds.forEach(this::submit);
+        if (!purchaseIds.isEmpty()) {
+            log.info("PENDING 구매 재처리: {}건", purchaseIds.size());
+        }
+    }
+    
+    private void submit(Long purchaseId) {
+        if (!inFlight.add(purchaseId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> process(purchaseId));
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(purchaseId);
+            log.warn("결제 대기열이 가득 차 나중에 다시 처리합니다: purchaseId={}", purchaseId);
+        }
+    }
+    
+    private void process(Long purchaseId) {
+        try {
+            PaymentJob job = transactionTemplate.execute(status -> purchaseRepository.findById(purchaseId)
+                    .filter(purchase -> purchase.getStatus() == Purchase.PaymentStatus.PENDING)
+                    .map(PaymentJob::new)
+                    .orElse(null));
+            if (job == null) {
+                notifyWatchers(purchaseId);
+                return;
+            }
+            
+            // 대행사 호출은 트랜잭션 밖에서 (응답을 기다리는 동안 DB 커넥션을 잡지 않도록)
+            PaymentGateway.PaymentResult result = charge(job);
+            
+            transactionTemplate.executeWithoutResult(status -> {
+                if (result.isApproved()) {
+                    complete(job);
+                } else {
+                    fail(job, result.getMessage());
+                }
+            });
+            notifyWatchers(purchaseId);
+        } catch (RuntimeException e) {
+            // 결과를 알 수 없으므로 PENDING 으로 두고 복구 주기에 재시도
+            log.warn("결제 처리 실패, 나중에 다시 처리합니다: purchaseId={}", purchaseId, e);
+        } finally {
+            inFlight.remove(purchaseId);
+        }
+    }
+    
+    // 대행사 오류는 PENDING 으로 두고 재시도, 구매 후 GIVE_UP_MINUTES 가 지나도록 오류면 결제 실패로 종료
+    private PaymentGateway.PaymentResult charge(PaymentJob job) {
+        try {
+            return paymentGateway.charge(job.purchaseId, job.userId, job.amount, job.paymentMethod);
+        } catch (RuntimeException e) {
+            if (job.createdAt == null || job.createdAt.isAfter(LocalDateTime.now().minusMinutes(GIVE_UP_MINUTES))) {
+                throw e;
+            }
+            log.warn("결제 대행사 오류가 계속되어 결제를 실패 처리합니다: purchaseId={}", job.purchaseId, e);
+            return PaymentGateway.PaymentResult.declined("결제 대행사 응답이 없어 결제를 완료하지 못했습니다.");
+        }
+    }
+    
+    // 결제 완료: 유효기간 시작, 서명된 QR 발급 후 커밋되면 게이트에 등록
+    private void complete(PaymentJob job) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiryDate = now.plusDays(job.validDays);
+        String qrCode = qrCodeSigner.signPurchase(job.purchaseId, job.gymId, expiryDate);
+        if (purchaseRepository.finishPayment(job.purchaseId, Purchase.PaymentStatus.PENDING,
+                Purchase.PaymentStatus.COMPLETED, expiryDate, qrCode, QrKeyCodec.keyOf(qrCode), now) == 0) {
+            return;
+        }
+        qrLookupIndex.putPurchase(qrCode, job.purchaseId);
+        qrGateEngine.registerAfterCommit(qrCode, job.purchaseId, job.gymId, expiryDate);
+        purchaseExpiryScheduler.schedule(job.purchaseId, expiryDate);
+        activePassCache.evict(job.userId);
+        purchaseEventLog.appendAfterCommit(PurchaseEventLog.EventType.PAYMENT_COMPLETED, job.purchaseId, job.userId,
+                job.gymId, job.ticketId, job.amount);
+    }
+    
+    // 결제 실패: 예약해 둔 일일권 한도 반환
+    private void fail(PaymentJob job, String message) {
+        if (purchaseRepository.finishPayment(job.purchaseId, Purchase.PaymentStatus.PENDING,
+                Purchase.PaymentStatus.FAILED, null, null, null, LocalDateTime.now()) == 0) {
+            return;
+        }
+        if (job.ticketType == Ticket.TicketType.DAILY) {
+            dailyPassCapacity.releaseAfterCommit(job.gymId, job.purchaseDate);
+        }
+        purchaseEventLog.appendAfterCommit(PurchaseEventLog.EventType.PAYMENT_FAILED, job.purchaseId, job.userId,
+                job.gymId, job.ticketId, job.amount);
+        log.info("결제 실패: purchaseId={}, message={}", job.purchaseId, message);
+    }
+    
+    private void notifyWatchers(Long purchaseId) {
+        Set<CompletableFuture<PurchaseDto>> waiting = watchers.remove(purchaseId);
+        if (waiting != null) {
+            purchaseRepository.findDtoById(purchaseId)
+                    .ifPresent(purchase -> waiting.forEach(watcher -> watcher.complete(purchase)));
+        }
+    }
+    
+    // 결제에 필요한 값만 트랜잭션 안에서 꺼내 둠
+    private static class PaymentJob {
+        private final Long purchaseId;
+        private final Long userId;
+        private final Long gymId;
+        private final Long ticketId;
+        private final BigDecimal amount;
+        private final Purchase.PaymentMethod paymentMethod;
+        private final Ticket.TicketType ticketType;
+        private final int validDays;
+        private final LocalDate purchaseDate;
+        private final LocalDateTime createdAt;
+        
+        PaymentJob(Purchase purchase) {
+            this.purchaseId = purchase.getId();
+            this.userId = purchase.getUser().getId();
+            this.gymId = purchase.getTicket().getGym().getId();
+            this.ticketId = purchase.getTicket().getId();
+            this.amount = purchase.getAmount();
+            this.paymentMethod = purchase.getPaymentMethod();
+            this.ticketType = purchase.getTicket().getType();
+            this.validDays = purchase.getTicket().getValidDays();
+            this.purchaseDate = purchase.getPurchaseDate().toLocalDate();
+            this.createdAt = purchase.getCreatedAt();
+        }
+    }
+} 
\ No newline at end of file
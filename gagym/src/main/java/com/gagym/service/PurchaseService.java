@@ -1,6 +1,10 @@
 package com.gagym.service;
 
+import com.gagym.config.QrCodeSigner;
+import com.gagym.dto.CursorPageDto;
+import com.gagym.dto.GateScanDto;
 import com.gagym.dto.PurchaseDto;
+import com.gagym.entity.Gym;
 import com.gagym.entity.Purchase;
 import com.gagym.entity.Ticket;
 import com.gagym.entity.User;
@@ -8,12 +12,25 @@ import com.gagym.reposiotry.PurchaseRepository;
 import com.gagym.reposiotry.TicketRepository;
 import com.gagym.reposiotry.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,72 +41,279 @@ public class PurchaseService {
     private final PurchaseRepository purchaseRepository;
     private final TicketRepository ticketRepository;
     private final UserRepository userRepository;
+    private final QrGateEngine qrGateEngine;
+    private final JdbcTemplate jdbcTemplate;
+    private final QrCodeSigner qrCodeSigner;
+    private final ActivePassCache activePassCache;
+    private final DailyPassCapacity dailyPassCapacity;
+    private final PurchasePaymentProcessor purchasePaymentProcessor;
+    private final PurchaseEventLog purchaseEventLog;
+    private final QrLookupIndex qrLookupIndex;
+    
+    private static final int MAX_BATCH_SCANS = 1000;
+    private static final int SCAN_LOOKUP_CHUNK_SIZE = 500;
+    private static final int MAX_EXPIRED_PAGE_SIZE = 100;
+    private static final String MARK_USED_SQL = "UPDATE purchases SET is_used = 1, used_at = ?, updated_at = ? " +
+            "WHERE id = ? AND is_used = 0 AND status = 'COMPLETED' AND expiry_date >= ?";
     
     // 사용자의 모든 구매 내역 조회
     public List<PurchaseDto> getPurchasesByUserId(Long userId) {
-        List<Purchase> purchases = purchaseRepository.findByUserId(userId);
-        return purchases.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return purchaseRepository.findDtosByUserId(userId);
     }
     
-    // 사용자의 활성 구매 내역 조회
+    // 사용자의 활성 구매 내역 조회 (캐시 적중 시 커넥션을 잡지 않음)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<PurchaseDto> getActivePurchasesByUserId(Long userId) {
-        List<Purchase> purchases = purchaseRepository.findByUserIdAndStatus(userId, Purchase.PaymentStatus.COMPLETED);
-        return purchases.stream()
-                .filter(purchase -> !purchase.getIsUsed() && purchase.getExpiryDate().isAfter(LocalDateTime.now()))
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return activePassCache.get(userId, id -> purchaseRepository.findActiveDtosByUserId(
+                id, Purchase.PaymentStatus.COMPLETED, LocalDateTime.now()));
     }
     
     // QR 코드로 구매 내역 조회
     public PurchaseDto getPurchaseByQrCode(String qrCode) {
-        Purchase purchase = purchaseRepository.findByQrCode(qrCode)
+        Long purchaseId = qrLookupIndex.findPurchaseId(qrCode);
+        Optional<PurchaseDto> purchase = purchaseId == null ? Optional.empty() : purchaseRepository.findDtoById(purchaseId);
+        // 인덱스가 가리킨 행의 QR 코드가 다르면 (롤백된 결제 등) 항목 제거 후 qr_key 로 다시 조회
+        if (purchase.isPresent() && !qrCode.equals(purchase.get().getQrCode())) {
+            qrLookupIndex.removePurchase(qrCode);
+            purchase = Optional.empty();
+        }
+        return purchase
+                .or(() -> purchaseRepository.findDtoByQrKey(QrKeyCodec.keyOf(qrCode))
+                        .filter(found -> qrCode.equals(found.getQrCode())))
+                .orElseThrow(() -> new RuntimeException("구매 내역을 찾을 수 없습니다."));
+    }
+    
+    // 구매 조회 (결제 결과 폴링)
+    public PurchaseDto getPurchase(Long purchaseId) {
+        return purchaseRepository.findDtoById(purchaseId)
                 .orElseThrow(() -> new RuntimeException("구매 내역을 찾을 수 없습니다."));
-        return convertToDto(purchase);
     }
     
-    // 티켓 구매
-    public PurchaseDto purchaseTicket(Long userId, Long ticketId, Purchase.PaymentMethod paymentMethod) {
+    // 결제 결과 대기 (이미 결제가 끝났으면 바로 완료된 future)
+    public CompletableFuture<PurchaseDto> awaitPaymentResult(Long purchaseId) {
+        CompletableFuture<PurchaseDto> watcher = purchasePaymentProcessor.watch(purchaseId);
+        PurchaseDto purchase = purchaseRepository.findDtoById(purchaseId).orElse(null);
+        if (purchase == null) {
+            purchasePaymentProcessor.unwatch(purchaseId, watcher);
+            throw new RuntimeException("구매 내역을 찾을 수 없습니다.");
+        }
+        if (!Purchase.PaymentStatus.PENDING.name().equals(purchase.getStatus())) {
+            purchasePaymentProcessor.unwatch(purchaseId, watcher);
+            watcher.complete(purchase);
+        }
+        return watcher;
+    }
+    
+    // 결제 결과 대기 종료 (시간 초과, 연결 종료)
+    public void stopAwaitingPaymentResult(Long purchaseId, CompletableFuture<PurchaseDto> watcher) {
+        purchasePaymentProcessor.unwatch(purchaseId, watcher);
+    }
+    
+    // 티켓 구매: 결제 대기 상태로 저장하고 바로 반환, 결제는 커밋 후 PurchasePaymentProcessor 에서 진행
+    // (중복 요청 처리는 PurchaseIdempotencyGuard 에서)
+    public PurchaseDto purchaseTicket(Long userId, Long ticketId, Purchase.PaymentMethod paymentMethod,
+                                      String idempotencyKey) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("사용자를 찾을 수 없습니다."));
         
         Ticket ticket = ticketRepository.findById(ticketId)
                 .orElseThrow(() -> new RuntimeException("티켓을 찾을 수 없습니다."));
         
+        // 일일권은 헬스장별 하루 판매 한도 안에서만 구매 (구매가 롤백되면 예약 반환)
+        if (ticket.getType() == Ticket.TicketType.DAILY) {
+            Gym gym = ticket.getGym();
+            LocalDate today = LocalDate.now();
+            if (!dailyPassCapacity.tryReserve(gym.getId(), today, gym.getDailyPassCapacity())) {
+                throw new RuntimeException("오늘 판매 가능한 일일권이 모두 판매되었습니다.");
+            }
+            dailyPassCapacity.releaseOnRollback(gym.getId(), today);
+        }
+        
         Purchase purchase = Purchase.builder()
                 .user(user)
                 .ticket(ticket)
                 .amount(ticket.getPrice())
                 .paymentMethod(paymentMethod)
-                .status(Purchase.PaymentStatus.COMPLETED)
-                .expiryDate(LocalDateTime.now().plusDays(ticket.getValidDays()))
-                .qrCode(generateQrCode())
+                .status(Purchase.PaymentStatus.PENDING)
                 .isUsed(false)
+                .isExpired(false)
+                .idempotencyKey(idempotencyKey)
                 .build();
         
+        // 유효기간, QR 코드는 결제가 완료될 때 설정
         Purchase savedPurchase = purchaseRepository.save(purchase);
+        purchasePaymentProcessor.submitAfterCommit(savedPurchase.getId());
+        purchaseEventLog.appendAfterCommit(PurchaseEventLog.EventType.PURCHASED, savedPurchase.getId(), userId,
+                ticket.getGym().getId(), ticketId, savedPurchase.getAmount());
         return convertToDto(savedPurchase);
     }
     
     // QR 코드 사용 (입장)
-    public PurchaseDto useTicket(String qrCode) {
-        Purchase purchase = purchaseRepository.findByQrCode(qrCode)
-                .orElseThrow(() -> new RuntimeException("구매 내역을 찾을 수 없습니다."));
+    public PurchaseDto useTicket(String qrCode, Long gymId) {
+        LocalDateTime now = LocalDateTime.now();
+        Long purchaseId;
         
-        if (purchase.getIsUsed()) {
+        String rejected = rejectSignedQr(qrCode, gymId, now);
+        if (rejected != null) {
+            throw new RuntimeException(scanMessage(rejected));
+        }
+        
+        // 메모리 인덱스에 있으면 CAS 로 선점, 없으면 DB 로 확인
+        QrGateEngine.ActivePass pass = qrGateEngine.find(qrCode);
+        if (pass != null && gymId != null && !gymId.equals(pass.getGymId())) {
+            throw new RuntimeException(scanMessage("WRONG_GYM"));
+        }
+        switch (qrGateEngine.tryAcquire(pass, now)) {
+            case ALREADY_USED:
+                throw new RuntimeException("이미 사용된 티켓입니다.");
+            case EXPIRED:
+                throw new RuntimeException("만료된 티켓입니다.");
+            case ACQUIRED:
+                qrGateEngine.releaseOnRollback(pass);
+                purchaseId = pass.getPurchaseId();
+                break;
+            default:
+                purchaseId = checkUsable(qrCode, gymId, now).getId();
+        }
+        
+        // 조건부 UPDATE 로 DB 에서도 한 번만 사용되도록 보장
+        if (purchaseRepository.markUsed(purchaseId, Purchase.PaymentStatus.COMPLETED, now) == 0) {
+            qrGateEngine.remove(qrCode);
+            qrLookupIndex.removePurchase(qrCode);
             throw new RuntimeException("이미 사용된 티켓입니다.");
         }
         
-        if (purchase.getExpiryDate().isBefore(LocalDateTime.now())) {
-            throw new RuntimeException("만료된 티켓입니다.");
+        qrLookupIndex.removePurchase(qrCode);
+        
+        PurchaseDto usedPurchase = purchaseRepository.findDtoById(purchaseId)
+                .orElseThrow(() -> new RuntimeException("구매 내역을 찾을 수 없습니다."));
+        activePassCache.evict(usedPurchase.getUserId());
+        purchaseEventLog.appendAfterCommit(PurchaseEventLog.EventType.USED, purchaseId, usedPurchase.getUserId(),
+                usedPurchase.getGymId(), usedPurchase.getTicketId(), usedPurchase.getAmount());
+        return usedPurchase;
+    }
+    
+    // QR 코드 일괄 사용 (게이트 배치 전송, 같은 코드가 여러 번 오면 첫 번째 스캔만 처리)
+    public GateScanDto.BatchResponse useTickets(List<String> qrCodes, Long gymId) {
+        if (qrCodes == null || qrCodes.isEmpty()) {
+            return GateScanDto.BatchResponse.builder().results(List.of()).build();
+        }
+        if (qrCodes.size() > MAX_BATCH_SCANS) {
+            throw new RuntimeException("한 번에 처리할 수 있는 스캔 수를 초과했습니다.");
         }
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, GateScanDto.Result> results = new HashMap<>();
+        Map<String, Long> targets = new LinkedHashMap<>();
+        Set<String> acquired = new HashSet<>();
+        List<String> lookups = new ArrayList<>();
         
-        purchase.setIsUsed(true);
-        purchase.setUsedAt(LocalDateTime.now());
+        // 1. 서명 확인 후 메모리 인덱스에 있는 코드는 CAS 로 선점
+        for (String qrCode : new LinkedHashSet<>(qrCodes)) {
+            if (qrCode == null) {
+                continue;
+            }
+            String rejected = rejectSignedQr(qrCode, gymId, now);
+            if (rejected != null) {
+                results.put(qrCode, scanResult(qrCode, rejected, null));
+                continue;
+            }
+            QrGateEngine.ActivePass pass = qrGateEngine.find(qrCode);
+            if (pass != null && gymId != null && !gymId.equals(pass.getGymId())) {
+                results.put(qrCode, scanResult(qrCode, "WRONG_GYM", pass.getPurchaseId()));
+                continue;
+            }
+            switch (qrGateEngine.tryAcquire(pass, now)) {
+                case ALREADY_USED:
+                    results.put(qrCode, scanResult(qrCode, "ALREADY_USED", pass.getPurchaseId()));
+                    break;
+                case EXPIRED:
+                    results.put(qrCode, scanResult(qrCode, "EXPIRED", pass.getPurchaseId()));
+                    break;
+                case ACQUIRED:
+                    qrGateEngine.releaseOnRollback(pass);
+                    acquired.add(qrCode);
+                    targets.put(qrCode, pass.getPurchaseId());
+                    break;
+                default:
+                    lookups.add(qrCode);
+            }
+        }
+        
+        // 2. 인덱스에 없는 코드는 IN 조회로 묶어서 확인
+        for (int from = 0; from < lookups.size(); from += SCAN_LOOKUP_CHUNK_SIZE) {
+            List<String> chunk = lookups.subList(from, Math.min(from + SCAN_LOOKUP_CHUNK_SIZE, lookups.size()));
+            List<byte[]> keys = chunk.stream().map(QrKeyCodec::keyOf).collect(Collectors.toList());
+            for (Object[] row : purchaseRepository.findScanStatesByQrKeyIn(keys)) {
+                String qrCode = (String) row[0];
+                Long purchaseId = (Long) row[1];
+                Purchase.PaymentStatus status = (Purchase.PaymentStatus) row[2];
+                LocalDateTime expiryDate = (LocalDateTime) row[4];
+                if (gymId != null && !gymId.equals(row[5])) {
+                    results.put(qrCode, scanResult(qrCode, "WRONG_GYM", purchaseId));
+                } else if (status != Purchase.PaymentStatus.COMPLETED) {
+                    results.put(qrCode, scanResult(qrCode, "NOT_USABLE", purchaseId));
+                } else if (Boolean.TRUE.equals(row[3])) {
+                    results.put(qrCode, scanResult(qrCode, "ALREADY_USED", purchaseId));
+                } else if (expiryDate != null && expiryDate.isBefore(now)) {
+                    results.put(qrCode, scanResult(qrCode, "EXPIRED", purchaseId));
+                } else {
+                    targets.put(qrCode, purchaseId);
+                }
+            }
+        }
+        
+        // 3. 조건부 UPDATE 를 JDBC 배치로 한 번에 실행 (행별 갱신 건수로 성공 여부 판정)
+        if (!targets.isEmpty()) {
+            Timestamp usedAt = Timestamp.valueOf(now);
+            List<Map.Entry<String, Long>> entries = new ArrayList<>(targets.entrySet());
+            List<Object[]> args = new ArrayList<>(entries.size());
+            for (Map.Entry<String, Long> entry : entries) {
+                args.add(new Object[]{usedAt, usedAt, entry.getValue(), usedAt});
+            }
+            int[] counts = jdbcTemplate.batchUpdate(MARK_USED_SQL, args);
+            List<Long> usedPurchaseIds = new ArrayList<>();
+            for (int i = 0; i < entries.size(); i++) {
+                String qrCode = entries.get(i).getKey();
+                Long purchaseId = entries.get(i).getValue();
+                if (counts[i] > 0) {
+                    usedPurchaseIds.add(purchaseId);
+                    qrLookupIndex.removePurchase(qrCode);
+                    results.put(qrCode, scanResult(qrCode, "ACCEPTED", purchaseId));
+                } else {
+                    if (acquired.contains(qrCode)) {
+                        qrGateEngine.remove(qrCode);
+                    }
+                    qrLookupIndex.removePurchase(qrCode);
+                    results.put(qrCode, scanResult(qrCode, "ALREADY_USED", purchaseId));
+                }
+            }
+            if (!usedPurchaseIds.isEmpty()) {
+                activePassCache.evictAll(purchaseRepository.findUserIdsByIdIn(usedPurchaseIds));
+                purchaseEventLog.appendUsedAfterCommit(usedPurchaseIds, gymId);
+            }
+        }
         
-        Purchase updatedPurchase = purchaseRepository.save(purchase);
-        return convertToDto(updatedPurchase);
+        // 4. 요청 순서대로 결과 구성
+        List<GateScanDto.Result> ordered = new ArrayList<>(qrCodes.size());
+        Set<String> seen = new HashSet<>();
+        int accepted = 0;
+        for (String qrCode : qrCodes) {
+            GateScanDto.Result result;
+            if (!seen.add(qrCode)) {
+                result = scanResult(qrCode, "DUPLICATE", null);
+            } else {
+                result = results.getOrDefault(qrCode, scanResult(qrCode, "NOT_FOUND", null));
+            }
+            if ("ACCEPTED".equals(result.getStatus())) {
+                accepted++;
+            }
+            ordered.add(result);
+        }
+        return GateScanDto.BatchResponse.builder()
+                .results(ordered)
+                .accepted(accepted)
+                .rejected(ordered.size() - accepted)
+                .build();
     }
     
     // 구매 취소
@@ -101,21 +325,137 @@ public class PurchaseService {
             throw new RuntimeException("이미 사용된 티켓은 취소할 수 없습니다.");
         }
         
-        purchase.setStatus(Purchase.PaymentStatus.CANCELLED);
-        purchaseRepository.save(purchase);
+        if (purchase.getStatus() == Purchase.PaymentStatus.PENDING) {
+            throw new RuntimeException("결제 처리 중인 구매는 취소할 수 없습니다.");
+        }
+        
+        if (purchase.getStatus() != Purchase.PaymentStatus.COMPLETED) {
+            throw new RuntimeException("결제 완료된 구매만 취소할 수 있습니다.");
+        }
+        
+        Long userId = purchase.getUser().getId();
+        Ticket ticket = purchase.getTicket();
+        Long gymId = ticket.getGym().getId();
+        boolean dailyPass = ticket.getType() == Ticket.TicketType.DAILY;
+        // 조건부 갱신 (엔티티 저장은 전체 행을 덮어써 그 사이 사용 처리된 is_used 를 되돌릴 수 있음)
+        int cancelled = purchaseRepository.cancelCompleted(purchaseId, Purchase.PaymentStatus.COMPLETED,
+                Purchase.PaymentStatus.CANCELLED, LocalDateTime.now());
+        if (cancelled == 0) {
+            throw new RuntimeException("이미 사용되었거나 취소된 티켓입니다.");
+        }
+        // 판매 수에 잡혀 있던 일일권이면 취소가 커밋된 뒤 한도 반환
+        if (dailyPass) {
+            dailyPassCapacity.releaseAfterCommit(gymId, purchase.getPurchaseDate().toLocalDate());
+        }
+        qrGateEngine.remove(purchase.getQrCode());
+        qrLookupIndex.removePurchase(purchase.getQrCode());
+        activePassCache.evict(userId);
+        purchaseEventLog.appendAfterCommit(PurchaseEventLog.EventType.CANCELLED, purchaseId, userId,
+                gymId, ticket.getId(), purchase.getAmount());
     }
     
-    // 만료된 티켓 조회
-    public List<PurchaseDto> getExpiredPurchases() {
-        List<Purchase> purchases = purchaseRepository.findByExpiryDateBefore(LocalDateTime.now());
-        return purchases.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    // 구매 이벤트 이어 읽기 (분석, 감사용, DB 를 거치지 않으므로 커넥션도 잡지 않음)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<PurchaseEventLog.Event> getPurchaseEvents(long afterSequence, int limit) {
+        return purchaseEventLog.read(afterSequence, limit);
     }
     
-    // QR 코드 생성
-    private String generateQrCode() {
-        return UUID.randomUUID().toString();
+    // 만료된 티켓 조회 (만료 스케줄러가 갱신한 상태 기준, 최신순 커서 페이지)
+    public CursorPageDto<PurchaseDto> getExpiredPurchases(String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_EXPIRED_PAGE_SIZE));
+        Long beforeId = cursor == null ? Long.MAX_VALUE : CursorCodec.toLong(CursorCodec.decode(cursor, "X", 1)[0]);
+        List<PurchaseDto> purchases = purchaseRepository.findExpiredDtos(beforeId, PageRequest.of(0, pageSize + 1));
+        boolean hasNext = purchases.size() > pageSize;
+        List<PurchaseDto> content = hasNext ? purchases.subList(0, pageSize) : purchases;
+        return CursorPageDto.<PurchaseDto>builder()
+                .content(content)
+                .nextCursor(hasNext ? CursorCodec.encode("X", content.get(content.size() - 1).getId()) : null)
+                .hasNext(hasNext)
+                .build();
+    }
+    
+    // 인덱스에 없는 QR 코드는 DB 에서 사용 가능 여부 확인
+    private Purchase checkUsable(String qrCode, Long gymId, LocalDateTime now) {
+        Long purchaseId = qrLookupIndex.findPurchaseId(qrCode);
+        Optional<Purchase> found = purchaseId == null ? Optional.empty() : purchaseRepository.findById(purchaseId);
+        if (found.isPresent() && !qrCode.equals(found.get().getQrCode())) {
+            qrLookupIndex.removePurchase(qrCode);
+            found = Optional.empty();
+        }
+        Purchase purchase = found
+                .or(() -> purchaseRepository.findByQrKey(QrKeyCodec.keyOf(qrCode))
+                        .filter(candidate -> qrCode.equals(candidate.getQrCode())))
+                .orElseThrow(() -> new RuntimeException("구매 내역을 찾을 수 없습니다."));
+        
+        // 서명이 없는 기존 UUID 코드도 다른 헬스장 게이트에서는 거절 (인덱스 항목은 유지)
+        if (gymId != null && !gymId.equals(purchase.getTicket().getGym().getId())) {
+            throw new RuntimeException(scanMessage("WRONG_GYM"));
+        }
+        
+        // 더 이상 쓸 수 없는 구매는 인덱스에서 빼고 거절
+        if (purchase.getStatus() != Purchase.PaymentStatus.COMPLETED) {
+            qrLookupIndex.removePurchase(qrCode);
+            throw new RuntimeException("사용할 수 없는 구매 내역입니다.");
+        }
+        
+        if (purchase.getIsUsed()) {
+            qrLookupIndex.removePurchase(qrCode);
+            throw new RuntimeException("이미 사용된 티켓입니다.");
+        }
+        
+        if (purchase.getExpiryDate().isBefore(now)) {
+            qrLookupIndex.removePurchase(qrCode);
+            throw new RuntimeException("만료된 티켓입니다.");
+        }
+        return purchase;
+    }
+    
+    // 서명된 QR 코드는 DB 조회 없이 서명, 헬스장, 만료 확인 (통과하거나 기존 UUID 코드면 null, 아니면 거절 상태)
+    private String rejectSignedQr(String qrCode, Long gymId, LocalDateTime now) {
+        if (!qrCodeSigner.isSigned(qrCode)) {
+            return null;
+        }
+        QrCodeSigner.Payload payload = qrCodeSigner.verify(qrCode);
+        if (payload == null || !payload.isPurchase()) {
+            return "INVALID";
+        }
+        if (gymId != null && gymId != payload.getGymId()) {
+            return "WRONG_GYM";
+        }
+        if (payload.getExpiryDate() != null && payload.getExpiryDate().isBefore(now)) {
+            return "EXPIRED";
+        }
+        return null;
+    }
+    
+    private static GateScanDto.Result scanResult(String qrCode, String status, Long purchaseId) {
+        return GateScanDto.Result.builder()
+                .qrCode(qrCode)
+                .status(status)
+                .purchaseId(purchaseId)
+                .message(scanMessage(status))
+                .build();
+    }
+    
+    private static String scanMessage(String status) {
+        switch (status) {
+            case "ACCEPTED":
+                return "입장 처리되었습니다.";
+            case "ALREADY_USED":
+                return "이미 사용된 티켓입니다.";
+            case "EXPIRED":
+                return "만료된 티켓입니다.";
+            case "NOT_USABLE":
+                return "사용할 수 없는 구매 내역입니다.";
+            case "INVALID":
+                return "유효하지 않은 QR 코드입니다.";
+            case "WRONG_GYM":
+                return "다른 헬스장의 이용권입니다.";
+            case "DUPLICATE":
+                return "같은 요청에 중복된 QR 코드입니다.";
+            default:
+                return "구매 내역을 찾을 수 없습니다.";
+        }
     }
     
     // DTO 변환
@@ -0,0 +1,157 @@
+package com.gagym.service;
+
+import com.gagym.entity.Purchase;
+import com.gagym.reposiotry.PurchaseRepository;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// 입장 게이트 QR 검증: 사용 가능한 구매 QR 코드를 메모리에 두고 CAS 로 1회 사용을 보장
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class QrGateEngine {
+    
+    private final PurchaseRepository purchaseRepository;
+    
+    // QR 코드 -> 사용 가능한 이용권
+    private final Map<String, ActivePass> passes = new ConcurrentHashMap<>();
+    
+    private volatile boolean ready = false;
+    
+    // 애플리케이션 시작 시 사용 가능한 구매 내역 적재
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        passes.clear();
+        List<Object[]> rows = purchaseRepository.findActivePasses(Purchase.PaymentStatus.COMPLETED, LocalDateTime.now());
+        for (Object[] row : rows) {
+            register((String) row[0], (Long) row[1], (Long) row[2], (LocalDateTime) row[3]);
+        }
+        ready = true;
+        log.info("입장 QR 인덱스 적재 완료: {}건", passes.size());
+    }
+    
+    public boolean isReady() {
+        return ready;
+    }
+    
+    public int size() {
+        return passes.size();
+    }
+    
+    // 사용 가능한 이용권 등록
+    public void register(String qrCode, Long purchaseId, Long gymId, LocalDateTime expiryDate) {
+        if (qrCode == null || purchaseId == null) {
+            return;
+        }
+        passes.put(qrCode, new ActivePass(purchaseId, gymId, expiryDate));
+    }
+    
+    // 트랜잭션 커밋 후 등록 (롤백된 구매가 게이트를 통과하지 않도록)
+    public void registerAfterCommit(String qrCode, Long purchaseId, Long gymId, LocalDateTime expiryDate) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            register(qrCode, purchaseId, gymId, expiryDate);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                register(qrCode, purchaseId, gymId, expiryDate);
+            }
+        });
+    }
+    
+    // 취소 등으로 더 이상 사용할 수 없는 이용권 제거
+    public void remove(String qrCode) {
+        if (qrCode != null) {
+            passes.remove(qrCode);
+        }
+    }
+    
+    // 이용권 조회 (없으면 null)
+    public ActivePass find(String qrCode) {
+        return qrCode == null ? null : passes.get(qrCode);
+    }
+    
+    // 1회 사용 선점: 동시에 여러 번 스캔되어도 하나만 ACQUIRED
+    public ScanResult tryAcquire(String qrCode, LocalDateTime now) {
+        return tryAcquire(find(qrCode), now);
+    }
+    
+    public ScanResult tryAcquire(ActivePass pass, LocalDateTime now) {
+        if (pass == null) {
+            return ScanResult.UNKNOWN;
+        }
+        if (pass.expiryDate != null && pass.expiryDate.isBefore(now)) {
+            return ScanResult.EXPIRED;
+        }
+        return pass.used.compareAndSet(false, true) ? ScanResult.ACQUIRED : ScanResult.ALREADY_USED;
+    }
+    
+    // 선점 해제 (DB 반영 실패 시)
+    public void release(ActivePass pass) {
+        if (pass != null) {
+            pass.used.set(false);
+        }
+    }
+    
+    // 현재 트랜잭션이 커밋되지 않으면 선점 해제
+    public void releaseOnRollback(ActivePass pass) {
+        if (pass == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    release(pass);
+                }
+            }
+        });
+    }
+    
+    // 만료된 이용권 정리
+    public int purgeExpired(LocalDateTime now) {
+        int before = passes.size();
+        passes.values().removeIf(pass -> pass.expiryDate != null && pass.expiryDate.isBefore(now));
+        return before - passes.size();
+    }
+    
+    public static class ActivePass {
+        @Getter
+        private final Long purchaseId;
+        @Getter
+        private final Long gymId;
+        @Getter
+        private final LocalDateTime expiryDate;
+        private final AtomicBoolean used = new AtomicBoolean(false);
+        
+        ActivePass(Long purchaseId, Long gymId, LocalDateTime expiryDate) {
+            this.purchaseId = purchaseId;
+            this.gymId = gymId;
+            this.expiryDate = expiryDate;
+        }
+        
+        public boolean isUsed() {
+            return used.get();
+        }
+    }
+    
+    public enum ScanResult {
+        ACQUIRED,      // 이번 스캔이 사용 처리
+        ALREADY_USED,  // 이미 사용됨
+        EXPIRED,       // 만료됨
+        UNKNOWN        // 인덱스에 없음 (DB 확인 필요)
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,60 @@
+package com.gagym.service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.UUID;
+
+// QR 코드 -> 16바이트 조회 키 (UUID 형식이면 UUID 바이트 그대로, 서명된 코드 등은 SHA-256 앞 16바이트)
+public final class QrKeyCodec {
+    
+    public static final int KEY_SIZE = 16;
+    private static final int UUID_LENGTH = 36;
+    
+    private QrKeyCodec() {
+    }
+    
+    public static byte[] keyOf(String qrCode) {
+        if (qrCode == null) {
+            return null;
+        }
+        UUID uuid = parseUuid(qrCode);
+        if (uuid != null) {
+            return ByteBuffer.allocate(KEY_SIZE)
+                    .putLong(uuid.getMostSignificantBits())
+                    .putLong(uuid.getLeastSignificantBits())
+                    .array();
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(qrCode.getBytes(StandardCharsets.UTF_8));
+            return Arrays.copyOf(digest, KEY_SIZE);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    // 키 앞 8바이트 (메모리 인덱스용)
+    static long high(byte[] key) {
+        return ByteBuffer.wrap(key).getLong(0);
+    }
+    
+    // 키 뒤 8바이트
+    static long low(byte[] key) {
+        return ByteBuffer.wrap(key).getLong(8);
+    }
+    
+    // 표준 형식(소문자, 하이픈 위치 고정)인 경우만 UUID 로 취급해 같은 코드가 항상 같은 키가 되도록 함
+    private static UUID parseUuid(String qrCode) {
+        if (qrCode.length() != UUID_LENGTH) {
+            return null;
+        }
+        try {
+            UUID uuid = UUID.fromString(qrCode);
+            return uuid.toString().equals(qrCode) ? uuid : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+} 
\ No newline at end of file
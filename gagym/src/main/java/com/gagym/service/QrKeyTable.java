@@ -0,0 +1,179 @@
+package com.gagym.service;
+
+import java.util.concurrent.locks.StampedLock;
+
+// 16바이트 QR 키 -> ID 오픈 어드레싱 해시 테이블 (선형 탐사, 삭제는 툼스톤으로 표시)
+// 칸마다 (키 앞 8바이트, 뒤 8바이트, ID) 24바이트를 long 배열 하나에 붙여 저장 (항목 객체, 포인터 추적 없음)
+// 64바이트 캐시 라인에 2.67칸이 들어가 대부분의 칸은 한 줄, 경계에 걸친 칸은 두 줄에서 읽힘, 읽기는 낙관적 잠금
+class QrKeyTable {
+    
+    private static final long EMPTY = 0L;
+    private static final long TOMBSTONE = -1L;
+    private static final double MAX_LOAD = 0.5;
+    
+    private final int maxSize;
+    private final StampedLock lock = new StampedLock();
+    private volatile Slots slots;
+    private int size;
+    private int used; // 사용 중 + 툼스톤
+    
+    QrKeyTable(int initialCapacity, int maxSize) {
+        this.maxSize = maxSize;
+        this.slots = new Slots(tableSizeFor(initialCapacity));
+    }
+    
+    // 없으면 0
+    long get(long high, long low) {
+        long stamp = lock.tryOptimisticRead();
+        long id = find(slots, high, low);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                id = find(slots, high, low);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return id;
+    }
+    
+    // 최대 크기에 도달하면 새 키는 넣지 않음 (조회는 DB 로)
+    boolean put(long high, long low, long id) {
+        long stamp = lock.writeLock();
+        try {
+            if ((used + 1) > slots.capacity() * MAX_LOAD) {
+                // 툼스톤이 많으면 같은 크기로 다시 배치, 아니면 두 배로
+                rehash(size + 1 > slots.capacity() * MAX_LOAD / 2 ? slots.capacity() * 2 : slots.capacity());
+            }
+            Slots table = slots;
+            int reuse = -1;
+            int index = indexOf(high, low, table.mask);
+            for (int probe = 0; probe < table.capacity(); probe++) {
+                long current = table.entries[index * 3 + 2];
+                if (current == EMPTY) {
+                    break;
+                }
+                if (current == TOMBSTONE) {
+                    if (reuse < 0) {
+                        reuse = index;
+                    }
+                } else if (table.entries[index * 3] == high && table.entries[index * 3 + 1] == low) {
+                    table.entries[index * 3 + 2] = id;
+                    return true;
+                }
+                index = (index + 1) & table.mask;
+            }
+            if (size >= maxSize) {
+                return false;
+            }
+            if (reuse >= 0) {
+                index = reuse;
+            } else {
+                used++;
+            }
+            table.entries[index * 3] = high;
+            table.entries[index * 3 + 1] = low;
+            table.entries[index * 3 + 2] = id;
+            size++;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    
+    void remove(long high, long low) {
+        long stamp = lock.writeLock();
+        try {
+            Slots table = slots;
+            int index = indexOf(high, low, table.mask);
+            for (int probe = 0; probe < table.capacity(); probe++) {
+                long current = table.entries[index * 3 + 2];
+                if (current == EMPTY) {
+                    return;
+                }
+                if (current != TOMBSTONE && table.entries[index * 3] == high && table.entries[index * 3 + 1] == low) {
+                    table.entries[index * 3 + 2] = TOMBSTONE;
+                    size--;
+                    return;
+                }
+                index = (index + 1) & table.mask;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    
+    int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+    
+    private static long find(Slots table, long high, long low) {
+        int index = indexOf(high, low, table.mask);
+        for (int probe = 0; probe < table.capacity(); probe++) {
+            long current = table.entries[index * 3 + 2];
+            if (current == EMPTY) {
+                return 0L;
+            }
+            if (current != TOMBSTONE && table.entries[index * 3] == high && table.entries[index * 3 + 1] == low) {
+                return current;
+            }
+            index = (index + 1) & table.mask;
+        }
+        return 0L;
+    }
+    
+    private void rehash(int capacity) {
+        Slots old = slots;
+        Slots table = new Slots(capacity);
+        for (int i = 0; i < old.capacity(); i++) {
+            long id = old.entries[i * 3 + 2];
+            if (id == EMPTY || id == TOMBSTONE) {
+                continue;
+            }
+            int index = indexOf(old.entries[i * 3], old.entries[i * 3 + 1], table.mask);
+            while (table.entries[index * 3 + 2] != EMPTY) {
+                index = (index + 1) & table.mask;
+            }
+            table.entries[index * 3] = old.entries[i * 3];
+            table.entries[index * 3 + 1] = old.entries[i * 3 + 1];
+            table.entries[index * 3 + 2] = id;
+        }
+        slots = table;
+        used = size;
+    }
+    
+    private static int indexOf(long high, long low, int mask) {
+        long hash = high * 0x9E3779B97F4A7C15L ^ low;
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        return (int) hash & mask;
+    }
+    
+    private static int tableSizeFor(int capacity) {
+        int size = 16;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        return size;
+    }
+    
+    private static class Slots {
+        private final long[] entries;
+        private final int mask;
+        
+        Slots(int capacity) {
+            this.entries = new long[capacity * 3];
+            this.mask = capacity - 1;
+        }
+        
+        int capacity() {
+            return mask + 1;
+        }
+    }
+} 
\ No newline at end of file
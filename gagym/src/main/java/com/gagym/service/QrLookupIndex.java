@@ -0,0 +1,146 @@
+package com.gagym.service;
+
+import com.gagym.entity.Purchase;
+import com.gagym.reposiotry.PurchaseRepository;
+import com.gagym.reposiotry.TicketRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.BiFunction;
+
+// 티켓, 구매 QR 코드 -> ID 메모리 인덱스 (16바이트 qr_key 기준)
+// 못 찾으면 qr_key 유니크 인덱스로 DB 조회, 찾은 ID 도 행을 읽을 때 QR 코드를 다시 확인
+@Component
+@Slf4j
+public class QrLookupIndex {
+    
+    private static final int BACKFILL_BATCH_SIZE = 1000;
+    
+    private final TicketRepository ticketRepository;
+    private final PurchaseRepository purchaseRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxSize;
+    private final QrKeyTable tickets;
+    private final QrKeyTable purchases;
+    
+    public QrLookupIndex(TicketRepository ticketRepository,
+                         PurchaseRepository purchaseRepository,
+                         JdbcTemplate jdbcTemplate,
+                         @Value("${app.qr-index.max-size:1000000}") int maxSize) {
+        this.ticketRepository = ticketRepository;
+        this.purchaseRepository = purchaseRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxSize = maxSize;
+        this.tickets = new QrKeyTable(1024, maxSize);
+        this.purchases = new QrKeyTable(1024, maxSize);
+    }
+    
+    // 애플리케이션 시작 시 qr_key 가 비어 있는 기존 행을 채우고, 티켓 전체와 사용 가능한 구매를 적재
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        int backfilled = backfill("tickets", ticketRepository::findQrCodesWithoutKey)
+                + backfill("purchases", purchaseRepository::findQrCodesWithoutKey);
+        
+        for (Object[] row : ticketRepository.findQrKeys()) {
+            put(tickets, (byte[]) row[0], (Long) row[1]);
+        }
+        List<Object[]> activePurchases = purchaseRepository.findActiveQrKeys(
+                Purchase.PaymentStatus.COMPLETED, LocalDateTime.now(), PageRequest.of(0, maxSize));
+        for (Object[] row : activePurchases) {
+            put(purchases, (byte[]) row[0], (Long) row[1]);
+        }
+        log.info("QR 조회 인덱스 적재 완료: 백필 {}건, 티켓 {}건, 구매 {}건", backfilled, tickets.size(), purchases.size());
+    }
+    
+    public Long findTicketId(String qrCode) {
+        return find(tickets, qrCode);
+    }
+    
+    public Long findPurchaseId(String qrCode) {
+        return find(purchases, qrCode);
+    }
+    
+    // 롤백되어 남은 항목은 행을 읽을 때 걸러지므로 커밋 전에 등록해도 됨
+    public void putTicket(String qrCode, Long ticketId) {
+        put(tickets, QrKeyCodec.keyOf(qrCode), ticketId);
+    }
+    
+    public void putPurchase(String qrCode, Long purchaseId) {
+        put(purchases, QrKeyCodec.keyOf(qrCode), purchaseId);
+    }
+    
+    // 취소, 사용, 만료된 구매는 인덱스에서 제거 (다시 조회되면 DB 로 확인)
+    public void removePurchase(String qrCode) {
+        remove(purchases, QrKeyCodec.keyOf(qrCode));
+    }
+    
+    public void removePurchaseKeys(Collection<byte[]> qrKeys) {
+        for (byte[] key : qrKeys) {
+            remove(purchases, key);
+        }
+    }
+    
+    private static Long find(QrKeyTable table, String qrCode) {
+        byte[] key = QrKeyCodec.keyOf(qrCode);
+        if (key == null) {
+            return null;
+        }
+        long id = table.get(QrKeyCodec.high(key), QrKeyCodec.low(key));
+        return id == 0 ? null : id;
+    }
+    
+    private static void remove(QrKeyTable table, byte[] key) {
+        if (key != null) {
+            table.remove(QrKeyCodec.high(key), QrKeyCodec.low(key));
+        }
+    }
+    
+    private static void put(QrKeyTable table, byte[] key, Long id) {
+        if (key != null && id != null) {
+            table.put(QrKeyCodec.high(key), QrKeyCodec.low(key), id);
+        }
+    }
+    
+    // id 순 키셋으로 나눠 qr_key 채우기 (중복 QR 코드가 있으면 한 건씩 갱신하며 건너뜀)
+    private int backfill(String table, BiFunction<Long, Pageable, List<Object[]>> query) {
+        String sql = "UPDATE " + table + " SET qr_key = ? WHERE id = ? AND qr_key IS NULL";
+        int total = 0;
+        long afterId = 0L;
+        List<Object[]> rows;
+        do {
+            rows = query.apply(afterId, PageRequest.of(0, BACKFILL_BATCH_SIZE));
+            if (rows.isEmpty()) {
+                break;
+            }
+            List<Object[]> args = new ArrayList<>(rows.size());
+            for (Object[] row : rows) {
+                args.add(new Object[]{QrKeyCodec.keyOf((String) row[1]), row[0]});
+            }
+            try {
+                jdbcTemplate.batchUpdate(sql, args);
+            } catch (DataIntegrityViolationException e) {
+                for (Object[] arg : args) {
+                    try {
+                        jdbcTemplate.update(sql, arg);
+                    } catch (DataIntegrityViolationException duplicate) {
+                        log.warn("중복 QR 코드라 qr_key 를 채우지 못했습니다: {} id={}", table, arg[1]);
+                    }
+                }
+            }
+            afterId = (Long) rows.get(rows.size() - 1)[0];
+            total += rows.size();
+        } while (rows.size() == BACKFILL_BATCH_SIZE);
+        return total;
+    }
+} 
\ No newline at end of file
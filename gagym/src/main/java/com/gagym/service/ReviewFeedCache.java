@@ -0,0 +1,47 @@
+package com.gagym.service;
+
+import com.gagym.dto.CacheStatsDto;
+import com.gagym.dto.ReviewDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.function.Function;
+
+// 헬스장별 리뷰 피드 첫 페이지 캐시 (상세 화면마다 읽히는 최신 리뷰 몇 건만 보관)
+@Component
+public class ReviewFeedCache {
+    
+    private final LocalCache<Long, List<ReviewDto>> firstPages;
+    
+    public ReviewFeedCache(@Value("${app.review-feed-cache.max-size:1000}") int maxSize,
+                           @Value("${app.review-feed-cache.ttl-ms:60000}") long ttlMillis) {
+        this.firstPages = new LocalCache<>("reviewFeeds", maxSize, ttlMillis);
+    }
+    
+    public List<ReviewDto> getFirstPage(Long gymId, Function<Long, List<ReviewDto>> loader) {
+        return firstPages.get(gymId, id -> List.copyOf(loader.apply(id)));
+    }
+    
+    // 리뷰 작성, 수정, 삭제 시 무효화 (커밋 이후에도 한 번 더)
+    public void evict(Long gymId) {
+        if (gymId == null) {
+            return;
+        }
+        firstPages.invalidate(gymId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    firstPages.invalidate(gymId);
+                }
+            });
+        }
+    }
+    
+    public CacheStatsDto stats() {
+        return firstPages.stats();
+    }
+} 
\ No newline at end of file
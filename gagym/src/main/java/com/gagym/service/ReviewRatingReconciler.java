@@ -0,0 +1,171 @@
+package com.gagym.service;
+
+import com.gagym.entity.GymRatingHistogram;
+import com.gagym.reposiotry.GymRatingHistogramRepository;
+import com.gagym.reposiotry.GymRepository;
+import com.gagym.reposiotry.ReviewRepository;
+import com.gagym.reposiotry.TrainerRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// 리뷰 평점 집계 보정: 증감분 반영이 누락되었거나 기존 데이터와 어긋난 합계/개수/별점 분포를 배치 단위로 다시 계산
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ReviewRatingReconciler {
+    
+    private static final int BATCH_SIZE = 500;
+    private static final double RATING_TOLERANCE = 1e-6;
+    
+    private final GymRepository gymRepository;
+    private final TrainerRepository trainerRepository;
+    private final ReviewRepository reviewRepository;
+    private final GymRatingHistogramRepository gymRatingHistogramRepository;
+    private final GymCache gymCache;
+    private final GymRatingHistogramCache gymRatingHistogramCache;
+    private final GymRankingIndex gymRankingIndex;
+    private final TransactionTemplate transactionTemplate;
+    
+    @Scheduled(fixedDelay = 3_600_000, initialDelay = 60_000)
+    public void reconcile() {
+        int gyms = reconcile(gymRepository::findRatingAggregates, reviewRepository::countRatingsByGymIds,
+                gymRepository::resetRatingAggregate, this::reconcileHistograms, this::refreshGym);
+        int trainers = reconcile(trainerRepository::findRatingAggregates, reviewRepository::countRatingsByTrainerIds,
+                trainerRepository::resetRatingAggregate, (ids, counts) -> List.of(), trainerId -> { });
+        if (gyms + trainers > 0) {
+            log.info("리뷰 평점 집계 보정: 헬스장 {}건, 트레이너 {}건", gyms, trainers);
+        }
+    }
+    
+    private int reconcile(BiFunction<Long, Pageable, List<Object[]>> aggregates,
+                          Function<Collection<Long>, List<Object[]>> ratingCounts,
+                          AggregateReset reset,
+                          BiFunction<List<Long>, Map<Long, long[]>, List<Long>> histograms,
+                          Consumer<Long> onCorrected) {
+        int corrected = 0;
+        long afterId = 0L;
+        while (true) {
+            long from = afterId;
+            Batch batch = transactionTemplate.execute(status ->
+                    reconcileBatch(from, aggregates, ratingCounts, reset, histograms));
+            batch.corrected.forEach(onCorrected);
+            corrected += batch.corrected.size();
+            if (batch.size < BATCH_SIZE) {
+                return corrected;
+            }
+            afterId = batch.lastId;
+        }
+    }
+    
+    // 한 트랜잭션 안에서 읽으므로 집계 행과 리뷰 수가 같은 스냅샷 기준
+    // 갱신은 읽은 값이 그대로일 때만 (그 사이 반영된 리뷰는 다음 실행에서 다시 확인)
+    private Batch reconcileBatch(long afterId,
+                                 BiFunction<Long, Pageable, List<Object[]>> aggregates,
+                                 Function<Collection<Long>, List<Object[]>> ratingCounts,
+                                 AggregateReset reset,
+                                 BiFunction<List<Long>, Map<Long, long[]>, List<Long>> histograms) {
+        List<Object[]> rows = aggregates.apply(afterId, PageRequest.of(0, BATCH_SIZE));
+        if (rows.isEmpty()) {
+            return new Batch(0, afterId, Set.of());
+        }
+        List<Long> ids = rows.stream().map(row -> (Long) row[0]).collect(Collectors.toList());
+        // 대상별 별점 분포 (인덱스 1~5)
+        Map<Long, long[]> counts = new HashMap<>();
+        for (Object[] row : ratingCounts.apply(ids)) {
+            counts.computeIfAbsent((Long) row[0], id -> new long[6])[(Integer) row[1]] = ((Number) row[2]).longValue();
+        }
+        
+        Set<Long> corrected = new LinkedHashSet<>();
+        for (Object[] row : rows) {
+            Long id = (Long) row[0];
+            Double rating = (Double) row[1];
+            long ratingSum = ((Number) row[2]).longValue();
+            int reviewCount = ((Number) row[3]).intValue();
+            long[] stars = counts.getOrDefault(id, new long[6]);
+            long actualSum = 0;
+            int actualCount = 0;
+            for (int star = 1; star <= 5; star++) {
+                actualSum += star * stars[star];
+                actualCount += (int) stars[star];
+            }
+            double actualRating = actualCount == 0 ? 0.0 : (double) actualSum / actualCount;
+            if (ratingSum == actualSum && reviewCount == actualCount
+                    && rating != null && Math.abs(rating - actualRating) < RATING_TOLERANCE) {
+                continue;
+            }
+            if (reset.reset(id, ratingSum, reviewCount, actualRating, actualSum, actualCount) > 0) {
+                corrected.add(id);
+            }
+        }
+        corrected.addAll(histograms.apply(ids, counts));
+        return new Batch(rows.size(), ids.get(ids.size() - 1), corrected);
+    }
+    
+    // 헬스장 별점 분포 보정 (읽은 revision 그대로일 때만 덮어씀)
+    private List<Long> reconcileHistograms(List<Long> gymIds, Map<Long, long[]> counts) {
+        Map<Long, GymRatingHistogram> stored = gymRatingHistogramRepository.findAllById(gymIds).stream()
+                .collect(Collectors.toMap(GymRatingHistogram::getGymId, histogram -> histogram));
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> corrected = new ArrayList<>();
+        for (Long gymId : gymIds) {
+            long[] stars = counts.getOrDefault(gymId, new long[6]);
+            GymRatingHistogram histogram = stored.get(gymId);
+            if (histogram == null) {
+                if (Arrays.stream(stars).sum() > 0 && gymRatingHistogramRepository.insertIfAbsent(gymId,
+                        stars[1], stars[2], stars[3], stars[4], stars[5], now) > 0) {
+                    corrected.add(gymId);
+                }
+                continue;
+            }
+            long[] current = {0, histogram.getStar1(), histogram.getStar2(), histogram.getStar3(),
+                    histogram.getStar4(), histogram.getStar5()};
+            if (!Arrays.equals(current, stars) && gymRatingHistogramRepository.resetIfRevision(gymId,
+                    histogram.getRevision(), stars[1], stars[2], stars[3], stars[4], stars[5], now) > 0) {
+                corrected.add(gymId);
+            }
+        }
+        return corrected;
+    }
+    
+    private void refreshGym(Long gymId) {
+        gymCache.evict(gymId);
+        gymRatingHistogramCache.evict(gymId);
+        gymRankingIndex.updateRating(gymId, gymRepository.findRatingById(gymId));
+    }
+    
+    @FunctionalInterface
+    private interface AggregateReset {
+        int reset(Long id, long expectedSum, int expectedCount, Double rating, long ratingSum, int reviewCount);
+    }
+    
+    private static class Batch {
+        private final int size;
+        private final long lastId;
+        private final Set<Long> corrected;
+        
+        Batch(int size, long lastId, Set<Long> corrected) {
+            this.size = size;
+            this.lastId = lastId;
+            this.corrected = corrected;
+        }
+    }
+} 
\ No newline at end of file
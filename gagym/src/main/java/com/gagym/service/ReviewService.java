@@ -0,0 +1,293 @@
+package com.gagym.service;
+
+import com.gagym.dto.CursorPageDto;
+import com.gagym.dto.RatingHistogramDto;
+import com.gagym.dto.ReviewDto;
+import com.gagym.entity.Gym;
+import com.gagym.entity.GymRatingHistogram;
+import com.gagym.entity.Review;
+import com.gagym.entity.Trainer;
+import com.gagym.entity.User;
+import com.gagym.reposiotry.GymRatingHistogramRepository;
+import com.gagym.reposiotry.GymRepository;
+import com.gagym.reposiotry.ReviewRepository;
+import com.gagym.reposiotry.TrainerRepository;
+import com.gagym.reposiotry.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class ReviewService {
+    
+    private final ReviewRepository reviewRepository;
+    private final UserRepository userRepository;
+    private final GymRepository gymRepository;
+    private final TrainerRepository trainerRepository;
+    private final GymRatingHistogramRepository gymRatingHistogramRepository;
+    private final GymCache gymCache;
+    private final GymRatingHistogramCache gymRatingHistogramCache;
+    private final GymRankingIndex gymRankingIndex;
+    private final ReviewFeedCache reviewFeedCache;
+    
+    private static final int MAX_REVIEW_PAGE_SIZE = 100;
+    private static final int HOT_PAGE_SIZE = 20;
+    // 첫 페이지 커서 (MySQL DATETIME 최댓값)
+    private static final LocalDateTime FEED_START = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    
+    // 헬스장 리뷰 피드 (최신순 커서 페이지, 기본 크기 이하의 첫 페이지는 캐시)
+    public CursorPageDto<ReviewDto> getReviewsByGymId(Long gymId, String cursor, int size) {
+        int pageSize = pageSizeOf(size);
+        if (cursor == null && pageSize <= HOT_PAGE_SIZE) {
+            List<ReviewDto> firstPage = reviewFeedCache.getFirstPage(gymId, id ->
+                    reviewRepository.findGymFeed(id, FEED_START, Long.MAX_VALUE, PageRequest.of(0, HOT_PAGE_SIZE + 1)));
+            return toPage(firstPage.subList(0, Math.min(firstPage.size(), pageSize + 1)), pageSize);
+        }
+        return feedPage(cursor, pageSize, (createdAt, id, limit) ->
+                reviewRepository.findGymFeed(gymId, createdAt, id, limit));
+    }
+    
+    // 트레이너 리뷰 피드 (최신순 커서 페이지)
+    public CursorPageDto<ReviewDto> getReviewsByTrainerId(Long trainerId, String cursor, int size) {
+        return feedPage(cursor, pageSizeOf(size), (createdAt, id, limit) ->
+                reviewRepository.findTrainerFeed(trainerId, createdAt, id, limit));
+    }
+    
+    // 사용자가 작성한 리뷰 피드 (최신순 커서 페이지)
+    public CursorPageDto<ReviewDto> getReviewsByUserId(Long userId, String cursor, int size) {
+        return feedPage(cursor, pageSizeOf(size), (createdAt, id, limit) ->
+                reviewRepository.findUserFeed(userId, createdAt, id, limit));
+    }
+    
+    // 헬스장 별점 분포 (캐시 적중 시 조회 없음, 아니면 분포 테이블 한 행)
+    public RatingHistogramDto getRatingHistogram(Long gymId) {
+        return gymRatingHistogramCache.get(gymId, id -> gymRatingHistogramRepository.findById(id)
+                .map(this::convertToDto)
+                .orElseGet(() -> RatingHistogramDto.builder()
+                        .gymId(id).star1(0L).star2(0L).star3(0L).star4(0L).star5(0L)
+                        .reviewCount(0L).averageRating(0.0)
+                        .build()));
+    }
+    
+    // 헬스장 리뷰 별점 필터 (최신순 커서 페이지)
+    public CursorPageDto<ReviewDto> getReviewsByGymIdAndRating(Long gymId, Integer rating, String cursor, int size) {
+        validateRating(rating);
+        return feedPage(cursor, pageSizeOf(size), (createdAt, id, limit) ->
+                reviewRepository.findGymRatingFeed(gymId, rating, createdAt, id, limit));
+    }
+    
+    public ReviewDto getReview(Long reviewId) {
+        return reviewRepository.findDtoById(reviewId)
+                .orElseThrow(() -> new RuntimeException("리뷰를 찾을 수 없습니다."));
+    }
+    
+    // 리뷰 작성: 대상 헬스장/트레이너 집계에 (+평점, +1) 반영
+    public ReviewDto createReview(Long userId, ReviewDto reviewDto) {
+        validateRating(reviewDto.getRating());
+        if (reviewDto.getGymId() == null && reviewDto.getTrainerId() == null) {
+            throw new RuntimeException("리뷰할 헬스장이나 트레이너를 지정해주세요.");
+        }
+        
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("사용자를 찾을 수 없습니다."));
+        Gym gym = reviewDto.getGymId() == null ? null : gymRepository.findById(reviewDto.getGymId())
+                .orElseThrow(() -> new RuntimeException("헬스장을 찾을 수 없습니다."));
+        Trainer trainer = reviewDto.getTrainerId() == null ? null : trainerRepository.findById(reviewDto.getTrainerId())
+                .orElseThrow(() -> new RuntimeException("트레이너를 찾을 수 없습니다."));
+        
+        Review review = Review.builder()
+                .user(user)
+                .gym(gym)
+                .trainer(trainer)
+                .rating(reviewDto.getRating())
+                .content(reviewDto.getContent())
+                .imageUrl(reviewDto.getImageUrl())
+                .build();
+        Review savedReview = reviewRepository.save(review);
+        
+        applyRatingChange(savedReview, null, savedReview.getRating());
+        evictFeed(savedReview);
+        return convertToDto(savedReview);
+    }
+    
+    // 리뷰 수정: 평점이 바뀐 만큼만 집계에 반영
+    public ReviewDto updateReview(Long reviewId, Long userId, ReviewDto reviewDto) {
+        validateRating(reviewDto.getRating());
+        Review review = findReview(reviewId);
+        checkAuthor(review, userId);
+        
+        int previousRating = review.getRating();
+        LocalDateTime now = LocalDateTime.now();
+        if (reviewRepository.updateIfRating(reviewId, previousRating, reviewDto.getRating(),
+                reviewDto.getContent(), reviewDto.getImageUrl(), now) == 0) {
+            throw new RuntimeException("리뷰가 다른 요청에서 수정되었습니다. 다시 시도해주세요.");
+        }
+        
+        review.setRating(reviewDto.getRating());
+        review.setContent(reviewDto.getContent());
+        review.setImageUrl(reviewDto.getImageUrl());
+        review.setUpdatedAt(now);
+        applyRatingChange(review, previousRating, reviewDto.getRating());
+        evictFeed(review);
+        return convertToDto(review);
+    }
+    
+    // 리뷰 삭제: 집계에서 (-평점, -1)
+    public void deleteReview(Long reviewId, Long userId) {
+        Review review = findReview(reviewId);
+        checkAuthor(review, userId);
+        
+        if (reviewRepository.deleteIfRating(reviewId, review.getRating()) == 0) {
+            if (reviewRepository.existsById(reviewId)) {
+                throw new RuntimeException("리뷰가 다른 요청에서 수정되었습니다. 다시 시도해주세요.");
+            }
+            return; // 이미 삭제됨
+        }
+        applyRatingChange(review, review.getRating(), null);
+        evictFeed(review);
+    }
+    
+    // 빠진 평점(removed)과 더해진 평점(added)을 합계/개수, 별점 분포에 원자적으로 반영
+    // (읽고 다시 쓰지 않으므로 동시 리뷰끼리 덮어쓰지 않음)
+    private void applyRatingChange(Review review, Integer removed, Integer added) {
+        if (Objects.equals(removed, added)) {
+            return;
+        }
+        int sumDelta = (added == null ? 0 : added) - (removed == null ? 0 : removed);
+        int countDelta = (added == null ? 0 : 1) - (removed == null ? 0 : 1);
+        if (review.getGym() != null) {
+            Long gymId = review.getGym().getId();
+            gymRepository.applyRatingDelta(gymId, sumDelta, countDelta);
+            int[] stars = new int[6];
+            if (removed != null) {
+                stars[removed]--;
+            }
+            if (added != null) {
+                stars[added]++;
+            }
+            gymRatingHistogramRepository.applyDelta(gymId, stars[1], stars[2], stars[3], stars[4], stars[5],
+                    LocalDateTime.now());
+            gymCache.evict(gymId);
+            gymRatingHistogramCache.evict(gymId);
+            // 커밋 순서가 바뀌어도 마지막으로 커밋된 평점이 반영되도록 커밋 후 다시 읽음
+            afterCommit(() -> gymRankingIndex.updateRating(gymId, gymRepository.findRatingById(gymId)));
+        }
+        if (review.getTrainer() != null) {
+            trainerRepository.applyRatingDelta(review.getTrainer().getId(), sumDelta, countDelta);
+        }
+    }
+    
+    private void evictFeed(Review review) {
+        if (review.getGym() != null) {
+            reviewFeedCache.evict(review.getGym().getId());
+        }
+    }
+    
+    // (created_at, id) 커서 이후 한 페이지 (다음 페이지 유무 확인용으로 한 건 더 조회)
+    private CursorPageDto<ReviewDto> feedPage(String cursor, int pageSize, FeedQuery query) {
+        LocalDateTime createdAt = FEED_START;
+        Long id = Long.MAX_VALUE;
+        if (cursor != null) {
+            String[] values = CursorCodec.decode(cursor, "V", 2);
+            createdAt = CursorCodec.toDateTime(values[0]);
+            id = CursorCodec.toLong(values[1]);
+        }
+        return toPage(query.find(createdAt, id, PageRequest.of(0, pageSize + 1)), pageSize);
+    }
+    
+    private static CursorPageDto<ReviewDto> toPage(List<ReviewDto> reviews, int pageSize) {
+        boolean hasNext = reviews.size() > pageSize;
+        List<ReviewDto> content = hasNext ? reviews.subList(0, pageSize) : reviews;
+        ReviewDto last = hasNext ? content.get(content.size() - 1) : null;
+        return CursorPageDto.<ReviewDto>builder()
+                .content(content)
+                .nextCursor(hasNext ? CursorCodec.encode("V", last.getCreatedAt(), last.getId()) : null)
+                .hasNext(hasNext)
+                .build();
+    }
+    
+    private static int pageSizeOf(int size) {
+        return Math.max(1, Math.min(size, MAX_REVIEW_PAGE_SIZE));
+    }
+    
+    private Review findReview(Long reviewId) {
+        return reviewRepository.findWithDetailsById(reviewId)
+                .orElseThrow(() -> new RuntimeException("리뷰를 찾을 수 없습니다."));
+    }
+    
+    private static void checkAuthor(Review review, Long userId) {
+        if (!review.getUser().getId().equals(userId)) {
+            throw new RuntimeException("본인이 작성한 리뷰만 수정하거나 삭제할 수 있습니다.");
+        }
+    }
+    
+    private static void validateRating(Integer rating) {
+        if (rating == null || rating < 1 || rating > 5) {
+            throw new RuntimeException("평점은 1점에서 5점 사이여야 합니다.");
+        }
+    }
+    
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+    
+    private RatingHistogramDto convertToDto(GymRatingHistogram histogram) {
+        long reviewCount = histogram.getStar1() + histogram.getStar2() + histogram.getStar3()
+                + histogram.getStar4() + histogram.getStar5();
+        long ratingSum = histogram.getStar1() + 2 * histogram.getStar2() + 3 * histogram.getStar3()
+                + 4 * histogram.getStar4() + 5 * histogram.getStar5();
+        return RatingHistogramDto.builder()
+                .gymId(histogram.getGymId())
+                .star1(histogram.getStar1())
+                .star2(histogram.getStar2())
+                .star3(histogram.getStar3())
+                .star4(histogram.getStar4())
+                .star5(histogram.getStar5())
+                .reviewCount(reviewCount)
+                .averageRating(reviewCount == 0 ? 0.0 : (double) ratingSum / reviewCount)
+                .build();
+    }
+    
+    private ReviewDto convertToDto(Review review) {
+        return ReviewDto.builder()
+                .id(review.getId())
+                .userId(review.getUser().getId())
+                .userName(review.getUser().getUsername())
+                .nickname(review.getUser().getNickname())
+                .profileImage(review.getUser().getProfileImage())
+                .gymId(review.getGym() != null ? review.getGym().getId() : null)
+                .gymName(review.getGym() != null ? review.getGym().getName() : null)
+                .trainerId(review.getTrainer() != null ? review.getTrainer().getId() : null)
+                .trainerName(review.getTrainer() != null ? review.getTrainer().getName() : null)
+                .rating(review.getRating())
+                .content(review.getContent())
+                .imageUrl(review.getImageUrl())
+                .createdAt(review.getCreatedAt())
+                .updatedAt(review.getUpdatedAt())
+                .build();
+    }
+    
+    @FunctionalInterface
+    private interface FeedQuery {
+        List<ReviewDto> find(LocalDateTime createdAt, Long id, Pageable pageable);
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,75 @@
+package com.gagym.service;
+
+import com.gagym.dto.CacheStatsDto;
+import com.gagym.dto.TicketDto;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+// 헬스장별 판매 중인 티켓 목록 캐시
+// 헬스장마다 버전을 두고 티켓, 헬스장이 바뀔 때 올려서 ETag 로 사용 (재시작 후 버전이 겹치지 않도록 시작 시각 포함)
+@Component
+public class TicketCatalogCache {
+    
+    private final LocalCache<Long, Catalog> catalogs;
+    private final Map<Long, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+    
+    public TicketCatalogCache(@Value("${app.ticket-catalog-cache.max-size:10000}") int maxSize,
+                              @Value("${app.ticket-catalog-cache.ttl-ms:600000}") long ttlMillis) {
+        this.catalogs = new LocalCache<>("ticketCatalogs", maxSize, ttlMillis);
+    }
+    
+    // 읽기 전 버전으로 ETag 를 정하므로 읽는 도중 변경되면 다음 요청에서 새 ETag 로 다시 읽음
+    public Catalog get(Long gymId, Function<Long, List<TicketDto>> loader) {
+        return catalogs.get(gymId, id -> {
+            String etag = "\"t" + id + "-" + bootId + "-" + version(id).get() + "\"";
+            return new Catalog(etag, List.copyOf(loader.apply(id)));
+        });
+    }
+    
+    // 티켓 생성, 수정, 비활성화 또는 헬스장 변경 시 버전을 올리고 무효화 (커밋 이후에도 한 번 더)
+    public void evict(Long gymId) {
+        if (gymId == null) {
+            return;
+        }
+        evictNow(gymId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(gymId);
+                }
+            });
+        }
+    }
+    
+    public CacheStatsDto stats() {
+        return catalogs.stats();
+    }
+    
+    private void evictNow(Long gymId) {
+        version(gymId).incrementAndGet();
+        catalogs.invalidate(gymId);
+    }
+    
+    private AtomicLong version(Long gymId) {
+        return versions.computeIfAbsent(gymId, id -> new AtomicLong());
+    }
+    
+    @Getter
+    @AllArgsConstructor
+    public static class Catalog {
+        private final String etag;
+        private final List<TicketDto> tickets;
+    }
+} 
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.gagym.service;
 
+import com.gagym.config.QrCodeSigner;
 import com.gagym.dto.TicketDto;
 import com.gagym.entity.Ticket;
 import com.gagym.entity.Gym;
@@ -7,10 +8,11 @@ import com.gagym.reposiotry.TicketRepository;
 import com.gagym.reposiotry.GymRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.UUID;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -20,13 +22,21 @@ public class TicketService {
     
     private final TicketRepository ticketRepository;
     private final GymRepository gymRepository;
+    private final QrCodeSigner qrCodeSigner;
+    private final TicketCatalogCache ticketCatalogCache;
+    private final QrLookupIndex qrLookupIndex;
     
     // 헬스장의 모든 티켓 조회
     public List<TicketDto> getTicketsByGymId(Long gymId) {
-        List<Ticket> tickets = ticketRepository.findByGymIdAndIsActiveTrue(gymId);
-        return tickets.stream()
+        return getTicketCatalog(gymId).getTickets();
+    }
+    
+    // 헬스장의 판매 중인 티켓 목록과 ETag (캐시 적중 시 트랜잭션, 쿼리 없음)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public TicketCatalogCache.Catalog getTicketCatalog(Long gymId) {
+        return ticketCatalogCache.get(gymId, id -> ticketRepository.findByGymIdAndIsActiveTrue(id).stream()
                 .map(this::convertToDto)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
     
     // 티켓 타입별 조회
@@ -37,13 +47,16 @@ public class TicketService {
                 .collect(Collectors.toList());
     }
     
-    // QR 코드로 티켓 조회
+    // QR 코드로 티켓 조회 (메모리 인덱스 -> qr_key 유니크 인덱스 순)
     public TicketDto getTicketByQrCode(String qrCode) {
-        List<Ticket> tickets = ticketRepository.findByQrCode(qrCode);
-        if (tickets.isEmpty()) {
-            throw new RuntimeException("티켓을 찾을 수 없습니다.");
-        }
-        return convertToDto(tickets.get(0));
+        Long ticketId = qrLookupIndex.findTicketId(qrCode);
+        Optional<Ticket> ticket = ticketId == null ? Optional.empty() : ticketRepository.findById(ticketId);
+        return ticket
+                .filter(found -> qrCode.equals(found.getQrCode()))
+                .or(() -> ticketRepository.findByQrKey(QrKeyCodec.keyOf(qrCode))
+                        .filter(found -> qrCode.equals(found.getQrCode())))
+                .map(this::convertToDto)
+                .orElseThrow(() -> new RuntimeException("티켓을 찾을 수 없습니다."));
     }
     
     // 티켓 생성
@@ -57,12 +70,16 @@ public class TicketService {
                 .description(ticketDto.getDescription())
                 .price(ticketDto.getPrice())
                 .validDays(ticketDto.getValidDays())
-                .qrCode(generateQrCode())
                 .gym(gym)
                 .isActive(true)
                 .build();
         
+        // 티켓 ID 가 정해진 뒤 서명된 QR 코드 발급
         Ticket savedTicket = ticketRepository.save(ticket);
+        savedTicket.setQrCode(qrCodeSigner.signTicket(savedTicket.getId(), gym.getId()));
+        savedTicket.setQrKey(QrKeyCodec.keyOf(savedTicket.getQrCode()));
+        qrLookupIndex.putTicket(savedTicket.getQrCode(), savedTicket.getId());
+        ticketCatalogCache.evict(gym.getId());
         return convertToDto(savedTicket);
     }
     
@@ -78,6 +95,7 @@ public class TicketService {
         ticket.setIsActive(ticketDto.getIsActive());
         
         Ticket updatedTicket = ticketRepository.save(ticket);
+        ticketCatalogCache.evict(updatedTicket.getGym().getId());
         return convertToDto(updatedTicket);
     }
     
@@ -88,11 +106,7 @@ public class TicketService {
         
         ticket.setIsActive(false);
         ticketRepository.save(ticket);
-    }
-    
-    // QR 코드 생성
-    private String generateQrCode() {
-        return UUID.randomUUID().toString();
+        ticketCatalogCache.evict(ticket.getGym().getId());
     }
     
     // DTO 변환
@@ -0,0 +1,89 @@
+package com.gagym.config;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+// 게이트에서 서명된 QR 코드를 검증하는 처리량 (정상, 위조, 형식 오류 코드)
+// 실행: 테스트 클래스패스로 main 실행 (단위 테스트에는 포함되지 않음)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QrCodeSignerBenchmark {
+
+	private static final int CODES = 1024;
+
+	private QrCodeSigner signer;
+	private String[] valid;
+	private String[] forged;
+	private String[] malformed;
+	private int cursor;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		signer = new QrCodeSigner("benchmark-qr-secret");
+		valid = new String[CODES];
+		forged = new String[CODES];
+		malformed = new String[CODES];
+		LocalDateTime expiryDate = LocalDateTime.now().plusDays(30);
+		for (int i = 0; i < CODES; i++) {
+			valid[i] = signer.signPurchase(1_000_000L + i, 1L + i % 50, expiryDate);
+			// 헬스장 ID 를 바꾼 코드 (서명 불일치)
+			byte[] token = Base64.getUrlDecoder().decode(valid[i].substring(3));
+			token[16] ^= 1;
+			forged[i] = "G1." + Base64.getUrlEncoder().withoutPadding().encodeToString(token);
+			malformed[i] = valid[i].substring(0, valid[i].length() - 4);
+		}
+	}
+
+	private int next() {
+		cursor = (cursor + 1) & (CODES - 1);
+		return cursor;
+	}
+
+	@Benchmark
+	public QrCodeSigner.Payload verifyValid() {
+		return signer.verify(valid[next()]);
+	}
+
+	@Benchmark
+	public QrCodeSigner.Payload verifyForged() {
+		return signer.verify(forged[next()]);
+	}
+
+	// 길이가 맞지 않아 HMAC 계산 전에 거절
+	@Benchmark
+	public QrCodeSigner.Payload verifyMalformed() {
+		return signer.verify(malformed[next()]);
+	}
+
+	// 게이트 여러 대가 동시에 검증하는 경우 (스레드별 Mac)
+	@Benchmark
+	@Threads(8)
+	public QrCodeSigner.Payload verifyValidConcurrently() {
+		return signer.verify(valid[next()]);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(QrCodeSignerBenchmark.class.getSimpleName()).build()).run();
+	}
+} 
\ No newline at end of file
@@ -0,0 +1,55 @@
+package com.gagym.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QrCodeSignerTest {
+
+	private final QrCodeSigner signer = new QrCodeSigner("test-qr-secret");
+
+	@Test
+	void signedPurchaseCodeRoundTrips() {
+		LocalDateTime expiryDate = LocalDateTime.of(2030, 1, 1, 9, 30, 15);
+		String qrCode = signer.signPurchase(42L, 7L, expiryDate);
+
+		QrCodeSigner.Payload payload = signer.verify(qrCode);
+
+		assertThat(payload).isNotNull();
+		assertThat(payload.isPurchase()).isTrue();
+		assertThat(payload.getId()).isEqualTo(42L);
+		assertThat(payload.getGymId()).isEqualTo(7L);
+		assertThat(payload.getExpiryDate()).isEqualTo(expiryDate);
+	}
+
+	@Test
+	void tamperedOrForeignCodesAreRejected() {
+		String qrCode = signer.signPurchase(42L, 7L, LocalDateTime.of(2030, 1, 1, 0, 0));
+		byte[] token = Base64.getUrlDecoder().decode(qrCode.substring(3));
+		token[8] ^= 1; // 구매 ID 변경
+		String tampered = "G1." + Base64.getUrlEncoder().withoutPadding().encodeToString(token);
+
+		assertThat(signer.verify(tampered)).isNull();
+		assertThat(new QrCodeSigner("other-secret").verify(qrCode)).isNull();
+		assertThat(signer.verify("G1.not-base64!")).isNull();
+		assertThat(signer.isSigned("550e8400-e29b-41d4-a716-446655440000")).isFalse();
+	}
+
+	@Test
+	void nonCanonicalEncodingsOfAValidCodeAreRejected() {
+		String qrCode = signer.signPurchase(42L, 7L, LocalDateTime.of(2030, 1, 1, 0, 0));
+		// 41바이트라 마지막 글자의 하위 2비트는 쓰이지 않음: 바꿔도 같은 바이트로 디코딩
+		String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+		int last = alphabet.indexOf(qrCode.charAt(qrCode.length() - 1));
+		String unusedBits = qrCode.substring(0, qrCode.length() - 1) + alphabet.charAt(last ^ 1);
+
+		assertThat(Base64.getUrlDecoder().decode(unusedBits.substring(3)))
+				.isEqualTo(Base64.getUrlDecoder().decode(qrCode.substring(3)));
+		assertThat(signer.verify(unusedBits)).isNull();
+		assertThat(signer.verify(qrCode + "=")).isNull();
+		assertThat(signer.verify(qrCode)).isNotNull();
+	}
+} 
\ No newline at end of file
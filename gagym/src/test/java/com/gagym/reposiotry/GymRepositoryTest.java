@@ -0,0 +1,111 @@
+package com.gagym.reposiotry;
+
+import com.gagym.entity.Gym;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 각 증감분을 자기 트랜잭션으로 커밋해야 하므로 테스트 트랜잭션 없이 실행
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("jpa-test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class GymRepositoryTest {
+
+	@Autowired
+	private GymRepository gymRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private TransactionTemplate transactionTemplate;
+	private Long gymId;
+
+	@BeforeEach
+	void setUp() {
+		transactionTemplate = new TransactionTemplate(transactionManager);
+		gymId = gymRepository.save(Gym.builder().name("헬스장").address("서울").rating(0.0).reviewCount(0)
+				.ratingSum(0L).build()).getId();
+	}
+
+	@AfterEach
+	void tearDown() {
+		gymRepository.deleteAll();
+	}
+
+	@Test
+	void concurrentRatingDeltasAreAllApplied() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Integer>> updates = new ArrayList<>();
+			for (int i = 0; i < 200; i++) {
+				int rating = i % 5 + 1;
+				updates.add(executor.submit(() -> transactionTemplate.execute(status ->
+						gymRepository.applyRatingDelta(gymId, rating, 1))));
+			}
+			for (Future<Integer> update : updates) {
+				assertThat(update.get(10, TimeUnit.SECONDS)).isEqualTo(1);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		Object[] aggregate = gymRepository.findRatingAggregates(0L, PageRequest.of(0, 1)).get(0);
+		assertThat(((Number) aggregate[2]).longValue()).isEqualTo(600L);
+		assertThat(((Number) aggregate[3]).intValue()).isEqualTo(200);
+		assertThat(gymRepository.findRatingById(gymId)).isEqualTo(3.0);
+	}
+
+	@Test
+	void averageIsComputedFromTheAppliedDelta() {
+		applyDelta(5, 1);
+		applyDelta(2, 1);
+		assertThat(gymRepository.findRatingById(gymId)).isEqualTo(3.5);
+
+		// 리뷰 수정 (2점 -> 4점)
+		applyDelta(2, 0);
+		assertThat(gymRepository.findRatingById(gymId)).isEqualTo(4.5);
+
+		// 리뷰 삭제 후 마지막 리뷰까지 삭제하면 0점
+		applyDelta(-4, -1);
+		assertThat(gymRepository.findRatingById(gymId)).isEqualTo(5.0);
+		applyDelta(-5, -1);
+		assertThat(gymRepository.findRatingById(gymId)).isEqualTo(0.0);
+	}
+
+	@Test
+	void resetIsSkippedWhenTheAggregateChangedSinceRead() {
+		applyDelta(4, 1);
+
+		Integer stale = transactionTemplate.execute(status ->
+				gymRepository.resetRatingAggregate(gymId, 0L, 0, 5.0, 5L, 1));
+		Integer current = transactionTemplate.execute(status ->
+				gymRepository.resetRatingAggregate(gymId, 4L, 1, 5.0, 5L, 1));
+
+		assertThat(stale).isZero();
+		assertThat(current).isEqualTo(1);
+		assertThat(gymRepository.findRatingById(gymId)).isEqualTo(5.0);
+	}
+
+	private void applyDelta(long sumDelta, int countDelta) {
+		transactionTemplate.execute(status -> gymRepository.applyRatingDelta(gymId, sumDelta, countDelta));
+	}
+} 
\ No newline at end of file
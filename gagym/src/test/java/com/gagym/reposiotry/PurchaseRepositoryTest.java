@@ -0,0 +1,209 @@
+package com.gagym.reposiotry;
+
+import com.gagym.dto.PurchaseDto;
+import com.gagym.entity.Gym;
+import com.gagym.entity.Purchase;
+import com.gagym.entity.Ticket;
+import com.gagym.entity.User;
+import com.gagym.service.QrKeyCodec;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 갱신을 자기 트랜잭션으로 커밋한 뒤 다시 읽어 확인하므로 테스트 트랜잭션 없이 실행
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("jpa-test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PurchaseRepositoryTest {
+
+	private static final Purchase.PaymentStatus COMPLETED = Purchase.PaymentStatus.COMPLETED;
+	private static final Purchase.PaymentStatus CANCELLED = Purchase.PaymentStatus.CANCELLED;
+
+	@Autowired
+	private PurchaseRepository purchaseRepository;
+
+	@Autowired
+	private TicketRepository ticketRepository;
+
+	@Autowired
+	private GymRepository gymRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private TransactionTemplate transactionTemplate;
+	private User user;
+	private Ticket ticket;
+
+	@BeforeEach
+	void setUp() {
+		transactionTemplate = new TransactionTemplate(transactionManager);
+		user = userRepository.save(User.builder().username("user").password("password").email("user@gagym.com")
+				.role(User.Role.USER).authProvider(User.AuthProvider.LOCAL).isEmailVerified(true).build());
+		Gym gym = gymRepository.save(Gym.builder().name("헬스장").address("서울").rating(0.0).reviewCount(0)
+				.ratingSum(0L).build());
+		ticket = ticketRepository.save(Ticket.builder().gym(gym).type(Ticket.TicketType.MONTHLY).name("월회원권")
+				.price(new BigDecimal("50000")).validDays(30).isActive(true).build());
+	}
+
+	@AfterEach
+	void tearDown() {
+		purchaseRepository.deleteAll();
+		ticketRepository.deleteAll();
+		gymRepository.deleteAll();
+		userRepository.deleteAll();
+	}
+
+	@Test
+	void upcomingExpiriesFollowTheExpiryIdKeyset() {
+		LocalDateTime base = LocalDateTime.now().plusDays(1).withNano(0);
+		Long first = purchaseExpiringAt(base, false).getId();
+		Long second = purchaseExpiringAt(base, false).getId();
+		Long third = purchaseExpiringAt(base.plusHours(1), false).getId();
+		purchaseExpiringAt(base.minusHours(1), true);
+
+		List<Object[]> page = purchaseRepository.findUpcomingExpiries(base.minusDays(1), 0L, PageRequest.of(0, 2));
+		List<Object[]> next = purchaseRepository.findUpcomingExpiries(
+				(LocalDateTime) page.get(1)[1], (Long) page.get(1)[0], PageRequest.of(0, 2));
+
+		assertThat(page).extracting(row -> row[0]).containsExactly(first, second);
+		assertThat(next).extracting(row -> row[0]).containsExactly(third);
+	}
+
+	@Test
+	void overdueRowsAreMarkedExpiredOnceAndListedNewestFirst() {
+		LocalDateTime now = LocalDateTime.now();
+		Long older = purchaseExpiringAt(now.minusDays(2), false).getId();
+		Long newer = purchaseExpiringAt(now.minusDays(1), false).getId();
+		purchaseExpiringAt(now.plusDays(1), false);
+
+		List<Long> overdue = purchaseRepository.findIdsToExpire(now, PageRequest.of(0, 10));
+		Integer marked = transactionTemplate.execute(status -> purchaseRepository.markExpired(overdue));
+		Integer markedAgain = transactionTemplate.execute(status -> purchaseRepository.markExpired(overdue));
+
+		assertThat(overdue).containsExactly(older, newer);
+		assertThat(marked).isEqualTo(2);
+		assertThat(markedAgain).isZero();
+		assertThat(purchaseRepository.findIdsToExpire(now, PageRequest.of(0, 10))).isEmpty();
+
+		List<PurchaseDto> firstPage = purchaseRepository.findExpiredDtos(Long.MAX_VALUE, PageRequest.of(0, 1));
+		List<PurchaseDto> secondPage = purchaseRepository.findExpiredDtos(firstPage.get(0).getId(), PageRequest.of(0, 1));
+		assertThat(firstPage).extracting(PurchaseDto::getId).containsExactly(newer);
+		assertThat(secondPage).extracting(PurchaseDto::getId).containsExactly(older);
+	}
+
+	@Test
+	void concurrentUseAndCancelNeverBothApply() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			for (int i = 0; i < 50; i++) {
+				Long id = completedPurchase().getId();
+				CyclicBarrier start = new CyclicBarrier(2);
+				Future<Integer> used = executor.submit(() -> {
+					start.await(5, TimeUnit.SECONDS);
+					return transactionTemplate.execute(status ->
+							purchaseRepository.markUsed(id, COMPLETED, LocalDateTime.now()));
+				});
+				Future<Integer> cancelled = executor.submit(() -> {
+					start.await(5, TimeUnit.SECONDS);
+					return transactionTemplate.execute(status ->
+							purchaseRepository.cancelCompleted(id, COMPLETED, CANCELLED, LocalDateTime.now()));
+				});
+
+				int usedCount = used.get(10, TimeUnit.SECONDS);
+				int cancelledCount = cancelled.get(10, TimeUnit.SECONDS);
+				Purchase result = purchaseRepository.findById(id).orElseThrow();
+
+				assertThat(usedCount + cancelledCount).isEqualTo(1);
+				if (usedCount == 1) {
+					assertThat(result.getStatus()).isEqualTo(COMPLETED);
+					assertThat(result.getIsUsed()).isTrue();
+				} else {
+					assertThat(result.getStatus()).isEqualTo(CANCELLED);
+					assertThat(result.getIsUsed()).isFalse();
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void usedPurchaseIsNotCancelledAndKeepsItsUsedFlag() {
+		Long id = completedPurchase().getId();
+		transactionTemplate.execute(status -> purchaseRepository.markUsed(id, COMPLETED, LocalDateTime.now()));
+
+		Integer cancelled = transactionTemplate.execute(status ->
+				purchaseRepository.cancelCompleted(id, COMPLETED, CANCELLED, LocalDateTime.now()));
+
+		Purchase result = purchaseRepository.findById(id).orElseThrow();
+		assertThat(cancelled).isZero();
+		assertThat(result.getStatus()).isEqualTo(COMPLETED);
+		assertThat(result.getIsUsed()).isTrue();
+	}
+
+	@Test
+	void scanStatesCarryTheTicketGymForLegacyCodes() {
+		String qrCode = "550e8400-e29b-41d4-a716-446655440000";
+		Purchase purchase = completedPurchase();
+		purchase.setQrCode(qrCode);
+		purchase.setQrKey(QrKeyCodec.keyOf(qrCode));
+		purchaseRepository.save(purchase);
+
+		List<Object[]> rows = purchaseRepository.findScanStatesByQrKeyIn(List.of(QrKeyCodec.keyOf(qrCode)));
+
+		assertThat(rows).hasSize(1);
+		assertThat(rows.get(0)[0]).isEqualTo(qrCode);
+		assertThat(rows.get(0)[5]).isEqualTo(ticket.getGym().getId());
+	}
+
+	private Purchase completedPurchase() {
+		return purchaseRepository.save(Purchase.builder()
+				.user(user)
+				.ticket(ticket)
+				.amount(ticket.getPrice())
+				.paymentMethod(Purchase.PaymentMethod.CARD)
+				.status(COMPLETED)
+				.expiryDate(LocalDateTime.now().plusDays(30))
+				.isUsed(false)
+				.isExpired(false)
+				.build());
+	}
+
+	private Purchase purchaseExpiringAt(LocalDateTime expiryDate, boolean expired) {
+		return purchaseRepository.save(Purchase.builder()
+				.user(user)
+				.ticket(ticket)
+				.amount(ticket.getPrice())
+				.paymentMethod(Purchase.PaymentMethod.CARD)
+				.status(Purchase.PaymentStatus.COMPLETED)
+				.expiryDate(expiryDate)
+				.isUsed(false)
+				.isExpired(expired)
+				.build());
+	}
+} 
\ No newline at end of file
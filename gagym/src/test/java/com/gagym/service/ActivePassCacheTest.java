@@ -0,0 +1,83 @@
+package com.gagym.service;
+
+import com.gagym.dto.PurchaseDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ActivePassCacheTest {
+
+	private final ActivePassCache cache = new ActivePassCache(100, 60_000L);
+	private final AtomicInteger loads = new AtomicInteger();
+
+	@Test
+	void useOrCancelEvictionForcesReload() {
+		cache.get(7L, loader(pass(1L, 30)));
+		cache.get(7L, loader(pass(1L, 30)));
+		assertThat(loads.get()).isEqualTo(1);
+
+		cache.evict(7L); // 사용, 취소
+		cache.get(7L, loader(pass(1L, 30)));
+		assertThat(loads.get()).isEqualTo(2);
+
+		cache.evictAll(List.of(7L, 8L)); // 게이트 일괄 사용
+		cache.evict(null);
+		assertThat(cache.get(7L, loader())).isEmpty();
+		assertThat(loads.get()).isEqualTo(3);
+	}
+
+	@Test
+	void passExpiringWhileCachedIsHiddenWithoutReload() {
+		PurchaseDto active = pass(1L, 30);
+		PurchaseDto expired = PurchaseDto.builder().id(2L).expiryDate(LocalDateTime.now().minusSeconds(1)).build();
+
+		assertThat(cache.get(7L, loader(active, expired))).containsExactly(active);
+		assertThat(cache.get(7L, loader(active, expired))).containsExactly(active);
+		assertThat(loads.get()).isEqualTo(1);
+	}
+
+	@Test
+	void evictionInsideATransactionIsRepeatedAfterCommit() {
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			cache.evict(7L);
+			// 커밋 전에 다른 요청이 이전 상태를 다시 적재
+			cache.get(7L, loader(pass(1L, 30)));
+			TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+
+		assertThat(cache.get(7L, loader())).isEmpty();
+		assertThat(loads.get()).isEqualTo(2);
+	}
+
+	@Test
+	void entriesAreReloadedAfterTheTtl() throws InterruptedException {
+		ActivePassCache shortLived = new ActivePassCache(100, 1L);
+		shortLived.get(7L, loader(pass(1L, 30)));
+
+		Thread.sleep(10);
+
+		assertThat(shortLived.get(7L, loader())).isEmpty();
+		assertThat(loads.get()).isEqualTo(2);
+	}
+
+	private Function<Long, List<PurchaseDto>> loader(PurchaseDto... passes) {
+		return userId -> {
+			loads.incrementAndGet();
+			return List.of(passes);
+		};
+	}
+
+	private static PurchaseDto pass(Long id, int days) {
+		return PurchaseDto.builder().id(id).expiryDate(LocalDateTime.now().plusDays(days)).build();
+	}
+} 
\ No newline at end of file
@@ -0,0 +1,148 @@
+package com.gagym.service;
+
+import com.gagym.reposiotry.PurchaseRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// 인스턴스들이 공유하는 daily_pass_sales 를 MySQL 호환 모드 H2 로 재현
+class DailyPassCapacityTest {
+
+	private final DriverManagerDataSource dataSource = new DriverManagerDataSource(
+			"jdbc:h2:mem:daily_pass;MODE=MySQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000", "sa", "");
+	private final JdbcTemplate jdbcTemplate = createTable(new JdbcTemplate(dataSource));
+	private final PurchaseRepository purchaseRepository = mock(PurchaseRepository.class);
+	private final DailyPassCapacity capacity = instance();
+
+	@AfterEach
+	void tearDown() {
+		jdbcTemplate.execute("DROP TABLE daily_pass_sales");
+	}
+
+	@Test
+	void parallelReservationsNeverExceedCapacity() throws Exception {
+		assertThat(reserveInParallel(List.of(capacity), 1L, 100, 5000)).isEqualTo(100);
+	}
+
+	@Test
+	void instancesSharingTheTableNeverExceedCapacityTogether() throws Exception {
+		List<DailyPassCapacity> instances = List.of(capacity, instance(), instance());
+
+		assertThat(reserveInParallel(instances, 1L, 100, 5000)).isEqualTo(100);
+		assertThat(soldCount(1L)).isEqualTo(100);
+	}
+
+	@Test
+	void unsoldLeasesAreReturnedOnFlushAndCountsSurviveRestart() {
+		LocalDate today = LocalDate.now();
+		for (int i = 0; i < 3; i++) {
+			assertThat(capacity.tryReserve(2L, today, 50)).isTrue();
+		}
+		assertThat(soldCount(2L)).isEqualTo(20); // 한 묶음을 받아 둠
+		capacity.shutdown();
+		assertThat(soldCount(2L)).isEqualTo(3);
+
+		// 재시작 후 한도를 5로 줄이면 남은 2장만 한 장씩 팔림
+
+		DailyPassCapacity restarted = instance();
+		assertThat(restarted.tryReserve(2L, today, 5)).isTrue();
+		assertThat(restarted.tryReserve(2L, today, 5)).isTrue();
+		assertThat(restarted.tryReserve(2L, today, 5)).isFalse();
+	}
+
+	@Test
+	void releasedReservationCanBeSoldAgain() {
+		LocalDate today = LocalDate.now();
+		assertThat(capacity.tryReserve(3L, today, 1)).isTrue();
+		assertThat(capacity.tryReserve(3L, today, 1)).isFalse();
+
+		capacity.release(3L, today);
+		capacity.flush();
+
+		assertThat(soldCount(3L)).isZero();
+		assertThat(instance().tryReserve(3L, today, 1)).isTrue();
+	}
+
+	@Test
+	void salesBeforeTheTableExistedAreSeededFromPurchases() {
+		LocalDate today = LocalDate.now();
+		when(purchaseRepository.countDailyPassSales(any(), anyCollection(), any(), any()))
+				.thenReturn(List.<Object[]>of(new Object[]{4L, 7L}));
+
+		capacity.reconcile();
+		capacity.reconcile(); // 이미 있는 행은 덮어쓰지 않음
+
+		assertThat(soldCount(4L)).isEqualTo(7);
+		assertThat(capacity.tryReserve(4L, today, 8)).isTrue();
+		assertThat(capacity.tryReserve(4L, today, 8)).isFalse();
+	}
+
+	@Test
+	void gymWithoutCapacityIsUnlimited() {
+		LocalDate today = LocalDate.now();
+		for (int i = 0; i < 1000; i++) {
+			assertThat(capacity.tryReserve(5L, today, null)).isTrue();
+		}
+		capacity.flush();
+		assertThat(soldCount(5L)).isEqualTo(1000);
+	}
+
+	private int reserveInParallel(List<DailyPassCapacity> instances, Long gymId, int limit, int attempts)
+			throws Exception {
+		LocalDate today = LocalDate.now();
+		ExecutorService executor = Executors.newFixedThreadPool(64);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Boolean>> futures = new ArrayList<>(attempts);
+		for (int i = 0; i < attempts; i++) {
+			DailyPassCapacity instance = instances.get(i % instances.size());
+			futures.add(executor.submit(() -> {
+				start.await();
+				return instance.tryReserve(gymId, today, limit);
+			}));
+		}
+		start.countDown();
+
+		int reserved = 0;
+		for (Future<Boolean> future : futures) {
+			if (future.get(30, TimeUnit.SECONDS)) {
+				reserved++;
+			}
+		}
+		executor.shutdownNow();
+		instances.forEach(DailyPassCapacity::flush);
+		return reserved;
+	}
+
+	private DailyPassCapacity instance() {
+		return new DailyPassCapacity(purchaseRepository, jdbcTemplate, new DataSourceTransactionManager(dataSource));
+	}
+
+	private int soldCount(Long gymId) {
+		return jdbcTemplate.queryForObject("SELECT sold_count FROM daily_pass_sales WHERE gym_id = ? AND sale_date = ?",
+				Integer.class, gymId, java.sql.Date.valueOf(LocalDate.now()));
+	}
+
+	private static JdbcTemplate createTable(JdbcTemplate jdbcTemplate) {
+		jdbcTemplate.execute("CREATE TABLE daily_pass_sales (id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+				"gym_id BIGINT NOT NULL, sale_date DATE NOT NULL, sold_count INT NOT NULL, updated_at TIMESTAMP, " +
+				"CONSTRAINT uk_daily_pass_sales_gym_date UNIQUE (gym_id, sale_date))");
+		return jdbcTemplate;
+	}
+} 
\ No newline at end of file
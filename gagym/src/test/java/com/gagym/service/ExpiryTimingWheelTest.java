@@ -0,0 +1,90 @@
+package com.gagym.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExpiryTimingWheelTest {
+
+	// 1초 칸 10개: 10초 이후는 상위 휠(10초 칸), 100초 이후는 그 위 휠
+	private final ExpiryTimingWheel wheel = new ExpiryTimingWheel(1_000, 10, 0);
+
+	@Test
+	void entriesCascadeDownFromOverflowWheelsAndFireOnTheirTick() {
+		assertThat(wheel.add(1L, 25_500)).isTrue();
+		assertThat(wheel.add(2L, 125_000)).isTrue();
+		assertThat(wheel.size()).isEqualTo(2);
+
+		assertThat(advance(24_999)).isEmpty();
+		assertThat(advance(25_000)).containsExactly(1L);
+		assertThat(advance(124_999)).isEmpty();
+		assertThat(advance(125_000)).containsExactly(2L);
+		assertThat(wheel.size()).isZero();
+	}
+
+	@Test
+	void farFutureDeadlinesSurviveManyRotations() {
+		wheel.add(1L, 1_234_000);
+
+		assertThat(advance(1_233_999)).isEmpty();
+		assertThat(wheel.size()).isEqualTo(1);
+		assertThat(advance(1_234_000)).containsExactly(1L);
+	}
+
+	@Test
+	void sameSlotEntriesFireInDeadlineThenIdOrder() {
+		wheel.add(3L, 5_900);
+		wheel.add(2L, 5_100);
+		wheel.add(1L, 5_100);
+		wheel.add(4L, 4_500);
+
+		assertThat(advance(6_000)).containsExactly(4L, 1L, 2L, 3L);
+	}
+
+	@Test
+	void reAddingAnIdMovesItToTheNewDeadline() {
+		wheel.add(1L, 5_000);
+		wheel.add(1L, 8_000);
+		assertThat(wheel.size()).isEqualTo(1);
+
+		assertThat(advance(7_999)).isEmpty();
+		assertThat(advance(8_000)).containsExactly(1L);
+
+		// 상위 휠에 있던 항목을 더 이른 시각으로 옮김
+		wheel.add(2L, 70_000);
+		wheel.add(2L, 9_500);
+		assertThat(advance(9_000)).containsExactly(2L);
+		assertThat(advance(80_000)).isEmpty();
+	}
+
+	@Test
+	void cancelRemovesEntriesFromAnyLevel() {
+		wheel.add(1L, 50_000);
+		wheel.add(2L, 500_000);
+
+		advance(45_000); // 1번은 하위 휠로 내려온 상태
+		assertThat(wheel.cancel(1L)).isTrue();
+		assertThat(wheel.cancel(2L)).isTrue();
+		assertThat(wheel.cancel(2L)).isFalse();
+		assertThat(wheel.size()).isZero();
+		assertThat(advance(600_000)).isEmpty();
+	}
+
+	@Test
+	void deadlinesInThePastAreRejected() {
+		advance(10_000);
+
+		assertThat(wheel.add(1L, 10_500)).isFalse();
+		assertThat(wheel.cancel(1L)).isFalse();
+		assertThat(wheel.add(2L, 11_000)).isTrue();
+	}
+
+	private List<Long> advance(long now) {
+		List<Long> expired = new ArrayList<>();
+		wheel.advance(now, expired::add);
+		return expired;
+	}
+} 
\ No newline at end of file
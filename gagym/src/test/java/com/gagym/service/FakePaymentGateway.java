@@ -0,0 +1,35 @@
+package com.gagym.service;
+
+import com.gagym.entity.Purchase;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+
+// 테스트용 결제 대행사 (지연 후 승인, declineRate 비율만큼 거절)
+class FakePaymentGateway implements PaymentGateway {
+
+	private final long latencyMillis;
+	private final double declineRate;
+
+	FakePaymentGateway(long latencyMillis, double declineRate) {
+		this.latencyMillis = latencyMillis;
+		this.declineRate = declineRate;
+	}
+
+	@Override
+	public PaymentResult charge(Long purchaseId, Long userId, BigDecimal amount, Purchase.PaymentMethod paymentMethod) {
+		try {
+			Thread.sleep(latencyMillis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("결제 요청이 중단되었습니다.");
+		}
+		if (amount == null || amount.signum() < 0) {
+			return PaymentResult.declined("결제 금액이 올바르지 않습니다.");
+		}
+		if (ThreadLocalRandom.current().nextDouble() < declineRate) {
+			return PaymentResult.declined("결제가 거절되었습니다.");
+		}
+		return PaymentResult.approved("FAKE-" + purchaseId);
+	}
+} 
\ No newline at end of file
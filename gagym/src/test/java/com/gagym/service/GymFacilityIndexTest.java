@@ -0,0 +1,63 @@
+package com.gagym.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GymFacilityIndexTest {
+
+	private final GymFacilityIndex index = new GymFacilityIndex(null);
+
+	@Test
+	void findAllAndFindAnyCombineFacilityBitmaps() {
+		index.put(1L, "샤워시설, 주차장");
+		index.put(2L, "샤워시설");
+		index.put(3L, "주차장,사우나");
+
+		assertThat(ids(index.findAll(List.of("샤워시설", "주차장")))).containsExactly(1L);
+		assertThat(ids(index.findAny(List.of("샤워시설", "사우나")))).containsExactly(1L, 2L, 3L);
+		assertThat(ids(index.findAll(List.of("샤워시설", "수영장")))).isEmpty();
+		assertThat(index.count("주차장")).isEqualTo(2);
+	}
+
+	@Test
+	void facilityNamesAreMatchedIgnoringCaseAndSpaces() {
+		index.put(1L, "GX  Room, 샤워시설");
+
+		assertThat(ids(index.findAll(List.of(" gx room ")))).containsExactly(1L);
+		assertThat(index.facilitiesOf(1L, "GX  Room, 샤워시설")).containsExactly("GX Room", "샤워시설");
+	}
+
+	@Test
+	void updateAndRemoveClearPreviousFacilities() {
+		index.put(1L, "샤워시설,주차장");
+		index.put(1L, "사우나");
+
+		assertThat(ids(index.findAny(List.of("샤워시설", "주차장")))).isEmpty();
+		assertThat(ids(index.findAll(List.of("사우나")))).containsExactly(1L);
+
+		index.remove(1L);
+		assertThat(ids(index.findAll(List.of("사우나")))).isEmpty();
+		// 인덱스에 없는 헬스장은 원본 문자열을 파싱
+		assertThat(index.facilitiesOf(1L, "주차장")).containsExactly("주차장");
+	}
+
+	@Test
+	void idsAfterPagesThroughBitmapInOrder() {
+		BitSet gymIds = new BitSet();
+		gymIds.set(2);
+		gymIds.set(5);
+		gymIds.set(9);
+
+		assertThat(GymFacilityIndex.idsAfter(gymIds, 0L, 2)).containsExactly(2L, 5L);
+		assertThat(GymFacilityIndex.idsAfter(gymIds, 5L, 2)).containsExactly(9L);
+		assertThat(GymFacilityIndex.idsAfter(gymIds, 9L, 2)).isEmpty();
+	}
+
+	private static List<Long> ids(BitSet gymIds) {
+		return GymFacilityIndex.idsAfter(gymIds, 0L, Integer.MAX_VALUE);
+	}
+} 
\ No newline at end of file
@@ -0,0 +1,85 @@
+package com.gagym.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GymRankingIndexTest {
+
+	private final GymRankingIndex index = new GymRankingIndex(null);
+
+	@Test
+	void ratingOrderIsDescendingWithUnratedLastAndIdTieBreak() {
+		index.put(1L, 4.0, null);
+		index.put(2L, null, null);
+		index.put(3L, 4.5, null);
+		index.put(4L, 4.0, null);
+
+		assertThat(ids(index.byRating(null, 10))).containsExactly(3L, 1L, 4L, 2L);
+	}
+
+	@Test
+	void feeOrderIsAscendingWithUnpricedLast() {
+		index.put(1L, null, new BigDecimal("70000"));
+		index.put(2L, null, null);
+		index.put(3L, null, new BigDecimal("50000"));
+		index.put(4L, null, new BigDecimal("50000.00"));
+
+		// 스케일이 달라도 같은 금액이면 ID 순
+		assertThat(ids(index.byFee(null, 10))).containsExactly(3L, 4L, 1L, 2L);
+	}
+
+	@Test
+	void pagesContinueAfterTheCursorEntry() {
+		for (long id = 1; id <= 5; id++) {
+			index.put(id, 5.0 - id * 0.5, null);
+		}
+
+		List<GymRankingIndex.RankEntry> first = index.byRating(null, 2);
+		List<GymRankingIndex.RankEntry> second = index.byRating(first.get(1), 2);
+
+		assertThat(ids(first)).containsExactly(1L, 2L);
+		assertThat(ids(second)).containsExactly(3L, 4L);
+		// 커서에 쓴 항목이 그 사이 지워져도 같은 위치에서 이어짐
+		index.remove(2L);
+		assertThat(ids(index.byRating(first.get(1), 2))).containsExactly(3L, 4L);
+	}
+
+	@Test
+	void ratingUpdateMovesTheEntryAndKeepsItsFee() {
+		index.put(1L, 3.0, new BigDecimal("50000"));
+		index.put(2L, 4.0, new BigDecimal("60000"));
+
+		index.updateRating(1L, 5.0);
+		index.updateRating(9L, 5.0); // 인덱스에 없는 헬스장은 무시
+
+		assertThat(ids(index.byRating(null, 10))).containsExactly(1L, 2L);
+		assertThat(index.byFee(null, 10).get(0).getMonthlyFee()).isEqualByComparingTo("50000");
+		assertThat(index.byRating(null, 10)).hasSize(2);
+
+		index.remove(1L);
+		assertThat(ids(index.byRating(null, 10))).containsExactly(2L);
+		assertThat(ids(index.byFee(null, 10))).containsExactly(2L);
+	}
+
+	@Test
+	void feeUpdateKeepsTheRatingFromReviews() {
+		index.put(1L, 4.5, new BigDecimal("50000"));
+
+		index.updateFee(1L, new BigDecimal("40000"));
+		index.updateFee(9L, new BigDecimal("40000")); // 인덱스에 없는 헬스장은 무시
+
+		assertThat(index.get(1L).getRating()).isEqualTo(4.5);
+		assertThat(index.get(1L).getMonthlyFee()).isEqualByComparingTo("40000");
+		assertThat(index.get(9L)).isNull();
+		assertThat(index.idsWithFeeBetween(new BigDecimal("45000"), new BigDecimal("60000"))).isEmpty();
+	}
+
+	private static List<Long> ids(List<GymRankingIndex.RankEntry> entries) {
+		return entries.stream().map(GymRankingIndex.RankEntry::getGymId).collect(Collectors.toList());
+	}
+} 
\ No newline at end of file
@@ -0,0 +1,137 @@
+package com.gagym.service;
+
+import com.gagym.dto.GymSearchDto;
+import com.gagym.reposiotry.GymRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GymSearchPlannerTest {
+
+	@Mock
+	private GymRepository gymRepository;
+
+	private GymSpatialIndex gymSpatialIndex;
+	private GymSearchPlanner gymSearchPlanner;
+
+	@BeforeEach
+	void setUp() {
+		when(gymRepository.findAllLocations()).thenReturn(List.of(
+				new Object[]{1L, 37.50, 127.00},
+				new Object[]{2L, 37.51, 127.01},
+				new Object[]{3L, 37.60, 127.10},
+				new Object[]{4L, 35.10, 129.00}));
+		when(gymRepository.findAllFacilities()).thenReturn(List.of(
+				new Object[]{1L, "샤워시설,주차장"},
+				new Object[]{2L, "샤워시설"},
+				new Object[]{3L, "주차장"},
+				new Object[]{4L, "샤워시설"}));
+		when(gymRepository.findAllNamesAndAddresses()).thenReturn(List.of(
+				new Object[]{1L, "강남 헬스", "서울 강남구"},
+				new Object[]{2L, "역삼 피트니스", "서울 강남구"},
+				new Object[]{3L, "마포 헬스장", "서울 마포구"},
+				new Object[]{4L, "부산 헬스", "부산 해운대구"}));
+		when(gymRepository.findAllRankings()).thenReturn(List.of(
+				new Object[]{1L, 4.5, new BigDecimal("50000")},
+				new Object[]{2L, 3.0, new BigDecimal("80000")},
+				new Object[]{3L, 4.8, new BigDecimal("40000")},
+				new Object[]{4L, null, new BigDecimal("30000")}));
+
+		gymSpatialIndex = new GymSpatialIndex(gymRepository);
+		GymFacilityIndex gymFacilityIndex = new GymFacilityIndex(gymRepository);
+		GymTextIndex gymTextIndex = new GymTextIndex(gymRepository);
+		GymRankingIndex gymRankingIndex = new GymRankingIndex(gymRepository);
+		gymSpatialIndex.rebuild();
+		gymFacilityIndex.rebuild();
+		gymTextIndex.rebuild();
+		gymRankingIndex.rebuild();
+		gymSearchPlanner = new GymSearchPlanner(gymRepository, gymSpatialIndex, gymFacilityIndex, gymTextIndex, gymRankingIndex);
+	}
+
+	@Test
+	void mostSelectivePredicateDrivesAndOthersFilterInMemory() {
+		GymSearchDto.Request request = GymSearchDto.Request.builder()
+				.latitude(37.50).longitude(127.00).radius(20.0)
+				.facilities(List.of("주차장"))
+				.minRating(4.7)
+				.build();
+
+		GymSearchPlanner.SearchPlan plan = gymSearchPlanner.plan(request, 20);
+
+		assertThat(plan.getExplain().getDriver()).isEqualTo("RATING");
+		assertThat(plan.getExplain().getSteps()).extracting(GymSearchDto.PlanStep::getSource)
+				.containsOnly("INDEX");
+		assertThat(plan.getCandidateIds()).containsExactly(3L);
+		assertThat(plan.isHasResidual()).isFalse();
+		assertThat(plan.getDistances().get(3L)).isBetween(10.0, 20.0);
+		verifyNoDatabaseSearch();
+	}
+
+	@Test
+	void feeRangeIsAnsweredFromTheRankingIndex() {
+		GymSearchDto.Request request = GymSearchDto.Request.builder()
+				.minFee(new BigDecimal("35000"))
+				.maxFee(new BigDecimal("60000"))
+				.build();
+
+		GymSearchPlanner.SearchPlan plan = gymSearchPlanner.plan(request, 20);
+
+		assertThat(plan.getExplain().getDriver()).isEqualTo("FEE");
+		// 히스토그램 추정은 구간 단위라 실제 건수 이상
+		assertThat(plan.getExplain().getSteps().get(0).getEstimatedRows()).isGreaterThanOrEqualTo(2L);
+		assertThat(plan.getCandidateIds()).containsExactly(1L, 3L);
+		verifyNoDatabaseSearch();
+	}
+
+	@Test
+	void locationResultsAreSortedByDistance() {
+		GymSearchDto.Request request = GymSearchDto.Request.builder()
+				.latitude(37.515).longitude(127.015).radius(5.0)
+				.build();
+
+		GymSearchPlanner.SearchPlan plan = gymSearchPlanner.plan(request, 20);
+
+		assertThat(plan.getCandidateIds()).containsExactly(2L, 1L);
+		assertThat(plan.getDistances().get(2L)).isLessThan(plan.getDistances().get(1L));
+	}
+
+	@Test
+	void locationSearchFailsUntilTheSpatialIndexIsLoaded() {
+		GymSearchPlanner notReady = new GymSearchPlanner(gymRepository, new GymSpatialIndex(gymRepository),
+				new GymFacilityIndex(gymRepository), new GymTextIndex(gymRepository), new GymRankingIndex(gymRepository));
+		GymSearchDto.Request request = GymSearchDto.Request.builder()
+				.latitude(37.50).longitude(127.00).radius(5.0)
+				.build();
+
+		assertThatThrownBy(() -> notReady.plan(request, 20)).isInstanceOf(RuntimeException.class);
+		verify(gymRepository, never()).findAllIds();
+	}
+
+	@Test
+	void searchWithoutPredicatesReadsOnlyOnePageOfIds() {
+		when(gymRepository.findIds(PageRequest.of(0, 2))).thenReturn(List.of(1L, 2L));
+
+		GymSearchPlanner.SearchPlan plan = gymSearchPlanner.plan(new GymSearchDto.Request(), 2);
+
+		assertThat(plan.getCandidateIds()).containsExactly(1L, 2L);
+		verify(gymRepository, never()).findAllIds();
+	}
+
+	private void verifyNoDatabaseSearch() {
+		verify(gymRepository, never()).findAllIds();
+		verify(gymRepository, never()).findIds(any());
+		verify(gymRepository, never()).findIdsByMonthlyFeeBetween(any(), any());
+	}
+} 
\ No newline at end of file
@@ -0,0 +1,130 @@
+package com.gagym.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gagym.config.QrCodeSigner;
+import com.gagym.dto.GymDto;
+import com.gagym.entity.Favorite;
+import com.gagym.entity.Gym;
+import com.gagym.entity.Ticket;
+import com.gagym.entity.User;
+import com.gagym.reposiotry.FavoriteRepository;
+import com.gagym.reposiotry.GymRepository;
+import com.gagym.reposiotry.TicketRepository;
+import com.gagym.reposiotry.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+// 실제 JPA 슬라이스에서 Hibernate 통계로 실행된 SQL 구문 수 확인 (즐겨찾기, 헬스장 이름 N+1 회귀 방지)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("jpa-test")
+class GymServiceQueryCountTest {
+
+	@Autowired
+	private GymRepository gymRepository;
+
+	@Autowired
+	private FavoriteRepository favoriteRepository;
+
+	@Autowired
+	private TicketRepository ticketRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+	private GymService gymService;
+	private TicketService ticketService;
+	private User user;
+	private List<Gym> gyms;
+
+	@BeforeEach
+	void setUp() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		gymService = new GymService(gymRepository, favoriteRepository, mock(GymSpatialIndex.class),
+				mock(GymFacilityIndex.class), mock(GymTextIndex.class), mock(GymRankingIndex.class),
+				mock(GymSearchPlanner.class), new GymCache(1000, 60_000L, 16, 1000, 60_000L),
+				new TicketCatalogCache(1000, 60_000L), entityManager, new ObjectMapper());
+		ticketService = new TicketService(ticketRepository, gymRepository, mock(QrCodeSigner.class),
+				new TicketCatalogCache(1000, 60_000L), mock(QrLookupIndex.class));
+
+		user = userRepository.save(User.builder().username("user").password("password").email("user@gagym.com")
+				.role(User.Role.USER).authProvider(User.AuthProvider.LOCAL).isEmailVerified(true).build());
+		gyms = new ArrayList<>();
+		for (int i = 1; i <= 500; i++) {
+			gyms.add(gymRepository.save(Gym.builder().name("헬스장" + i).address("서울").rating(0.0).reviewCount(0)
+					.ratingSum(0L).monthlyFee(new BigDecimal("50000")).build()));
+		}
+		for (int i : new int[]{2, 250, 499}) {
+			favoriteRepository.save(Favorite.builder().user(user).gym(gyms.get(i)).build());
+		}
+		entityManager.flush();
+		entityManager.clear();
+		statistics.clear();
+	}
+
+	@Test
+	void fiveHundredGymListingRunsAConstantNumberOfStatements() {
+		List<GymDto> result = gymService.getAllGyms(user.getId());
+
+		assertThat(result).hasSize(500);
+		assertThat(result).filteredOn(GymDto::getIsFavorite).extracting(GymDto::getId)
+				.containsExactly(gyms.get(2).getId(), gyms.get(250).getId(), gyms.get(499).getId());
+		// 전체 ID, 헬스장 IN 조회(500개 한 묶음), 즐겨찾기 ID
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+
+		statistics.clear();
+		gymService.getAllGyms(user.getId());
+		gymService.getGymById(gyms.get(2).getId(), user.getId());
+		assertThat(statistics.getPrepareStatementCount()).isZero();
+	}
+
+	@Test
+	void uncachedSearchListingReadsFavoritesOnce() {
+		List<GymDto> result = gymService.searchGymsByName("헬스장", user.getId());
+
+		assertThat(result).hasSize(500);
+		assertThat(result).filteredOn(GymDto::getIsFavorite).hasSize(3);
+		// 이름 검색, 즐겨찾기 ID
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+	}
+
+	@Test
+	void ticketListingLoadsTheGymNameInTheSameStatement() {
+		Gym gym = gymRepository.getReferenceById(gyms.get(0).getId());
+		for (int i = 0; i < 50; i++) {
+			ticketRepository.save(Ticket.builder().gym(gym).type(Ticket.TicketType.MONTHLY).name("이용권" + i)
+					.price(new BigDecimal("50000")).validDays(30).isActive(true).build());
+		}
+		entityManager.flush();
+		entityManager.clear();
+		statistics.clear();
+
+		assertThat(ticketService.getTicketsByType(gym.getId(), Ticket.TicketType.MONTHLY))
+				.hasSize(50).allMatch(ticket -> "헬스장1".equals(ticket.getGymName()));
+		assertThat(ticketService.getTicketsByGymId(gym.getId())).hasSize(50);
+		assertThat(ticketService.getTicketsByGymId(gym.getId())).hasSize(50); // 캐시 적중
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+	}
+} 
\ No newline at end of file
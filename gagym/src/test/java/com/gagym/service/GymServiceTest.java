@@ -0,0 +1,244 @@
+package com.gagym.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gagym.dto.GymDto;
+import com.gagym.entity.Gym;
+import com.gagym.reposiotry.FavoriteRepository;
+import com.gagym.reposiotry.GymRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GymServiceTest {
+
+	@Mock
+	private GymRepository gymRepository;
+
+	@Mock
+	private FavoriteRepository favoriteRepository;
+
+	@Mock
+	private GymSpatialIndex gymSpatialIndex;
+
+	@Mock
+	private GymFacilityIndex gymFacilityIndex;
+
+	@Mock
+	private GymTextIndex gymTextIndex;
+
+	@Mock
+	private GymRankingIndex gymRankingIndex;
+
+	@Mock
+	private GymSearchPlanner gymSearchPlanner;
+
+	@Spy
+	private GymCache gymCache = new GymCache(1000, 60_000L, 16, 1000, 60_000L);
+
+	@Mock
+	private TicketCatalogCache ticketCatalogCache;
+
+	@Mock
+	private EntityManager entityManager;
+
+	@Mock
+	private ObjectMapper objectMapper;
+
+	@InjectMocks
+	private GymService gymService;
+
+	@Test
+	void listingReadsFavoritesOnceInsteadOfPerGym() {
+		List<Gym> gyms = LongStream.rangeClosed(1, 500)
+				.mapToObj(id -> Gym.builder().id(id).name("헬스장" + id).address("서울").facilities("샤워시설").build())
+				.collect(Collectors.toList());
+		List<Long> gymIds = gyms.stream().map(Gym::getId).collect(Collectors.toList());
+		when(gymRepository.findAllIds()).thenReturn(gymIds);
+		when(gymRepository.findAllById(gymIds)).thenReturn(gyms);
+		when(favoriteRepository.findGymIdsByUserId(7L)).thenReturn(Set.of(3L, 250L));
+
+		List<GymDto> result = gymService.getAllGyms(7L);
+
+		assertThat(result).hasSize(500);
+		assertThat(result).filteredOn(GymDto::getIsFavorite).extracting(GymDto::getId).containsExactly(3L, 250L);
+		verify(gymRepository, times(1)).findAllIds();
+		verify(gymRepository, times(1)).findAllById(gymIds);
+		verify(favoriteRepository, times(1)).findGymIdsByUserId(7L);
+		verify(favoriteRepository, never()).existsByUserIdAndGymId(anyLong(), anyLong());
+		verifyNoMoreInteractions(gymRepository, favoriteRepository);
+	}
+
+	@Test
+	void repeatedListingIsServedFromCache() {
+		Gym gym = Gym.builder().id(1L).name("헬스장").address("서울").facilities("샤워시설").build();
+		when(gymRepository.findAllIds()).thenReturn(List.of(1L));
+		when(gymRepository.findAllById(List.of(1L))).thenReturn(List.of(gym));
+
+		gymService.getAllGyms(null);
+		gymService.getAllGyms(null);
+
+		verify(gymRepository, times(1)).findAllIds();
+		verify(gymRepository, times(1)).findAllById(List.of(1L));
+	}
+
+	@Test
+	void rolledBackCreateLeavesIndexesUntouched() {
+		when(gymRepository.save(any(Gym.class))).thenAnswer(invocation -> {
+			Gym gym = invocation.getArgument(0);
+			gym.setId(1L);
+			return gym;
+		});
+
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			gymService.createGym(gymDto());
+			verifyNoInteractions(gymSpatialIndex, gymTextIndex, gymRankingIndex);
+			TransactionSynchronizationManager.getSynchronizations()
+					.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+
+		verifyNoInteractions(gymSpatialIndex, gymTextIndex, gymRankingIndex);
+		verify(gymFacilityIndex, never()).put(anyLong(), any());
+	}
+
+	@Test
+	void committedCreateAndDeleteUpdateIndexes() {
+		when(gymRepository.save(any(Gym.class))).thenAnswer(invocation -> {
+			Gym gym = invocation.getArgument(0);
+			gym.setId(1L);
+			return gym;
+		});
+
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			gymService.createGym(gymDto());
+			gymService.deleteGym(2L);
+			verify(gymSpatialIndex, never()).remove(2L);
+			TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+
+		verify(gymSpatialIndex).put(1L, 37.5, 127.0);
+		verify(gymFacilityIndex).put(1L, "샤워시설");
+		verify(gymTextIndex).put(1L, "헬스장", "서울");
+		verify(gymRankingIndex).put(1L, null, new BigDecimal("50000"));
+		verify(gymSpatialIndex).remove(2L);
+		verify(gymTextIndex).remove(2L);
+		verify(gymRankingIndex).remove(2L);
+	}
+
+	@Test
+	void nearbyPagesPastTheMaximumDepthAreRejectedBeforeSearching() {
+		assertThat(gymService.isNearbyPageInRange(0, 20)).isTrue();
+		assertThat(gymService.isNearbyPageInRange(49, 20)).isTrue();
+		assertThat(gymService.isNearbyPageInRange(50, 20)).isFalse();
+		assertThat(gymService.isNearbyPageInRange(-1, 20)).isFalse();
+		// page * size 가 int 범위를 넘어도 음수가 되지 않음
+		assertThat(gymService.isNearbyPageInRange(Integer.MAX_VALUE, 100)).isFalse();
+
+		assertThatThrownBy(() -> gymService.searchNearbyGyms(37.5, 127.0, 5.0, Integer.MAX_VALUE, 100, null))
+				.isInstanceOf(RuntimeException.class);
+		verify(gymSpatialIndex, never()).findNearest(anyDouble(), anyDouble(), anyDouble(), anyInt());
+	}
+
+	@Test
+	void malformedRatingCursorIsReportedAsBadCursor() {
+		assertThatThrownBy(() -> gymService.getGymsByRatingPage(CursorCodec.encode("R", "abc", 1), 20, null))
+				.hasMessage("잘못된 커서입니다.");
+		assertThatThrownBy(() -> gymService.getGymsByRatingPage(CursorCodec.encode("R", "NaN", 1), 20, null))
+				.hasMessage("잘못된 커서입니다.");
+		assertThatThrownBy(() -> gymService.getGymsByPricePage(CursorCodec.encode("F", "1e", "x"), 20, null))
+				.hasMessage("잘못된 커서입니다.");
+		verifyNoInteractions(gymRepository);
+	}
+
+	@Test
+	void commonTokenSearchLoadsGymsInBoundedChunks() {
+		List<Long> gymIds = LongStream.rangeClosed(1, 1_200).boxed().collect(Collectors.toList());
+		when(gymTextIndex.isReady()).thenReturn(true);
+		when(gymTextIndex.searchName("헬스", Integer.MAX_VALUE)).thenReturn(gymIds);
+		when(gymRepository.findAllById(any())).thenAnswer(invocation -> {
+			List<Long> ids = invocation.getArgument(0);
+			assertThat(ids).hasSizeLessThanOrEqualTo(500);
+			return ids.stream().map(id -> Gym.builder().id(id).name("헬스" + id).address("서울").build())
+					.collect(Collectors.toList());
+		});
+
+		List<GymDto> result = gymService.searchGymsByName("헬스", null);
+
+		assertThat(result).extracting(GymDto::getId).containsExactlyElementsOf(gymIds);
+		verify(gymRepository, times(3)).findAllById(any());
+		verify(entityManager, times(3)).clear();
+	}
+
+	@Test
+	void gymDetailReadsFavoritesOncePerUser() {
+		when(gymRepository.findById(1L)).thenReturn(Optional.of(Gym.builder().id(1L).name("헬스장").address("서울").build()));
+		when(favoriteRepository.findGymIdsByUserId(7L)).thenReturn(Set.of(1L));
+
+		assertThat(gymService.getGymById(1L, 7L).getIsFavorite()).isTrue();
+		assertThat(gymService.getGymById(1L, 7L).getIsFavorite()).isTrue();
+		assertThat(gymService.getGymById(1L, null).getIsFavorite()).isFalse();
+
+		verify(gymRepository, times(1)).findById(1L);
+		verify(favoriteRepository, times(1)).findGymIdsByUserId(7L);
+		verify(favoriteRepository, never()).existsByUserIdAndGymId(anyLong(), anyLong());
+	}
+
+	@Test
+	void updateEvictsOnlyListsHoldingOrNowMatchingTheGym() {
+		Gym gym = Gym.builder().id(1L).name("헬스장").address("서울").monthlyFee(new BigDecimal("50000")).build();
+		when(gymRepository.findIdsByMonthlyFeeBetween(any(), any())).thenAnswer(invocation ->
+				invocation.<BigDecimal>getArgument(0).intValue() < 60000 ? List.of(1L) : List.of(2L));
+		when(gymRepository.findAllById(any())).thenReturn(List.of());
+		when(gymRepository.findById(1L)).thenReturn(Optional.of(gym));
+		when(gymRepository.save(gym)).thenReturn(gym);
+
+		BigDecimal low = new BigDecimal("40000");
+		BigDecimal mid = new BigDecimal("60000");
+		BigDecimal high = new BigDecimal("80000");
+		BigDecimal top = new BigDecimal("100000");
+		gymService.searchGymsByPrice(low, mid, null); // 1번 포함
+		gymService.searchGymsByPrice(mid, high, null); // 1번 없음, 새 회비 70000 이 들어감
+		gymService.searchGymsByPrice(high, top, null); // 1번 없음, 무관
+		gymService.updateGym(1L, GymDto.builder().name("헬스장").address("서울")
+				.monthlyFee(new BigDecimal("70000")).facilities(List.of()).build());
+		gymService.searchGymsByPrice(low, mid, null);
+		gymService.searchGymsByPrice(mid, high, null);
+		gymService.searchGymsByPrice(high, top, null);
+
+		verify(gymRepository, times(2)).findIdsByMonthlyFeeBetween(low, mid);
+		verify(gymRepository, times(2)).findIdsByMonthlyFeeBetween(mid, high);
+		verify(gymRepository, times(1)).findIdsByMonthlyFeeBetween(high, top);
+	}
+
+	private GymDto gymDto() {
+		return GymDto.builder().name("헬스장").address("서울").latitude(37.5).longitude(127.0)
+				.monthlyFee(new BigDecimal("50000")).facilities(List.of("샤워시설")).build();
+	}
+} 
\ No newline at end of file
@@ -0,0 +1,160 @@
+package com.gagym.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// 격자 인덱스와 GymRepository.findByLocationWithinRadius 의 하버사인 전체 스캔 비교 (헬스장 1만, 10만, 100만 개)
+// DB 쪽은 H2(MySQL 모드)에 같은 식을 SQL 로 실행, 인덱스 쪽은 후보 ID 를 찾은 뒤 기본 키로 읽는 경로까지 포함
+// 실행: 테스트 클래스패스로 main 실행 (단위 테스트에는 포함되지 않음)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class GymSpatialIndexBenchmark {
+
+	// 국내 좌표 범위에 고르게 분포
+	private static final double MIN_LATITUDE = 33.0;
+	private static final double MAX_LATITUDE = 38.5;
+	private static final double MIN_LONGITUDE = 126.0;
+	private static final double MAX_LONGITUDE = 129.5;
+	private static final double RADIUS_KM = 3.0;
+	private static final int QUERIES = 1024;
+
+	private static final String RADIUS_SQL = "SELECT id, latitude, longitude FROM gyms WHERE " +
+			"(6371 * acos(cos(radians(?)) * cos(radians(latitude)) * " +
+			"cos(radians(longitude) - radians(?)) + " +
+			"sin(radians(?)) * sin(radians(latitude)))) <= ?";
+
+	@Param({"10000", "100000", "1000000"})
+	public int size;
+
+	private GymSpatialIndex index;
+	private Connection connection;
+	private PreparedStatement radiusQuery;
+	private double[][] centers;
+	private int cursor;
+
+	@Setup(Level.Trial)
+	public void setUp() throws SQLException {
+		SplittableRandom random = new SplittableRandom(42);
+		index = new GymSpatialIndex(null);
+		connection = DriverManager.getConnection("jdbc:h2:mem:gym_spatial;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("DROP TABLE IF EXISTS gyms");
+			statement.execute("CREATE TABLE gyms (id BIGINT PRIMARY KEY, latitude DOUBLE, longitude DOUBLE)");
+		}
+		try (PreparedStatement insert = connection.prepareStatement("INSERT INTO gyms VALUES (?, ?, ?)")) {
+			for (int i = 1; i <= size; i++) {
+				double latitude = MIN_LATITUDE + random.nextDouble() * (MAX_LATITUDE - MIN_LATITUDE);
+				double longitude = MIN_LONGITUDE + random.nextDouble() * (MAX_LONGITUDE - MIN_LONGITUDE);
+				index.put((long) i, latitude, longitude);
+				insert.setLong(1, i);
+				insert.setDouble(2, latitude);
+				insert.setDouble(3, longitude);
+				insert.addBatch();
+				if (i % 10_000 == 0) {
+					insert.executeBatch();
+				}
+			}
+			insert.executeBatch();
+		}
+		radiusQuery = connection.prepareStatement(RADIUS_SQL);
+		centers = new double[QUERIES][];
+		for (int i = 0; i < QUERIES; i++) {
+			centers[i] = new double[]{
+					MIN_LATITUDE + random.nextDouble() * (MAX_LATITUDE - MIN_LATITUDE),
+					MIN_LONGITUDE + random.nextDouble() * (MAX_LONGITUDE - MIN_LONGITUDE)};
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws SQLException {
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("DROP TABLE gyms");
+		}
+		radiusQuery.close();
+		connection.close();
+	}
+
+	private double[] next() {
+		cursor = (cursor + 1) & (QUERIES - 1);
+		return centers[cursor];
+	}
+
+	@Benchmark
+	public List<Long> gridIndex() {
+		double[] center = next();
+		return index.findWithinRadius(center[0], center[1], RADIUS_KM);
+	}
+
+	// 서비스 경로와 같이 인덱스 결과를 기본 키 IN 조회로 읽음
+	@Benchmark
+	public int gridIndexThenLoadById() throws SQLException {
+		double[] center = next();
+		List<Long> gymIds = index.findWithinRadius(center[0], center[1], RADIUS_KM);
+		if (gymIds.isEmpty()) {
+			return 0;
+		}
+		StringBuilder sql = new StringBuilder("SELECT id, latitude, longitude FROM gyms WHERE id IN (");
+		for (int i = 0; i < gymIds.size(); i++) {
+			sql.append(i == 0 ? "?" : ", ?");
+		}
+		try (PreparedStatement load = connection.prepareStatement(sql.append(')').toString())) {
+			for (int i = 0; i < gymIds.size(); i++) {
+				load.setLong(i + 1, gymIds.get(i));
+			}
+			return count(load);
+		}
+	}
+
+	@Benchmark
+	public int haversineQuery() throws SQLException {
+		double[] center = next();
+		radiusQuery.setDouble(1, center[0]);
+		radiusQuery.setDouble(2, center[1]);
+		radiusQuery.setDouble(3, center[0]);
+		radiusQuery.setDouble(4, RADIUS_KM);
+		return count(radiusQuery);
+	}
+
+	private static int count(PreparedStatement statement) throws SQLException {
+		List<Long> gymIds = new ArrayList<>();
+		try (ResultSet rows = statement.executeQuery()) {
+			while (rows.next()) {
+				gymIds.add(rows.getLong(1));
+			}
+		}
+		return gymIds.size();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(GymSpatialIndexBenchmark.class.getSimpleName()).build()).run();
+	}
+} 
\ No newline at end of file
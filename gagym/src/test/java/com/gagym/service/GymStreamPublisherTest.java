@@ -0,0 +1,44 @@
+package com.gagym.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+class GymStreamPublisherTest {
+
+	private final GymService gymService = mock(GymService.class);
+	private final GymStreamPublisher publisher = new GymStreamPublisher(gymService, 600_000L, 1);
+
+	@AfterEach
+	void tearDown() {
+		publisher.shutdown();
+	}
+
+	@Test
+	void streamUsesItsOwnTimeoutAndRejectsBeyondTheConcurrencyLimit() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		doAnswer(invocation -> {
+			started.countDown();
+			release.await(5, TimeUnit.SECONDS);
+			return null;
+		}).when(gymService).streamAllGyms(isNull(), any());
+
+		ResponseBodyEmitter emitter = publisher.streamAllGyms(null);
+		assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+		// 전역 비동기 시간 제한이 아니라 이 스트림의 시간 제한
+		assertThat(emitter.getTimeout()).isEqualTo(600_000L);
+		assertThatThrownBy(() -> publisher.streamAllGyms(null)).isInstanceOf(RuntimeException.class);
+		release.countDown();
+	}
+} 
\ No newline at end of file
@@ -0,0 +1,67 @@
+package com.gagym.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GymTextIndexTest {
+
+	private final GymTextIndex index = new GymTextIndex(null);
+
+	@Test
+	void hangulPartialMatchesAreFoundBySyllableBigrams() {
+		index.put(1L, "강남 헬스클럽", "서울 강남구 역삼동");
+		index.put(2L, "헬스장", "서울 마포구 합정동");
+		index.put(3L, "크로스핏 강남", "서울 강남구 논현동");
+
+		assertThat(index.matchName("헬스")).containsExactly(1, 2);
+		assertThat(index.matchName("남헬")).containsExactly(1); // 공백을 지우고 색인
+		assertThat(index.matchName("스클럽")).containsExactly(1);
+		assertThat(index.matchAddress("강남구")).containsExactly(1, 3);
+		assertThat(index.matchName("요가")).isEmpty();
+	}
+
+	@Test
+	void bigramCandidatesAreConfirmedAgainstTheText() {
+		// "헬스" 와 "스장" 바이그램은 모두 가졌지만 "헬스장" 은 포함하지 않음
+		index.put(1L, "헬스 스장", "서울");
+		index.put(2L, "동네헬스장", "서울");
+
+		assertThat(index.matchName("헬스장")).containsExactly(2);
+	}
+
+	@Test
+	void searchRanksExactThenPrefixThenContains() {
+		index.put(1L, "우리동네 헬스장", "서울");
+		index.put(2L, "헬스장 강남점", "서울");
+		index.put(3L, "헬스장", "서울");
+		index.put(4L, "헬스장 역삼", "서울");
+
+		assertThat(index.searchName("헬스장", 10)).containsExactly(3L, 4L, 2L, 1L);
+		assertThat(index.searchName("헬스장", 2)).containsExactly(3L, 4L);
+		assertThat(index.searchName(" ", 10)).isEmpty();
+	}
+
+	@Test
+	void queriesAreNormalizedLikeIndexedText() {
+		index.put(1L, "GAGYM Fitness", "서울");
+
+		assertThat(index.matchName("gagym fit")).containsExactly(1);
+		// 전각 문자도 NFKC 로 같은 문자
+		assertThat(index.matchName("ＧＡＧＹＭ")).containsExactly(1);
+	}
+
+	@Test
+	void updateAndRemoveDropOldPostings() {
+		index.put(1L, "헬스장", "서울");
+		index.put(1L, "요가원", "부산");
+
+		assertThat(index.matchName("헬스")).isEmpty();
+		assertThat(index.matchName("요가")).containsExactly(1);
+		assertThat(index.matchAddress("서울")).isEmpty();
+
+		index.remove(1L);
+		assertThat(index.matchName("요가")).isEmpty();
+		assertThat(index.estimateName("요가")).isZero();
+	}
+} 
\ No newline at end of file
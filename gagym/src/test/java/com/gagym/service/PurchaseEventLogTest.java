@@ -0,0 +1,80 @@
+package com.gagym.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PurchaseEventLogTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void eventsRollOverSegmentsAndReadBackInOrder() throws Exception {
+		PurchaseEventLog eventLog = open(4, 168);
+		for (long id = 1; id <= 10; id++) {
+			eventLog.append(PurchaseEventLog.EventType.PURCHASED, id, 7L, 10L, 3L, new BigDecimal("50000"));
+		}
+
+		List<PurchaseEventLog.Event> events = eventLog.read(0, 100);
+
+		assertThat(segmentCount()).isEqualTo(3);
+		assertThat(events).hasSize(10);
+		assertThat(events.get(0).getPurchaseId()).isEqualTo(1L);
+		assertThat(events.get(9).getSequence()).isEqualTo(10L);
+		assertThat(events.get(9).getAmount()).isEqualByComparingTo("50000");
+		assertThat(eventLog.read(5, 3)).extracting(PurchaseEventLog.Event::getSequence).containsExactly(6L, 7L, 8L);
+		eventLog.close();
+	}
+
+	@Test
+	void reopenedLogContinuesAfterLastRecord() throws Exception {
+		PurchaseEventLog eventLog = open(4, 168);
+		for (long id = 1; id <= 6; id++) {
+			eventLog.append(PurchaseEventLog.EventType.PURCHASED, id, 7L, 10L, 3L, null);
+		}
+		eventLog.close();
+
+		PurchaseEventLog reopened = open(4, 168);
+		reopened.append(PurchaseEventLog.EventType.CANCELLED, 6L, 7L, 10L, 3L, null);
+
+		assertThat(reopened.lastSequence()).isEqualTo(7L);
+		assertThat(reopened.replay(0, event -> { })).isEqualTo(7L);
+		assertThat(reopened.read(6, 1).get(0).getType()).isEqualTo(PurchaseEventLog.EventType.CANCELLED);
+		reopened.close();
+	}
+
+	@Test
+	void expiredSegmentsArePurgedExceptActiveOne() throws Exception {
+		PurchaseEventLog eventLog = open(4, 0);
+		for (long id = 1; id <= 10; id++) {
+			eventLog.append(PurchaseEventLog.EventType.USED, id, null, 10L, null, null);
+		}
+		Thread.sleep(5);
+
+		eventLog.purgeExpiredSegments();
+
+		assertThat(segmentCount()).isEqualTo(1);
+		assertThat(eventLog.read(0, 100)).extracting(PurchaseEventLog.Event::getSequence).containsExactly(9L, 10L);
+		eventLog.close();
+	}
+
+	private PurchaseEventLog open(int segmentRecords, long retentionHours) {
+		PurchaseEventLog eventLog = new PurchaseEventLog(directory.toString(), segmentRecords, retentionHours);
+		eventLog.open();
+		return eventLog;
+	}
+
+	private long segmentCount() throws Exception {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.count();
+		}
+	}
+} 
\ No newline at end of file
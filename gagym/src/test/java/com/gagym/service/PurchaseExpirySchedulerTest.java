@@ -0,0 +1,109 @@
+package com.gagym.service;
+
+import com.gagym.entity.Gym;
+import com.gagym.entity.Purchase;
+import com.gagym.entity.Ticket;
+import com.gagym.entity.User;
+import com.gagym.reposiotry.GymRepository;
+import com.gagym.reposiotry.PurchaseRepository;
+import com.gagym.reposiotry.TicketRepository;
+import com.gagym.reposiotry.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("jpa-test")
+class PurchaseExpirySchedulerTest {
+
+	@Autowired
+	private PurchaseRepository purchaseRepository;
+
+	@Autowired
+	private TicketRepository ticketRepository;
+
+	@Autowired
+	private GymRepository gymRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private PurchaseExpiryScheduler purchaseExpiryScheduler;
+	private User user;
+	private Ticket ticket;
+
+	@BeforeEach
+	void setUp() {
+		purchaseExpiryScheduler = new PurchaseExpiryScheduler(purchaseRepository,
+				new TransactionTemplate(transactionManager), mock(QrLookupIndex.class));
+		user = userRepository.save(User.builder().username("user").password("password").email("user@gagym.com")
+				.role(User.Role.USER).authProvider(User.AuthProvider.LOCAL).isEmailVerified(true).build());
+		Gym gym = gymRepository.save(Gym.builder().name("헬스장").address("서울").rating(0.0).reviewCount(0).build());
+		ticket = ticketRepository.save(Ticket.builder().gym(gym).type(Ticket.TicketType.MONTHLY).name("월회원권")
+				.price(new BigDecimal("50000")).validDays(30).isActive(true).build());
+	}
+
+	@Test
+	void startSweepsOverdueRowsInChunksAndLeavesFutureOnes() {
+		LocalDateTime now = LocalDateTime.now();
+		List<Purchase> purchases = new ArrayList<>();
+		for (int i = 0; i < 1200; i++) {
+			purchases.add(purchase(now.minusDays(1).plusSeconds(i)));
+		}
+		purchaseRepository.saveAll(purchases);
+		Long future = purchaseRepository.save(purchase(now.plusDays(1))).getId();
+
+		purchaseExpiryScheduler.start();
+
+		assertThat(purchaseRepository.findIdsToExpire(LocalDateTime.now(), PageRequest.of(0, 2000))).isEmpty();
+		assertThat(purchaseRepository.findUpcomingExpiries(now, 0L, PageRequest.of(0, 10)))
+				.extracting(row -> row[0]).containsExactly(future);
+	}
+
+	@Test
+	void tickExpiresPurchasesLoadedIntoTheWheel() throws InterruptedException {
+		LocalDateTime now = LocalDateTime.now();
+		Long soon = purchaseRepository.save(purchase(now.plusSeconds(1))).getId();
+		Long later = purchaseRepository.save(purchase(now.plusDays(1))).getId();
+		purchaseExpiryScheduler.start();
+
+		Thread.sleep(2_500);
+		purchaseExpiryScheduler.tick();
+
+		assertThat(purchaseRepository.findIdsToExpire(LocalDateTime.now(), PageRequest.of(0, 10))).isEmpty();
+		assertThat(purchaseRepository.findUpcomingExpiries(now, 0L, PageRequest.of(0, 10)))
+				.extracting(row -> row[0]).containsExactly(later)
+				.doesNotContain(soon);
+	}
+
+	private Purchase purchase(LocalDateTime expiryDate) {
+		return Purchase.builder()
+				.user(user)
+				.ticket(ticket)
+				.amount(ticket.getPrice())
+				.paymentMethod(Purchase.PaymentMethod.CARD)
+				.status(Purchase.PaymentStatus.COMPLETED)
+				.expiryDate(expiryDate)
+				.isUsed(false)
+				.isExpired(false)
+				.build();
+	}
+} 
\ No newline at end of file
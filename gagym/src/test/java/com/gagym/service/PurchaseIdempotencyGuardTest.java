@@ -0,0 +1,81 @@
+package com.gagym.service;
+
+import com.gagym.dto.PurchaseDto;
+import com.gagym.entity.Purchase;
+import com.gagym.reposiotry.PurchaseRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PurchaseIdempotencyGuardTest {
+
+	private final PurchaseService purchaseService = mock(PurchaseService.class);
+	private final PurchaseRepository purchaseRepository = mock(PurchaseRepository.class);
+	private final PurchaseIdempotencyGuard guard =
+			new PurchaseIdempotencyGuard(purchaseService, purchaseRepository, 1000, 60_000);
+
+	@Test
+	void concurrentRetriesWithSameKeyPurchaseOnce() throws Exception {
+		PurchaseDto purchase = PurchaseDto.builder().id(1L).userId(7L).ticketId(3L).build();
+		when(purchaseRepository.findDtoByUserIdAndIdempotencyKey(anyLong(), anyString())).thenReturn(Optional.empty());
+		when(purchaseService.purchaseTicket(eq(7L), eq(3L), any(), eq("key-1"))).thenAnswer(invocation -> {
+			Thread.sleep(50);
+			return purchase;
+		});
+
+		int retries = 200;
+		ExecutorService executor = Executors.newFixedThreadPool(32);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<PurchaseDto>> futures = new ArrayList<>(retries);
+		for (int i = 0; i < retries; i++) {
+			futures.add(executor.submit(() -> {
+				start.await();
+				return guard.purchaseTicket(7L, 3L, Purchase.PaymentMethod.CARD, "key-1");
+			}));
+		}
+		start.countDown();
+
+		for (Future<PurchaseDto> future : futures) {
+			assertThat(future.get(10, TimeUnit.SECONDS).getId()).isEqualTo(1L);
+		}
+		executor.shutdownNow();
+
+		verify(purchaseService, times(1)).purchaseTicket(eq(7L), eq(3L), any(), eq("key-1"));
+	}
+
+	@Test
+	void storedPurchaseIsReturnedWithoutPurchasingAgain() {
+		PurchaseDto stored = PurchaseDto.builder().id(2L).userId(7L).ticketId(3L).build();
+		when(purchaseRepository.findDtoByUserIdAndIdempotencyKey(7L, "key-2")).thenReturn(Optional.of(stored));
+
+		assertThat(guard.purchaseTicket(7L, 3L, Purchase.PaymentMethod.CARD, "key-2")).isSameAs(stored);
+		verify(purchaseService, times(0)).purchaseTicket(anyLong(), anyLong(), any(), anyString());
+	}
+
+	@Test
+	void sameKeyForDifferentTicketIsRejected() {
+		PurchaseDto stored = PurchaseDto.builder().id(3L).userId(7L).ticketId(3L).build();
+		when(purchaseRepository.findDtoByUserIdAndIdempotencyKey(7L, "key-3")).thenReturn(Optional.of(stored));
+
+		assertThatThrownBy(() -> guard.purchaseTicket(7L, 4L, Purchase.PaymentMethod.CARD, "key-3"))
+				.isInstanceOf(RuntimeException.class);
+	}
+} 
\ No newline at end of file
@@ -0,0 +1,240 @@
+package com.gagym.service;
+
+import com.gagym.config.QrCodeSigner;
+import com.gagym.dto.PurchaseDto;
+import com.gagym.entity.Gym;
+import com.gagym.entity.Purchase;
+import com.gagym.entity.Ticket;
+import com.gagym.entity.User;
+import com.gagym.reposiotry.PurchaseRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PurchasePaymentProcessorTest {
+
+	private static final Purchase.PaymentStatus PENDING = Purchase.PaymentStatus.PENDING;
+	private static final Purchase.PaymentStatus COMPLETED = Purchase.PaymentStatus.COMPLETED;
+	private static final Purchase.PaymentStatus FAILED = Purchase.PaymentStatus.FAILED;
+
+	@Mock
+	private PurchaseRepository purchaseRepository;
+
+	@Mock
+	private TransactionTemplate transactionTemplate;
+
+	@Mock
+	private QrCodeSigner qrCodeSigner;
+
+	@Mock
+	private QrGateEngine qrGateEngine;
+
+	@Mock
+	private PurchaseExpiryScheduler purchaseExpiryScheduler;
+
+	@Mock
+	private ActivePassCache activePassCache;
+
+	@Mock
+	private DailyPassCapacity dailyPassCapacity;
+
+	@Mock
+	private PurchaseEventLog purchaseEventLog;
+
+	@Mock
+	private QrLookupIndex qrLookupIndex;
+
+	private PurchasePaymentProcessor processor;
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		if (processor != null) {
+			processor.shutdown();
+		}
+	}
+
+	@Test
+	void approvedPaymentCompletesAndNotifiesEveryWatcher() throws Exception {
+		processor = processor(new FakePaymentGateway(0, 0.0), 1, 10);
+		stubTransactions();
+		when(purchaseRepository.findById(1L)).thenReturn(Optional.of(pending(1L, Ticket.TicketType.MONTHLY, LocalDateTime.now())));
+		when(qrCodeSigner.signPurchase(eq(1L), eq(10L), any())).thenReturn("qr-1");
+		when(purchaseRepository.finishPayment(eq(1L), eq(PENDING), eq(COMPLETED), any(), eq("qr-1"), any(), any()))
+				.thenReturn(1);
+		when(purchaseRepository.findDtoById(1L)).thenReturn(Optional.of(result(1L, COMPLETED)));
+
+		CompletableFuture<PurchaseDto> first = processor.watch(1L);
+		CompletableFuture<PurchaseDto> second = processor.watch(1L);
+		processor.submitAfterCommit(1L);
+
+		assertThat(first.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo("COMPLETED");
+		assertThat(second.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo("COMPLETED");
+		verify(qrLookupIndex).putPurchase("qr-1", 1L);
+		verify(qrGateEngine).registerAfterCommit(eq("qr-1"), eq(1L), eq(10L), any());
+		verify(purchaseExpiryScheduler).schedule(eq(1L), any());
+		verify(activePassCache).evict(7L);
+	}
+
+	@Test
+	void declinedPaymentFailsAndReleasesTheDailyPass() throws Exception {
+		processor = processor(new FakePaymentGateway(0, 1.0), 1, 10);
+		stubTransactions();
+		Purchase purchase = pending(2L, Ticket.TicketType.DAILY, LocalDateTime.now());
+		when(purchaseRepository.findById(2L)).thenReturn(Optional.of(purchase));
+		when(purchaseRepository.finishPayment(eq(2L), eq(PENDING), eq(FAILED), isNull(), isNull(), isNull(), any()))
+				.thenReturn(1);
+		when(purchaseRepository.findDtoById(2L)).thenReturn(Optional.of(result(2L, FAILED)));
+
+		CompletableFuture<PurchaseDto> watcher = processor.watch(2L);
+		processor.submitAfterCommit(2L);
+
+		assertThat(watcher.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo("FAILED");
+		verify(dailyPassCapacity).releaseAfterCommit(10L, purchase.getPurchaseDate().toLocalDate());
+		verifyNoInteractions(qrCodeSigner, qrGateEngine, qrLookupIndex, purchaseExpiryScheduler);
+	}
+
+	@Test
+	void paymentSettledElsewhereIsNotAppliedTwice() throws Exception {
+		processor = processor(new FakePaymentGateway(0, 0.0), 1, 10);
+		stubTransactions();
+		when(purchaseRepository.findById(3L)).thenReturn(Optional.of(pending(3L, Ticket.TicketType.MONTHLY, LocalDateTime.now())));
+		when(qrCodeSigner.signPurchase(eq(3L), eq(10L), any())).thenReturn("qr-3");
+		// 조건부 전환이 0건 (그 사이 다른 작업이 PENDING 을 끝냄)
+		when(purchaseRepository.finishPayment(eq(3L), eq(PENDING), eq(COMPLETED), any(), eq("qr-3"), any(), any()))
+				.thenReturn(0);
+		when(purchaseRepository.findDtoById(3L)).thenReturn(Optional.of(result(3L, COMPLETED)));
+
+		CompletableFuture<PurchaseDto> watcher = processor.watch(3L);
+		processor.submitAfterCommit(3L);
+
+		assertThat(watcher.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo("COMPLETED");
+		verifyNoInteractions(qrLookupIndex, qrGateEngine, purchaseExpiryScheduler, activePassCache, purchaseEventLog);
+	}
+
+	@Test
+	void submissionsBeyondTheQueueAreLeftPendingForRecovery() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		List<Long> charged = new CopyOnWriteArrayList<>();
+		processor = processor((purchaseId, userId, amount, paymentMethod) -> {
+			charged.add(purchaseId);
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return PaymentGateway.PaymentResult.declined("결제가 거절되었습니다.");
+		}, 1, 1);
+		stubTransactions();
+		when(purchaseRepository.findById(1L)).thenReturn(Optional.of(pending(1L, Ticket.TicketType.MONTHLY, LocalDateTime.now())));
+		when(purchaseRepository.findById(2L)).thenReturn(Optional.of(pending(2L, Ticket.TicketType.MONTHLY, LocalDateTime.now())));
+		when(purchaseRepository.finishPayment(anyLong(), eq(PENDING), eq(FAILED), any(), any(), any(), any())).thenReturn(1);
+		when(purchaseRepository.findDtoById(2L)).thenReturn(Optional.of(result(2L, FAILED)));
+
+		CompletableFuture<PurchaseDto> last = processor.watch(2L);
+		// 작업 스레드 1개가 1번을 처리하는 동안 대기열(1칸)은 2번으로 가득 참
+		processor.submitAfterCommit(1L);
+		processor.submitAfterCommit(2L);
+		processor.submitAfterCommit(3L);
+		release.countDown();
+
+		assertThat(last.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo("FAILED");
+		assertThat(charged).containsExactly(1L, 2L);
+		verify(purchaseRepository, never()).findById(3L);
+	}
+
+	@Test
+	void gatewayErrorsFailThePurchaseOnlyAfterTheCutoff() throws Exception {
+		processor = processor((purchaseId, userId, amount, paymentMethod) -> {
+			throw new RuntimeException("결제 대행사 응답 시간 초과");
+		}, 1, 10);
+		stubTransactions();
+		when(purchaseRepository.findById(4L)).thenReturn(Optional.of(
+				pending(4L, Ticket.TicketType.MONTHLY, LocalDateTime.now().minusMinutes(1))));
+		when(purchaseRepository.findById(5L)).thenReturn(Optional.of(
+				pending(5L, Ticket.TicketType.MONTHLY, LocalDateTime.now().minusHours(1))));
+		when(purchaseRepository.finishPayment(eq(5L), eq(PENDING), eq(FAILED), isNull(), isNull(), isNull(), any()))
+				.thenReturn(1);
+		when(purchaseRepository.findDtoById(5L)).thenReturn(Optional.of(result(5L, FAILED)));
+
+		CompletableFuture<PurchaseDto> recent = processor.watch(4L);
+		CompletableFuture<PurchaseDto> old = processor.watch(5L);
+		processor.submitAfterCommit(4L);
+		processor.submitAfterCommit(5L);
+
+		assertThat(old.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo("FAILED");
+		// 작업 스레드가 하나라 4번 처리는 이미 끝났고, 최근 구매는 PENDING 으로 남아 재시도 대상
+		assertThat(recent).isNotDone();
+		verify(purchaseRepository, never()).finishPayment(eq(4L), any(), any(), any(), any(), any(), any());
+	}
+
+	@Test
+	void unwatchedRequestsAreNotNotified() throws Exception {
+		processor = processor(new FakePaymentGateway(0, 0.0), 1, 10);
+		CompletableFuture<PurchaseDto> timedOut = processor.watch(6L);
+		CompletableFuture<PurchaseDto> waiting = processor.watch(6L);
+		processor.unwatch(6L, timedOut);
+		stubTransactions();
+		when(purchaseRepository.findById(6L)).thenReturn(Optional.empty());
+		when(purchaseRepository.findDtoById(6L)).thenReturn(Optional.of(result(6L, COMPLETED)));
+
+		processor.submitAfterCommit(6L);
+
+		assertThat(waiting.get(5, TimeUnit.SECONDS).getId()).isEqualTo(6L);
+		assertThat(timedOut).isNotDone();
+	}
+
+	private PurchasePaymentProcessor processor(PaymentGateway paymentGateway, int workers, int queueCapacity) {
+		return new PurchasePaymentProcessor(purchaseRepository, paymentGateway, transactionTemplate, qrCodeSigner,
+				qrGateEngine, purchaseExpiryScheduler, activePassCache, dailyPassCapacity, purchaseEventLog,
+				qrLookupIndex, workers, queueCapacity);
+	}
+
+	private void stubTransactions() {
+		lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+				invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+		lenient().doAnswer(invocation -> {
+			invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+			return null;
+		}).when(transactionTemplate).executeWithoutResult(any());
+	}
+
+	private static Purchase pending(Long id, Ticket.TicketType type, LocalDateTime createdAt) {
+		Gym gym = Gym.builder().id(10L).name("헬스장").build();
+		Ticket ticket = Ticket.builder().id(3L).gym(gym).type(type).name("이용권")
+				.price(new BigDecimal("50000")).validDays(30).build();
+		return Purchase.builder()
+				.id(id)
+				.user(User.builder().id(7L).username("user").build())
+				.ticket(ticket)
+				.amount(ticket.getPrice())
+				.paymentMethod(Purchase.PaymentMethod.CARD)
+				.status(PENDING)
+				.purchaseDate(createdAt)
+				.createdAt(createdAt)
+				.build();
+	}
+
+	private static PurchaseDto result(Long id, Purchase.PaymentStatus status) {
+		return PurchaseDto.builder().id(id).status(status.name()).build();
+	}
+} 
\ No newline at end of file
@@ -0,0 +1,150 @@
+package com.gagym.service;
+
+import com.gagym.config.QrCodeSigner;
+import com.gagym.dto.PurchaseDto;
+import com.gagym.dto.ReviewDto;
+import com.gagym.entity.Gym;
+import com.gagym.entity.Purchase;
+import com.gagym.entity.Review;
+import com.gagym.entity.Ticket;
+import com.gagym.entity.User;
+import com.gagym.reposiotry.GymRatingHistogramRepository;
+import com.gagym.reposiotry.GymRepository;
+import com.gagym.reposiotry.PurchaseRepository;
+import com.gagym.reposiotry.ReviewRepository;
+import com.gagym.reposiotry.TicketRepository;
+import com.gagym.reposiotry.TrainerRepository;
+import com.gagym.reposiotry.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+// 구매 내역, 리뷰 피드가 행마다 연관 엔티티를 지연 로딩하지 않는지 Hibernate 통계로 확인
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("jpa-test")
+class PurchaseServiceQueryCountTest {
+
+	@Autowired
+	private PurchaseRepository purchaseRepository;
+
+	@Autowired
+	private TicketRepository ticketRepository;
+
+	@Autowired
+	private GymRepository gymRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private ReviewRepository reviewRepository;
+
+	@Autowired
+	private TrainerRepository trainerRepository;
+
+	@Autowired
+	private GymRatingHistogramRepository gymRatingHistogramRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+	private PurchaseService purchaseService;
+	private ReviewService reviewService;
+	private User user;
+	private List<Gym> gyms;
+
+	@BeforeEach
+	void setUp() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		purchaseService = new PurchaseService(purchaseRepository, ticketRepository, userRepository,
+				mock(QrGateEngine.class), mock(JdbcTemplate.class), mock(QrCodeSigner.class),
+				new ActivePassCache(100, 60_000L), mock(DailyPassCapacity.class),
+				mock(PurchasePaymentProcessor.class), mock(PurchaseEventLog.class), mock(QrLookupIndex.class));
+		reviewService = new ReviewService(reviewRepository, userRepository, gymRepository, trainerRepository,
+				gymRatingHistogramRepository, mock(GymCache.class), mock(GymRatingHistogramCache.class),
+				mock(GymRankingIndex.class), new ReviewFeedCache(100, 60_000L));
+
+		user = userRepository.save(User.builder().username("user").password("password").email("user@gagym.com")
+				.nickname("회원").role(User.Role.USER).authProvider(User.AuthProvider.LOCAL).isEmailVerified(true)
+				.build());
+		gyms = new ArrayList<>();
+		for (int i = 1; i <= 10; i++) {
+			gyms.add(gymRepository.save(Gym.builder().name("헬스장" + i).address("서울").rating(0.0).reviewCount(0)
+					.ratingSum(0L).build()));
+		}
+	}
+
+	@Test
+	void purchaseHistoryOfTwoHundredRowsIsOneStatement() {
+		List<Ticket> tickets = new ArrayList<>();
+		for (Gym gym : gyms) {
+			tickets.add(ticketRepository.save(Ticket.builder().gym(gym).type(Ticket.TicketType.MONTHLY).name("월회원권")
+					.price(new BigDecimal("50000")).validDays(30).isActive(true).build()));
+		}
+		for (int i = 0; i < 200; i++) {
+			Ticket ticket = tickets.get(i % tickets.size());
+			purchaseRepository.save(Purchase.builder().user(user).ticket(ticket).amount(ticket.getPrice())
+					.paymentMethod(Purchase.PaymentMethod.CARD).status(Purchase.PaymentStatus.COMPLETED)
+					.expiryDate(LocalDateTime.now().plusDays(i % 2 == 0 ? 30 : -1))
+					.isUsed(false).isExpired(false).build());
+		}
+		clearContext();
+
+		List<PurchaseDto> history = purchaseService.getPurchasesByUserId(user.getId());
+		assertThat(history).hasSize(200).allMatch(purchase -> purchase.getGymName() != null
+				&& "user".equals(purchase.getUserName()) && "월회원권".equals(purchase.getTicketName()));
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+		statistics.clear();
+		assertThat(purchaseService.getActivePurchasesByUserId(user.getId())).hasSize(100);
+		assertThat(purchaseService.getActivePurchasesByUserId(user.getId())).hasSize(100); // 캐시 적중
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void reviewFeedsJoinAuthorsAndTargetsInOneStatement() {
+		for (int i = 0; i < 50; i++) {
+			reviewRepository.save(Review.builder().user(user).gym(gyms.get(i % gyms.size())).rating(i % 5 + 1)
+					.content("리뷰" + i).build());
+		}
+		clearContext();
+
+		List<ReviewDto> userFeed = reviewService.getReviewsByUserId(user.getId(), null, 50).getContent();
+		assertThat(userFeed).hasSize(50).allMatch(review -> "회원".equals(review.getNickname())
+				&& review.getGymName() != null);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+		statistics.clear();
+		Long gymId = gyms.get(0).getId();
+		assertThat(reviewService.getReviewsByGymId(gymId, null, 20).getContent()).hasSize(5);
+		assertThat(reviewService.getReviewsByGymId(gymId, null, 20).getContent()).hasSize(5); // 첫 페이지 캐시
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	private void clearContext() {
+		entityManager.flush();
+		entityManager.clear();
+		statistics.clear();
+	}
+} 
\ No newline at end of file
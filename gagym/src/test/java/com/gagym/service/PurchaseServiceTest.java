@@ -0,0 +1,247 @@
+package com.gagym.service;
+
+import com.gagym.config.QrCodeSigner;
+import com.gagym.dto.GateScanDto;
+import com.gagym.dto.PurchaseDto;
+import com.gagym.entity.Gym;
+import com.gagym.entity.Purchase;
+import com.gagym.entity.Ticket;
+import com.gagym.entity.User;
+import com.gagym.reposiotry.PurchaseRepository;
+import com.gagym.reposiotry.TicketRepository;
+import com.gagym.reposiotry.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PurchaseServiceTest {
+
+	@Mock
+	private PurchaseRepository purchaseRepository;
+
+	@Mock
+	private TicketRepository ticketRepository;
+
+	@Mock
+	private UserRepository userRepository;
+
+	@Mock
+	private QrGateEngine qrGateEngine;
+
+	@Mock
+	private JdbcTemplate jdbcTemplate;
+
+	@Mock
+	private QrCodeSigner qrCodeSigner;
+
+	@Mock
+	private ActivePassCache activePassCache;
+
+	@Mock
+	private DailyPassCapacity dailyPassCapacity;
+
+	@Mock
+	private PurchasePaymentProcessor purchasePaymentProcessor;
+
+	@Mock
+	private PurchaseEventLog purchaseEventLog;
+
+	@Mock
+	private QrLookupIndex qrLookupIndex;
+
+	@InjectMocks
+	private PurchaseService purchaseService;
+
+	@Test
+	void purchaseHistoryIsReadThroughTheDtoProjectionOnly() {
+		List<PurchaseDto> purchases = LongStream.rangeClosed(1, 200)
+				.mapToObj(PurchaseServiceTest::purchase)
+				.collect(Collectors.toList());
+		when(purchaseRepository.findDtosByUserId(7L)).thenReturn(purchases);
+
+		List<PurchaseDto> result = purchaseService.getPurchasesByUserId(7L);
+
+		assertThat(result).hasSize(200);
+		assertThat(result.get(0).getGymName()).isEqualTo("헬스장");
+		verify(purchaseRepository, times(1)).findDtosByUserId(7L);
+		verifyNoMoreInteractions(purchaseRepository);
+		verifyNoInteractions(userRepository, ticketRepository);
+	}
+
+	@Test
+	void purchaseIsSavedPendingAndPaymentIsHandedOff() {
+		Gym gym = Gym.builder().id(10L).name("헬스장").build();
+		Ticket ticket = Ticket.builder().id(3L).gym(gym).type(Ticket.TicketType.MONTHLY).name("월회원권")
+				.price(new BigDecimal("50000")).validDays(30).build();
+		User user = User.builder().id(7L).username("user").build();
+		when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+		when(ticketRepository.findById(3L)).thenReturn(Optional.of(ticket));
+		when(purchaseRepository.save(any(Purchase.class))).thenAnswer(invocation -> {
+			Purchase purchase = invocation.getArgument(0);
+			purchase.setId(100L);
+			return purchase;
+		});
+
+		PurchaseDto result = purchaseService.purchaseTicket(7L, 3L, Purchase.PaymentMethod.CARD, null);
+
+		assertThat(result.getStatus()).isEqualTo("PENDING");
+		assertThat(result.getQrCode()).isNull();
+		verify(purchasePaymentProcessor).submitAfterCommit(100L);
+		verifyNoInteractions(qrGateEngine, qrCodeSigner, dailyPassCapacity);
+	}
+
+	@Test
+	void usedPassIsDroppedFromTheLookupIndex() {
+		Purchase purchase = Purchase.builder().id(1L).qrCode("qr-1").status(Purchase.PaymentStatus.COMPLETED)
+				.isUsed(false).expiryDate(LocalDateTime.now().plusDays(30)).build();
+		when(qrGateEngine.tryAcquire(isNull(QrGateEngine.ActivePass.class), any())).thenReturn(QrGateEngine.ScanResult.UNKNOWN);
+		when(qrLookupIndex.findPurchaseId("qr-1")).thenReturn(1L);
+		when(purchaseRepository.findById(1L)).thenReturn(Optional.of(purchase));
+		when(purchaseRepository.markUsed(eq(1L), eq(Purchase.PaymentStatus.COMPLETED), any())).thenReturn(1);
+		when(purchaseRepository.findDtoById(1L)).thenReturn(Optional.of(purchase(1)));
+
+		purchaseService.useTicket("qr-1", null);
+
+		verify(qrLookupIndex).removePurchase("qr-1");
+	}
+
+	@Test
+	void staleLookupHitIsEvictedAndResolvedByQrKey() {
+		// 인덱스가 다른 QR 코드의 구매를 가리킴 (롤백된 결제가 남긴 항목)
+		when(qrLookupIndex.findPurchaseId("qr-2")).thenReturn(5L);
+		when(purchaseRepository.findDtoById(5L)).thenReturn(Optional.of(purchase(5)));
+		when(purchaseRepository.findDtoByQrKey(any())).thenReturn(Optional.of(purchase(2)));
+
+		PurchaseDto result = purchaseService.getPurchaseByQrCode("qr-2");
+
+		assertThat(result.getId()).isEqualTo(2L);
+		verify(qrLookupIndex).removePurchase("qr-2");
+	}
+
+	@Test
+	void batchScanDeduplicatesCodesAndReportsUnknownOnesInRequestOrder() {
+		LocalDateTime expiryDate = LocalDateTime.now().plusDays(30);
+		when(qrGateEngine.tryAcquire(isNull(QrGateEngine.ActivePass.class), any())).thenReturn(QrGateEngine.ScanResult.UNKNOWN);
+		when(purchaseRepository.findScanStatesByQrKeyIn(any())).thenReturn(List.of(
+				new Object[]{"qr-1", 1L, Purchase.PaymentStatus.COMPLETED, false, expiryDate, 10L},
+				new Object[]{"qr-2", 2L, Purchase.PaymentStatus.COMPLETED, false, expiryDate, 10L},
+				new Object[]{"qr-3", 3L, Purchase.PaymentStatus.COMPLETED, true, expiryDate, 10L}));
+		when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1, 1});
+		when(purchaseRepository.findUserIdsByIdIn(List.of(1L, 2L))).thenReturn(List.of(7L));
+
+		GateScanDto.BatchResponse response = purchaseService.useTickets(
+				List.of("qr-1", "unknown", "qr-1", "qr-3", "qr-2"), 10L);
+
+		assertThat(response.getResults()).extracting(GateScanDto.Result::getStatus)
+				.containsExactly("ACCEPTED", "NOT_FOUND", "DUPLICATE", "ALREADY_USED", "ACCEPTED");
+		assertThat(response.getResults()).extracting(GateScanDto.Result::getPurchaseId)
+				.containsExactly(1L, null, null, 3L, 2L);
+		assertThat(response.getAccepted()).isEqualTo(2);
+		assertThat(response.getRejected()).isEqualTo(3);
+		// 중복 코드는 한 번만 조회, 갱신
+		ArgumentCaptor<Collection<byte[]>> keys = ArgumentCaptor.forClass(Collection.class);
+		verify(purchaseRepository).findScanStatesByQrKeyIn(keys.capture());
+		assertThat(keys.getValue()).hasSize(4);
+		ArgumentCaptor<List<Object[]>> updates = ArgumentCaptor.forClass(List.class);
+		verify(jdbcTemplate).batchUpdate(anyString(), updates.capture());
+		assertThat(updates.getValue()).extracting(args -> args[2]).containsExactly(1L, 2L);
+		verify(activePassCache).evictAll(List.of(7L));
+	}
+
+	@Test
+	void legacyCodeForAnotherGymIsRejectedAfterTheDbLookup() {
+		Gym gym = Gym.builder().id(20L).name("헬스장").build();
+		Ticket ticket = Ticket.builder().id(3L).gym(gym).type(Ticket.TicketType.MONTHLY).name("월회원권").build();
+		Purchase purchase = Purchase.builder().id(1L).ticket(ticket).qrCode("qr-1").status(Purchase.PaymentStatus.COMPLETED)
+				.isUsed(false).expiryDate(LocalDateTime.now().plusDays(30)).build();
+		when(qrGateEngine.tryAcquire(isNull(QrGateEngine.ActivePass.class), any())).thenReturn(QrGateEngine.ScanResult.UNKNOWN);
+		when(qrLookupIndex.findPurchaseId("qr-1")).thenReturn(1L);
+		when(purchaseRepository.findById(1L)).thenReturn(Optional.of(purchase));
+
+		assertThatThrownBy(() -> purchaseService.useTicket("qr-1", 10L))
+				.isInstanceOf(RuntimeException.class)
+				.hasMessage("다른 헬스장의 이용권입니다.");
+		verify(purchaseRepository, never()).markUsed(any(), any(), any());
+		// 자기 헬스장에서는 계속 쓸 수 있으므로 인덱스 항목 유지
+		verify(qrLookupIndex, never()).removePurchase(anyString());
+	}
+
+	@Test
+	void batchScanRejectsLegacyCodesForAnotherGym() {
+		LocalDateTime expiryDate = LocalDateTime.now().plusDays(30);
+		when(qrGateEngine.tryAcquire(isNull(QrGateEngine.ActivePass.class), any())).thenReturn(QrGateEngine.ScanResult.UNKNOWN);
+		when(purchaseRepository.findScanStatesByQrKeyIn(any())).thenReturn(List.of(
+				new Object[]{"qr-1", 1L, Purchase.PaymentStatus.COMPLETED, false, expiryDate, 10L},
+				new Object[]{"qr-2", 2L, Purchase.PaymentStatus.COMPLETED, false, expiryDate, 20L}));
+		when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1});
+		when(purchaseRepository.findUserIdsByIdIn(List.of(1L))).thenReturn(List.of(7L));
+
+		GateScanDto.BatchResponse response = purchaseService.useTickets(List.of("qr-1", "qr-2"), 10L);
+
+		assertThat(response.getResults()).extracting(GateScanDto.Result::getStatus)
+				.containsExactly("ACCEPTED", "WRONG_GYM");
+		ArgumentCaptor<List<Object[]>> updates = ArgumentCaptor.forClass(List.class);
+		verify(jdbcTemplate).batchUpdate(anyString(), updates.capture());
+		assertThat(updates.getValue()).extracting(args -> args[2]).containsExactly(1L);
+	}
+
+	@Test
+	void oversizedBatchIsRejectedBeforeAnyLookup() {
+		List<String> qrCodes = LongStream.rangeClosed(1, 1001).mapToObj(id -> "qr-" + id).collect(Collectors.toList());
+
+		assertThatThrownBy(() -> purchaseService.useTickets(qrCodes, 10L)).isInstanceOf(RuntimeException.class);
+		verifyNoInteractions(qrGateEngine, purchaseRepository, jdbcTemplate);
+	}
+
+	@Test
+	void emptyBatchReturnsNoResults() {
+		assertThat(purchaseService.useTickets(List.of(), 10L).getResults()).isEmpty();
+		verifyNoInteractions(qrGateEngine, purchaseRepository, jdbcTemplate);
+	}
+
+	@Test
+	void cancelLosingToAConcurrentUseLeavesThePassAlone() {
+		Gym gym = Gym.builder().id(10L).name("헬스장").build();
+		Ticket ticket = Ticket.builder().id(3L).gym(gym).type(Ticket.TicketType.DAILY).name("일일권")
+				.price(new BigDecimal("10000")).validDays(1).build();
+		Purchase purchase = Purchase.builder().id(1L).user(User.builder().id(7L).build()).ticket(ticket).qrCode("qr-1")
+				.status(Purchase.PaymentStatus.COMPLETED).isUsed(false).purchaseDate(LocalDateTime.now()).build();
+		when(purchaseRepository.findById(1L)).thenReturn(Optional.of(purchase));
+		// 읽은 뒤 게이트 사용 처리가 먼저 커밋되어 조건부 취소가 0건
+		when(purchaseRepository.cancelCompleted(eq(1L), eq(Purchase.PaymentStatus.COMPLETED),
+				eq(Purchase.PaymentStatus.CANCELLED), any())).thenReturn(0);
+
+		assertThatThrownBy(() -> purchaseService.cancelPurchase(1L)).isInstanceOf(RuntimeException.class);
+		verify(purchaseRepository, never()).save(any());
+		verifyNoInteractions(dailyPassCapacity, qrGateEngine, qrLookupIndex, activePassCache, purchaseEventLog);
+	}
+
+	private static PurchaseDto purchase(long id) {
+		LocalDateTime now = LocalDateTime.now();
+		return new PurchaseDto(id, 7L, "user", 3L, "월회원권", Ticket.TicketType.MONTHLY, new BigDecimal("50000"),
+				Purchase.PaymentMethod.CARD, Purchase.PaymentStatus.COMPLETED, now, now.plusDays(30),
+				"qr-" + id, false, null, 10L, "헬스장", now, now);
+	}
+} 
\ No newline at end of file
@@ -0,0 +1,75 @@
+package com.gagym.service;
+
+import com.gagym.reposiotry.PurchaseRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class QrGateEngineTest {
+
+	private final QrGateEngine engine = new QrGateEngine(mock(PurchaseRepository.class));
+
+	@Test
+	void parallelScansOfSameCodeSucceedExactlyOnce() throws Exception {
+		LocalDateTime now = LocalDateTime.now();
+		engine.register("qr-1", 1L, 10L, now.plusDays(1));
+
+		int scans = 5000;
+		ExecutorService executor = Executors.newFixedThreadPool(64);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<QrGateEngine.ScanResult>> futures = new ArrayList<>(scans);
+		for (int i = 0; i < scans; i++) {
+			futures.add(executor.submit(() -> {
+				start.await();
+				return engine.tryAcquire("qr-1", now);
+			}));
+		}
+		start.countDown();
+
+		int acquired = 0;
+		int alreadyUsed = 0;
+		for (Future<QrGateEngine.ScanResult> future : futures) {
+			QrGateEngine.ScanResult result = future.get(10, TimeUnit.SECONDS);
+			if (result == QrGateEngine.ScanResult.ACQUIRED) {
+				acquired++;
+			} else if (result == QrGateEngine.ScanResult.ALREADY_USED) {
+				alreadyUsed++;
+			}
+		}
+		executor.shutdownNow();
+
+		assertThat(acquired).isEqualTo(1);
+		assertThat(alreadyUsed).isEqualTo(scans - 1);
+	}
+
+	@Test
+	void releasedPassCanBeAcquiredAgain() {
+		LocalDateTime now = LocalDateTime.now();
+		engine.register("qr-2", 2L, 10L, now.plusDays(1));
+
+		assertThat(engine.tryAcquire("qr-2", now)).isEqualTo(QrGateEngine.ScanResult.ACQUIRED);
+		engine.release(engine.find("qr-2"));
+
+		assertThat(engine.tryAcquire("qr-2", now)).isEqualTo(QrGateEngine.ScanResult.ACQUIRED);
+		assertThat(engine.tryAcquire("qr-2", now)).isEqualTo(QrGateEngine.ScanResult.ALREADY_USED);
+	}
+
+	@Test
+	void expiredAndUnknownCodesAreNotAcquired() {
+		LocalDateTime now = LocalDateTime.now();
+		engine.register("qr-3", 3L, 10L, now.minusMinutes(1));
+
+		assertThat(engine.tryAcquire("qr-3", now)).isEqualTo(QrGateEngine.ScanResult.EXPIRED);
+		assertThat(engine.tryAcquire("missing", now)).isEqualTo(QrGateEngine.ScanResult.UNKNOWN);
+	}
+} 
\ No newline at end of file
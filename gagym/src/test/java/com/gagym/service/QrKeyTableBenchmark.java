@@ -0,0 +1,102 @@
+package com.gagym.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// QrKeyTable 과 HashMap<String, Long> 의 조회 비교 (키 1천만 개, UUID QR 코드)
+// 실행: 테스트 클래스패스로 main 실행 (단위 테스트에는 포함되지 않음)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms6g", "-Xmx6g"})
+public class QrKeyTableBenchmark {
+
+	@Param({"10000000"})
+	public int size;
+
+	private QrKeyTable table;
+	private Map<String, Long> map;
+	private String[] codes;
+	private long[] highs;
+	private long[] lows;
+	private long[] missHighs;
+	private long[] missLows;
+	private int cursor;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		SplittableRandom random = new SplittableRandom(42);
+		table = new QrKeyTable(size * 2, size);
+		map = new HashMap<>(size * 2);
+		codes = new String[size];
+		highs = new long[size];
+		lows = new long[size];
+		missHighs = new long[size];
+		missLows = new long[size];
+		for (int i = 0; i < size; i++) {
+			UUID uuid = new UUID(random.nextLong(), random.nextLong());
+			codes[i] = uuid.toString();
+			highs[i] = uuid.getMostSignificantBits();
+			lows[i] = uuid.getLeastSignificantBits();
+			table.put(highs[i], lows[i], i + 1L);
+			map.put(codes[i], i + 1L);
+			missHighs[i] = random.nextLong();
+			missLows[i] = random.nextLong();
+		}
+	}
+
+	// 조회 순서를 섞어 캐시에 남은 칸만 읽지 않도록 함
+	private int next() {
+		cursor = (cursor + 7_919) % size;
+		return cursor;
+	}
+
+	@Benchmark
+	public long tableHit() {
+		int i = next();
+		return table.get(highs[i], lows[i]);
+	}
+
+	@Benchmark
+	public long tableMiss() {
+		int i = next();
+		return table.get(missHighs[i], missLows[i]);
+	}
+
+	// QR 문자열에서 키를 만드는 비용까지 포함
+	@Benchmark
+	public long tableHitFromCode() {
+		byte[] key = QrKeyCodec.keyOf(codes[next()]);
+		return table.get(QrKeyCodec.high(key), QrKeyCodec.low(key));
+	}
+
+	@Benchmark
+	public Long hashMapHit() {
+		return map.get(codes[next()]);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(QrKeyTableBenchmark.class.getSimpleName()).build()).run();
+	}
+} 
\ No newline at end of file
@@ -0,0 +1,83 @@
+package com.gagym.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QrKeyTableTest {
+
+	@Test
+	void uuidCodesMapToTheirOwnBytesAndOtherCodesAreHashed() {
+		UUID uuid = UUID.randomUUID();
+		byte[] key = QrKeyCodec.keyOf(uuid.toString());
+
+		assertThat(key).hasSize(QrKeyCodec.KEY_SIZE);
+		assertThat(QrKeyCodec.high(key)).isEqualTo(uuid.getMostSignificantBits());
+		assertThat(QrKeyCodec.low(key)).isEqualTo(uuid.getLeastSignificantBits());
+
+		String signed = "GAGYM-P-1.10.3.abc";
+		assertThat(QrKeyCodec.keyOf(signed)).hasSize(QrKeyCodec.KEY_SIZE).isEqualTo(QrKeyCodec.keyOf(signed));
+		// 대문자 UUID 는 표준 형식이 아니므로 해시 키
+		assertThat(QrKeyCodec.keyOf(uuid.toString().toUpperCase())).isNotEqualTo(key);
+	}
+
+	@Test
+	void removedKeysLeaveOtherProbesFindable() {
+		QrKeyTable table = new QrKeyTable(1_024, 1_000);
+		// 부하율 0.5 근처까지 채워 탐사 체인이 생기도록 함
+		for (long i = 1; i <= 500; i++) {
+			assertThat(table.put(7L, i, 100L + i)).isTrue();
+		}
+
+		for (long i = 2; i <= 500; i += 2) {
+			table.remove(7L, i);
+		}
+
+		for (long i = 1; i <= 500; i++) {
+			assertThat(table.get(7L, i)).isEqualTo(i % 2 == 0 ? 0L : 100L + i);
+		}
+		assertThat(table.size()).isEqualTo(250);
+
+		// 툼스톤 자리를 재사용해도 기존 키는 그대로 조회됨
+		for (long i = 2; i <= 500; i += 2) {
+			table.put(7L, i, 200L + i);
+		}
+		for (long i = 1; i <= 500; i++) {
+			assertThat(table.get(7L, i)).isEqualTo(i % 2 == 0 ? 200L + i : 100L + i);
+		}
+	}
+
+	@Test
+	void tableGrowsUntilMaxSize() {
+		QrKeyTable table = new QrKeyTable(4, 1_000);
+		for (long i = 1; i <= 1_000; i++) {
+			assertThat(table.put(i * 31, i, i)).isTrue();
+		}
+		assertThat(table.put(99_999L, 1L, 1L)).isFalse();
+
+		for (long i = 1; i <= 1_000; i++) {
+			assertThat(table.get(i * 31, i)).isEqualTo(i);
+		}
+		assertThat(table.size()).isEqualTo(1_000);
+	}
+
+	@Test
+	void lookupIndexResolvesPutCodes() {
+		QrLookupIndex index = new QrLookupIndex(null, null, null, 100);
+		String qrCode = UUID.randomUUID().toString();
+
+		index.putPurchase(qrCode, 42L);
+		assertThat(index.findPurchaseId(qrCode)).isEqualTo(42L);
+		assertThat(index.findTicketId(qrCode)).isNull();
+
+		index.removePurchase(qrCode);
+		assertThat(index.findPurchaseId(qrCode)).isNull();
+
+		index.putPurchase(qrCode, 43L);
+		index.removePurchaseKeys(List.of(QrKeyCodec.keyOf(qrCode)));
+		assertThat(index.findPurchaseId(qrCode)).isNull();
+	}
+} 
\ No newline at end of file
@@ -0,0 +1,120 @@
+package com.gagym.service;
+
+import com.gagym.entity.Gym;
+import com.gagym.entity.GymRatingHistogram;
+import com.gagym.entity.Review;
+import com.gagym.entity.Trainer;
+import com.gagym.entity.User;
+import com.gagym.reposiotry.GymRatingHistogramRepository;
+import com.gagym.reposiotry.GymRepository;
+import com.gagym.reposiotry.ReviewRepository;
+import com.gagym.reposiotry.TrainerRepository;
+import com.gagym.reposiotry.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("jpa-test")
+class ReviewRatingReconcilerTest {
+
+	@Autowired
+	private GymRepository gymRepository;
+
+	@Autowired
+	private TrainerRepository trainerRepository;
+
+	@Autowired
+	private ReviewRepository reviewRepository;
+
+	@Autowired
+	private GymRatingHistogramRepository gymRatingHistogramRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private final GymCache gymCache = mock(GymCache.class);
+	private final GymRatingHistogramCache gymRatingHistogramCache = mock(GymRatingHistogramCache.class);
+	private final GymRankingIndex gymRankingIndex = mock(GymRankingIndex.class);
+
+	private ReviewRatingReconciler reviewRatingReconciler;
+	private User user;
+
+	@BeforeEach
+	void setUp() {
+		reviewRatingReconciler = new ReviewRatingReconciler(gymRepository, trainerRepository, reviewRepository,
+				gymRatingHistogramRepository, gymCache, gymRatingHistogramCache, gymRankingIndex,
+				new TransactionTemplate(transactionManager));
+		user = userRepository.save(User.builder().username("user").password("password").email("user@gagym.com")
+				.role(User.Role.USER).authProvider(User.AuthProvider.LOCAL).isEmailVerified(true).build());
+	}
+
+	@Test
+	void driftedAggregatesAreResetToTheRealReviewSums() {
+		// 리뷰는 5, 4, 3점인데 집계는 2건 9점으로 어긋난 헬스장 / 5점 1건으로 일치하는 헬스장
+		Gym drifted = gym(4.5, 2, 9L);
+		Gym consistent = gym(5.0, 1, 5L);
+		Trainer trainer = trainerRepository.save(Trainer.builder().name("트레이너").gym(drifted)
+				.rating(0.0).reviewCount(0).ratingSum(0L).build());
+		review(drifted, null, 5);
+		review(drifted, null, 4);
+		review(drifted, trainer, 3);
+		review(consistent, null, 5);
+		gymRatingHistogramRepository.save(GymRatingHistogram.builder().gymId(consistent.getId())
+				.star1(0L).star2(0L).star3(0L).star4(0L).star5(1L).revision(1L).updatedAt(LocalDateTime.now()).build());
+		entityManager.flush();
+		entityManager.clear();
+
+		reviewRatingReconciler.reconcile();
+		entityManager.clear();
+
+		Gym reconciled = gymRepository.findById(drifted.getId()).orElseThrow();
+		assertThat(reconciled.getRating()).isEqualTo(4.0);
+		assertThat(reconciled.getReviewCount()).isEqualTo(3);
+		assertThat(reconciled.getRatingSum()).isEqualTo(12L);
+		Gym untouched = gymRepository.findById(consistent.getId()).orElseThrow();
+		assertThat(untouched.getRating()).isEqualTo(5.0);
+		assertThat(untouched.getReviewCount()).isEqualTo(1);
+		assertThat(untouched.getRatingSum()).isEqualTo(5L);
+		Trainer reconciledTrainer = trainerRepository.findById(trainer.getId()).orElseThrow();
+		assertThat(reconciledTrainer.getRating()).isEqualTo(3.0);
+		assertThat(reconciledTrainer.getReviewCount()).isEqualTo(1);
+		assertThat(reconciledTrainer.getRatingSum()).isEqualTo(3L);
+		GymRatingHistogram histogram = gymRatingHistogramRepository.findById(drifted.getId()).orElseThrow();
+		assertThat(histogram.getStar3()).isEqualTo(1L);
+		assertThat(histogram.getStar4()).isEqualTo(1L);
+		assertThat(histogram.getStar5()).isEqualTo(1L);
+		assertThat(gymRatingHistogramRepository.findById(consistent.getId()).orElseThrow().getRevision()).isEqualTo(1L);
+		verify(gymRatingHistogramCache).evict(drifted.getId());
+		verify(gymCache).evict(drifted.getId());
+		verify(gymRankingIndex).updateRating(drifted.getId(), 4.0);
+		verify(gymCache, never()).evict(consistent.getId());
+	}
+
+	private Gym gym(Double rating, int reviewCount, long ratingSum) {
+		return gymRepository.save(Gym.builder().name("헬스장").address("서울")
+				.rating(rating).reviewCount(reviewCount).ratingSum(ratingSum).build());
+	}
+
+	private void review(Gym gym, Trainer trainer, int rating) {
+		reviewRepository.save(Review.builder().user(user).gym(gym).trainer(trainer).rating(rating).build());
+	}
+} 
\ No newline at end of file
@@ -0,0 +1,214 @@
+package com.gagym.service;
+
+import com.gagym.dto.CursorPageDto;
+import com.gagym.dto.RatingHistogramDto;
+import com.gagym.dto.ReviewDto;
+import com.gagym.entity.Gym;
+import com.gagym.entity.GymRatingHistogram;
+import com.gagym.entity.Review;
+import com.gagym.entity.Trainer;
+import com.gagym.entity.User;
+import com.gagym.reposiotry.GymRatingHistogramRepository;
+import com.gagym.reposiotry.GymRepository;
+import com.gagym.reposiotry.ReviewRepository;
+import com.gagym.reposiotry.TrainerRepository;
+import com.gagym.reposiotry.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReviewServiceTest {
+
+	@Mock
+	private ReviewRepository reviewRepository;
+
+	@Mock
+	private UserRepository userRepository;
+
+	@Mock
+	private GymRepository gymRepository;
+
+	@Mock
+	private TrainerRepository trainerRepository;
+
+	@Mock
+	private GymRatingHistogramRepository gymRatingHistogramRepository;
+
+	@Mock
+	private GymCache gymCache;
+
+	@Spy
+	private GymRatingHistogramCache gymRatingHistogramCache = new GymRatingHistogramCache(100, 60_000L);
+
+	@Mock
+	private GymRankingIndex gymRankingIndex;
+
+	@Spy
+	private ReviewFeedCache reviewFeedCache = new ReviewFeedCache(100, 60_000L);
+
+	@InjectMocks
+	private ReviewService reviewService;
+
+	private final User user = User.builder().id(7L).username("user").build();
+	private final Gym gym = Gym.builder().id(10L).name("헬스장").build();
+	private final Trainer trainer = Trainer.builder().id(20L).name("트레이너").build();
+
+	@Test
+	void createdReviewAddsItsRatingToGymAndTrainer() {
+		when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+		when(gymRepository.findById(10L)).thenReturn(Optional.of(gym));
+		when(trainerRepository.findById(20L)).thenReturn(Optional.of(trainer));
+		when(reviewRepository.save(any(Review.class))).thenAnswer(invocation -> {
+			Review review = invocation.getArgument(0);
+			review.setId(1L);
+			return review;
+		});
+		when(gymRepository.findRatingById(10L)).thenReturn(4.0);
+
+		ReviewDto created = reviewService.createReview(7L,
+				ReviewDto.builder().gymId(10L).trainerId(20L).rating(4).content("좋아요").build());
+
+		assertThat(created.getId()).isEqualTo(1L);
+		verify(gymRepository).applyRatingDelta(10L, 4, 1);
+		verify(trainerRepository).applyRatingDelta(20L, 4, 1);
+		verify(gymRatingHistogramRepository).applyDelta(eq(10L), eq(0), eq(0), eq(0), eq(1), eq(0), any());
+		verify(gymCache).evict(10L);
+		verify(gymRatingHistogramCache).evict(10L);
+		verify(gymRankingIndex).updateRating(10L, 4.0);
+	}
+
+	@Test
+	void editedReviewAppliesOnlyTheRatingDifference() {
+		Review review = Review.builder().id(1L).user(user).gym(gym).rating(2).build();
+		when(reviewRepository.findWithDetailsById(1L)).thenReturn(Optional.of(review));
+		when(reviewRepository.updateIfRating(eq(1L), eq(2), eq(5), any(), any(), any())).thenReturn(1);
+
+		ReviewDto updated = reviewService.updateReview(1L, 7L, ReviewDto.builder().rating(5).content("수정").build());
+
+		assertThat(updated.getRating()).isEqualTo(5);
+		verify(gymRepository).applyRatingDelta(10L, 3, 0);
+		verify(gymRatingHistogramRepository).applyDelta(eq(10L), eq(0), eq(-1), eq(0), eq(0), eq(1), any());
+		verify(trainerRepository, never()).applyRatingDelta(anyLong(), anyLong(), anyInt());
+	}
+
+	@Test
+	void concurrentEditIsRejectedWithoutApplyingDelta() {
+		Review review = Review.builder().id(1L).user(user).gym(gym).rating(2).build();
+		when(reviewRepository.findWithDetailsById(1L)).thenReturn(Optional.of(review));
+		when(reviewRepository.updateIfRating(eq(1L), eq(2), eq(5), any(), any(), any())).thenReturn(0);
+
+		assertThatThrownBy(() -> reviewService.updateReview(1L, 7L, ReviewDto.builder().rating(5).build()))
+				.isInstanceOf(RuntimeException.class);
+		verify(gymRepository, never()).applyRatingDelta(anyLong(), anyLong(), anyInt());
+	}
+
+	@Test
+	void deletedReviewIsSubtractedOnce() {
+		Review review = Review.builder().id(1L).user(user).gym(gym).trainer(trainer).rating(3).build();
+		when(reviewRepository.findWithDetailsById(1L)).thenReturn(Optional.of(review));
+		when(reviewRepository.deleteIfRating(1L, 3)).thenReturn(1, 0);
+		when(reviewRepository.existsById(1L)).thenReturn(false);
+
+		reviewService.deleteReview(1L, 7L);
+		reviewService.deleteReview(1L, 7L);
+
+		verify(gymRepository, times(1)).applyRatingDelta(10L, -3, -1);
+		verify(gymRatingHistogramRepository, times(1)).applyDelta(eq(10L), eq(0), eq(0), eq(-1), eq(0), eq(0), any());
+		verify(trainerRepository, times(1)).applyRatingDelta(20L, -3, -1);
+	}
+
+	@Test
+	void onlyTheAuthorCanEditOrDelete() {
+		Review review = Review.builder().id(1L).user(user).gym(gym).rating(3).build();
+		when(reviewRepository.findWithDetailsById(1L)).thenReturn(Optional.of(review));
+
+		assertThatThrownBy(() -> reviewService.deleteReview(1L, 8L)).isInstanceOf(RuntimeException.class);
+		verify(reviewRepository, never()).deleteIfRating(anyLong(), anyInt());
+	}
+
+	@Test
+	void ratingHistogramIsReadOnceUntilAReviewChangesIt() {
+		when(gymRatingHistogramRepository.findById(10L)).thenReturn(Optional.of(GymRatingHistogram.builder()
+				.gymId(10L).star1(1L).star2(0L).star3(0L).star4(2L).star5(1L).revision(4L).build()));
+
+		RatingHistogramDto first = reviewService.getRatingHistogram(10L);
+		RatingHistogramDto second = reviewService.getRatingHistogram(10L);
+
+		assertThat(second).isSameAs(first);
+		assertThat(first.getReviewCount()).isEqualTo(4L);
+		assertThat(first.getAverageRating()).isEqualTo(3.5);
+		verify(gymRatingHistogramRepository, times(1)).findById(10L);
+
+		gymRatingHistogramCache.evict(10L);
+		reviewService.getRatingHistogram(10L);
+		verify(gymRatingHistogramRepository, times(2)).findById(10L);
+	}
+
+	@Test
+	void ratingFilterPagesWithCreatedAtAndIdCursor() {
+		LocalDateTime createdAt = LocalDateTime.of(2024, 5, 1, 12, 0);
+		List<ReviewDto> firstPage = List.of(review(9L, createdAt), review(8L, createdAt), review(5L, createdAt.minusDays(1)));
+		when(reviewRepository.findGymRatingFeed(eq(10L), eq(1), any(), eq(Long.MAX_VALUE), any())).thenReturn(firstPage);
+
+		CursorPageDto<ReviewDto> page = reviewService.getReviewsByGymIdAndRating(10L, 1, null, 2);
+
+		assertThat(page.getContent()).extracting(ReviewDto::getId).containsExactly(9L, 8L);
+		assertThat(page.getHasNext()).isTrue();
+
+		when(reviewRepository.findGymRatingFeed(eq(10L), eq(1), eq(createdAt), eq(8L), any()))
+				.thenReturn(List.of(firstPage.get(2)));
+		CursorPageDto<ReviewDto> next = reviewService.getReviewsByGymIdAndRating(10L, 1, page.getNextCursor(), 2);
+
+		assertThat(next.getContent()).extracting(ReviewDto::getId).containsExactly(5L);
+		assertThat(next.getHasNext()).isFalse();
+		assertThat(next.getNextCursor()).isNull();
+	}
+
+	@Test
+	void gymFeedFirstPageIsCachedUntilANewReview() {
+		LocalDateTime createdAt = LocalDateTime.of(2024, 5, 1, 12, 0);
+		List<ReviewDto> latest = LongStream.rangeClosed(1, 21)
+				.mapToObj(id -> review(100L - id, createdAt.minusMinutes(id)))
+				.collect(Collectors.toList());
+		when(reviewRepository.findGymFeed(eq(10L), any(), eq(Long.MAX_VALUE), any())).thenReturn(latest);
+
+		CursorPageDto<ReviewDto> first = reviewService.getReviewsByGymId(10L, null, 20);
+		CursorPageDto<ReviewDto> small = reviewService.getReviewsByGymId(10L, null, 5);
+
+		assertThat(first.getContent()).hasSize(20);
+		assertThat(first.getHasNext()).isTrue();
+		assertThat(small.getContent()).extracting(ReviewDto::getId).containsExactly(99L, 98L, 97L, 96L, 95L);
+		assertThat(small.getHasNext()).isTrue();
+		verify(reviewRepository, times(1)).findGymFeed(eq(10L), any(), eq(Long.MAX_VALUE), any());
+
+		when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+		when(gymRepository.findById(10L)).thenReturn(Optional.of(gym));
+		when(reviewRepository.save(any(Review.class))).thenAnswer(invocation -> invocation.getArgument(0));
+		reviewService.createReview(7L, ReviewDto.builder().gymId(10L).rating(5).build());
+		reviewService.getReviewsByGymId(10L, null, 20);
+
+		verify(reviewRepository, times(2)).findGymFeed(eq(10L), any(), eq(Long.MAX_VALUE), any());
+	}
+
+	private ReviewDto review(Long id, LocalDateTime createdAt) {
+		return ReviewDto.builder().id(id).userId(7L).nickname("닉네임").gymId(10L).rating(1).createdAt(createdAt).build();
+	}
+} 
\ No newline at end of file
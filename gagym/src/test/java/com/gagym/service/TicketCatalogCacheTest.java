@@ -0,0 +1,50 @@
+package com.gagym.service;
+
+import com.gagym.dto.TicketDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TicketCatalogCacheTest {
+
+	private final TicketCatalogCache cache = new TicketCatalogCache(100, 60_000L);
+
+	@Test
+	void cachedCatalogKeepsEtagUntilEvicted() {
+		AtomicInteger loads = new AtomicInteger();
+		List<TicketDto> tickets = List.of(TicketDto.builder().id(1L).gymId(10L).gymName("헬스장").build());
+
+		TicketCatalogCache.Catalog first = cache.get(10L, id -> {
+			loads.incrementAndGet();
+			return tickets;
+		});
+		TicketCatalogCache.Catalog second = cache.get(10L, id -> {
+			loads.incrementAndGet();
+			return tickets;
+		});
+
+		assertThat(loads.get()).isEqualTo(1);
+		assertThat(second.getEtag()).isEqualTo(first.getEtag());
+
+		cache.evict(10L);
+		TicketCatalogCache.Catalog reloaded = cache.get(10L, id -> {
+			loads.incrementAndGet();
+			return tickets;
+		});
+
+		assertThat(loads.get()).isEqualTo(2);
+		assertThat(reloaded.getEtag()).isNotEqualTo(first.getEtag());
+	}
+
+	@Test
+	void evictingOneGymKeepsOtherGymsEtag() {
+		TicketCatalogCache.Catalog other = cache.get(20L, id -> List.of());
+
+		cache.evict(10L);
+
+		assertThat(cache.get(20L, id -> List.of()).getEtag()).isEqualTo(other.getEtag());
+	}
+} 
\ No newline at end of file